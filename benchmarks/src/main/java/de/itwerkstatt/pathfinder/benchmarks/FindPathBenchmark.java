@@ -0,0 +1,101 @@
+package de.itwerkstatt.pathfinder.benchmarks;
+
+import de.itwerkstatt.pathfinder.NavigationMesh;
+import de.itwerkstatt.pathfinder.PathFinder;
+import de.itwerkstatt.pathfinder.entities.Point;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link PathFinder#findPath()} on a compiled mesh.<br>
+ * The visibility graph has up to n² edges and needs seconds to build 1000
+ * vertices, so it only runs on areas of up to 1000 vertices. The triangle
+ * corridor runs on all sizes.<br>
+ * In the CONVEX area every query is a direct line of sight, so these results
+ * measure the containment, projection and line of sight tests only. In the
+ * CONCAVE area no HIT query has a line of sight, so each of them is a search.
+ *
+ * @author dsust
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindPathBenchmark {
+
+    /**
+     * The queries and the path finder of one engine.
+     */
+    public abstract static class Workload {
+
+        @Param({"CONVEX", "CONCAVE"})
+        private Shapes shape;
+
+        @Param({"HIT", "MISS"})
+        private Queries queries;
+
+        private PathFinder pathFinder;
+        private Point[] points;
+        private int next;
+
+        void setUp(int vertexCount, NavigationMesh.Engine engine) {
+            pathFinder = new PathFinder(shape.create(vertexCount), engine);
+            //Compile the mesh outside of the measurement
+            pathFinder.getNavigationMesh();
+            points = queries.create(pathFinder, shape, 42);
+        }
+
+        Point[] findPath() {
+            int i = next;
+            next = (next + 1) % Queries.COUNT;
+            pathFinder.setStartAndEndpoint(points[i * 2], points[i * 2 + 1]);
+            return pathFinder.findPath();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TriangleCorridor extends Workload {
+
+        @Param({"10", "100", "1000", "10000", "100000"})
+        private int vertexCount;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            setUp(vertexCount, NavigationMesh.Engine.TRIANGLE_CORRIDOR);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class VisibilityGraph extends Workload {
+
+        @Param({"10", "100", "1000"})
+        private int vertexCount;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            setUp(vertexCount, NavigationMesh.Engine.VISIBILITY_GRAPH);
+        }
+    }
+
+    @Benchmark
+    public Point[] triangleCorridor(TriangleCorridor workload) {
+        return workload.findPath();
+    }
+
+    @Benchmark
+    public Point[] visibilityGraph(VisibilityGraph workload) {
+        return workload.findPath();
+    }
+}
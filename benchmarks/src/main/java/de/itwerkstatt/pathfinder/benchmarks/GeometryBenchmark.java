@@ -0,0 +1,100 @@
+package de.itwerkstatt.pathfinder.benchmarks;
+
+import de.itwerkstatt.pathfinder.entities.Area;
+import de.itwerkstatt.pathfinder.entities.Line;
+import de.itwerkstatt.pathfinder.entities.Point;
+import de.itwerkstatt.pathfinder.entities.Triangle;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the geometric primitives of the entities on random input.
+ *
+ * @author dsust
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeometryBenchmark {
+
+    private static final int COUNT = 1024;
+
+    /**
+     * The area of {@link #calculateNearestPointToArea(Polygon)}, only this
+     * benchmark runs for every shape and size.
+     */
+    @State(Scope.Thread)
+    public static class Polygon {
+
+        @Param({"10", "100", "1000", "10000", "100000"})
+        private int vertexCount;
+
+        @Param({"CONVEX", "CONCAVE"})
+        private Shapes shape;
+
+        private Area area;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            area = shape.create(vertexCount);
+        }
+    }
+
+    private Line[] lines;
+    private Triangle[] triangles;
+    private Point[] points;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        lines = new Line[COUNT];
+        triangles = new Triangle[COUNT];
+        points = new Point[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            lines[i] = new Line(randomPoint(random), randomPoint(random));
+            triangles[i] = new Triangle(randomPoint(random), randomPoint(random), randomPoint(random));
+            points[i] = randomPoint(random);
+        }
+    }
+
+    private static Point randomPoint(Random random) {
+        return new Point(Math.round(random.nextDouble() * Shapes.SIZE), Math.round(random.nextDouble() * Shapes.SIZE));
+    }
+
+    @Benchmark
+    public boolean doIntersect() {
+        int i = next;
+        next = (next + 1) % COUNT;
+        return lines[i].doIntersect(lines[(i + 1) % COUNT]);
+    }
+
+    @Benchmark
+    public boolean isPointInTriangle() {
+        int i = next;
+        next = (next + 1) % COUNT;
+        return triangles[i].isPointInTriangle(points[i]);
+    }
+
+    @Benchmark
+    public Point calculateNearestPointToArea(Polygon polygon) {
+        int i = next;
+        next = (next + 1) % COUNT;
+        return polygon.area.calculateNearestPointToArea(points[i]);
+    }
+}
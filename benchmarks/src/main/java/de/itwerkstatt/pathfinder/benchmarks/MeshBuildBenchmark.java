@@ -0,0 +1,85 @@
+package de.itwerkstatt.pathfinder.benchmarks;
+
+import de.itwerkstatt.pathfinder.NavigationMesh;
+import de.itwerkstatt.pathfinder.entities.Area;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the compilation of an area: triangulation, edge grid and the node
+ * mesh or the triangle adjacency. Like in {@link FindPathBenchmark}, the
+ * visibility graph only runs on areas of up to 1000 vertices.
+ *
+ * @author dsust
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MeshBuildBenchmark {
+
+    /**
+     * The area of one engine.
+     */
+    public abstract static class Workload {
+
+        @Param({"CONVEX", "CONCAVE"})
+        private Shapes shape;
+
+        private Area area;
+
+        void setUp(int vertexCount) {
+            area = shape.create(vertexCount);
+        }
+
+        NavigationMesh buildMesh(NavigationMesh.Engine engine) {
+            return new NavigationMesh(area, engine);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class TriangleCorridor extends Workload {
+
+        @Param({"10", "100", "1000", "10000", "100000"})
+        private int vertexCount;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            setUp(vertexCount);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class VisibilityGraph extends Workload {
+
+        @Param({"10", "100", "1000"})
+        private int vertexCount;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            setUp(vertexCount);
+        }
+    }
+
+    @Benchmark
+    public NavigationMesh triangleCorridor(TriangleCorridor workload) {
+        return workload.buildMesh(NavigationMesh.Engine.TRIANGLE_CORRIDOR);
+    }
+
+    @Benchmark
+    public NavigationMesh visibilityGraph(VisibilityGraph workload) {
+        return workload.buildMesh(NavigationMesh.Engine.VISIBILITY_GRAPH);
+    }
+}
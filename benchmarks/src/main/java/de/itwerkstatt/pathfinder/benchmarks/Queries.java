@@ -0,0 +1,71 @@
+package de.itwerkstatt.pathfinder.benchmarks;
+
+import de.itwerkstatt.pathfinder.NavigationMesh;
+import de.itwerkstatt.pathfinder.PathFinder;
+import de.itwerkstatt.pathfinder.entities.Point;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * The kind of the start points of the queries. The end points always lie
+ * inside of the area.
+ *
+ * @author dsust
+ */
+public enum Queries {
+
+    /**
+     * The start point lies inside of the area. In the
+     * {@link Shapes#CONCAVE} area start and end point cannot see each other,
+     * so every query needs a search. In the {@link Shapes#CONVEX} area every
+     * query is a direct line of sight.
+     */
+    HIT,
+    /**
+     * The start point lies outside of the area, so it is moved to the border
+     * of the area first.
+     */
+    MISS;
+
+    /**
+     * Number of prepared queries, the benchmarks cycle through them.
+     */
+    static final int COUNT = 1024;
+
+    /**
+     * Creates the start and end points of the queries: entry 2*i is the
+     * start and 2*i+1 the end point of query i.
+     */
+    Point[] create(PathFinder pathFinder, Shapes shape, long seed) {
+        Random random = new Random(seed);
+        NavigationMesh mesh = pathFinder.getNavigationMesh();
+        boolean search = this == HIT && shape == Shapes.CONCAVE;
+        Point[] outline = pathFinder.getArea().points();
+        double[] bounds = {
+            Stream.of(outline).mapToDouble(Point::x).min().getAsDouble(),
+            Stream.of(outline).mapToDouble(Point::y).min().getAsDouble(),
+            Stream.of(outline).mapToDouble(Point::x).max().getAsDouble(),
+            Stream.of(outline).mapToDouble(Point::y).max().getAsDouble()};
+        Point[] points = new Point[COUNT * 2];
+        for (int i = 0; i < COUNT; i++) {
+            do {
+                points[i * 2] = randomPoint(pathFinder, random, bounds, this == HIT);
+                points[i * 2 + 1] = randomPoint(pathFinder, random, bounds, true);
+            } while (search && mesh.isLineOfSight(points[i * 2], points[i * 2 + 1]));
+        }
+        return points;
+    }
+
+    /**
+     * Draws points from the bounding box of the area until one lies inside or
+     * outside as requested.
+     */
+    private static Point randomPoint(PathFinder pathFinder, Random random, double[] bounds, boolean inside) {
+        Point p;
+        do {
+            p = new Point(Math.round(bounds[0] + random.nextDouble() * (bounds[2] - bounds[0])),
+                    Math.round(bounds[1] + random.nextDouble() * (bounds[3] - bounds[1])));
+        } while (pathFinder.isPointInArea(p) != inside);
+        return p;
+    }
+}
@@ -0,0 +1,124 @@
+package de.itwerkstatt.pathfinder.benchmarks;
+
+import de.itwerkstatt.pathfinder.entities.Area;
+import de.itwerkstatt.pathfinder.entities.Point;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+/**
+ * The areas the benchmarks run on.
+ *
+ * @author dsust
+ */
+public enum Shapes {
+
+    /**
+     * A convex polygon with integer points: its edges are the shortest
+     * integer vectors sorted by angle, scaled to the size of the other
+     * shapes. A regular polygon would get concave points by rounding at
+     * 10.000 vertices and more. An odd vertex count adds the midpoint of one
+     * edge. It has no concave points, so every query is a direct line of
+     * sight. Above about 20.000 vertices the shortest vectors already make
+     * the polygon larger than {@link #SIZE}.
+     */
+    CONVEX {
+        @Override
+        Area create(int vertexCount) {
+            //Pairs of opposite vectors, so the edges form a closed ring
+            long[][] vectors = shortestVectors(vertexCount / 2);
+            int n = vectors.length * 2;
+            long[][] edges = new long[n][];
+            for (int i = 0; i < vectors.length; i++) {
+                edges[i] = vectors[i];
+                edges[i + vectors.length] = new long[]{-vectors[i][0], -vectors[i][1]};
+            }
+            long[] x = new long[n];
+            long[] y = new long[n];
+            for (int i = 1; i < n; i++) {
+                x[i] = x[i - 1] + edges[i - 1][0];
+                y[i] = y[i - 1] + edges[i - 1][1];
+            }
+            long minX = LongStream.of(x).min().getAsLong();
+            long maxX = LongStream.of(x).max().getAsLong();
+            long minY = LongStream.of(y).min().getAsLong();
+            long maxY = LongStream.of(y).max().getAsLong();
+            long scale = Math.max(1, (long) (SIZE / Math.max(maxX - minX, maxY - minY)));
+            if (vertexCount > n) {
+                //Even scale, so the additional midpoint is an integer point
+                scale = Math.max(2, scale / 2 * 2);
+            }
+            long offsetX = (long) (SIZE / 2) - scale * (minX + maxX) / 2;
+            long offsetY = (long) (SIZE / 2) - scale * (minY + maxY) / 2;
+            List<Point> points = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                points.add(new Point(offsetX + scale * x[i], offsetY + scale * y[i]));
+            }
+            if (vertexCount > n) {
+                //Midpoint of an edge away from the first point, which is the
+                //center of the fan triangulation
+                int i = n / 2;
+                points.add(i + 1, new Point((points.get(i).x() + points.get(i + 1).x()) / 2,
+                        (points.get(i).y() + points.get(i + 1).y()) / 2));
+            }
+            return new Area(points.toArray(Point[]::new));
+        }
+    },
+    /**
+     * A star with spikes of random length. Every second point is concave, so
+     * paths between two spikes have to pass the inner points.
+     */
+    CONCAVE {
+        @Override
+        Area create(int vertexCount) {
+            Random random = new Random(vertexCount);
+            Point[] points = new Point[vertexCount];
+            for (int i = 0; i < vertexCount; i++) {
+                double angle = 2 * Math.PI * i / vertexCount;
+                double radius = i % 2 == 0 ? SIZE / 2 : SIZE / 10 + random.nextDouble() * SIZE / 5;
+                points[i] = new Point(Math.round(SIZE / 2 + radius * Math.cos(angle)), Math.round(SIZE / 2 + radius * Math.sin(angle)));
+            }
+            return new Area(points);
+        }
+    };
+
+    /**
+     * Returns the given number of the shortest integer vectors of pairwise
+     * different direction in the upper half plane, sorted by angle.
+     */
+    private static long[][] shortestVectors(int count) {
+        for (int radius = (int) Math.sqrt(count) + 2;; radius *= 2) {
+            List<long[]> vectors = new ArrayList<>();
+            for (long dx = -radius; dx <= radius; dx++) {
+                for (long dy = 0; dy <= radius; dy++) {
+                    if ((dy > 0 || dx > 0) && gcd(Math.abs(dx), dy) == 1) {
+                        vectors.add(new long[]{dx, dy});
+                    }
+                }
+            }
+            //Enough vectors inside of the circle, so none outside is shorter
+            long limit = (long) radius * radius;
+            if (vectors.stream().filter(v -> v[0] * v[0] + v[1] * v[1] <= limit).count() >= count) {
+                return vectors.stream()
+                        .sorted(Comparator.comparingLong((long[] v) -> v[0] * v[0] + v[1] * v[1]))
+                        .limit(count)
+                        .sorted(Comparator.comparingDouble((long[] v) -> Math.atan2(v[1], v[0])))
+                        .toArray(long[][]::new);
+            }
+        }
+    }
+
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    /**
+     * Width and height of the bounding box of the shapes. Large enough that
+     * 100.000 integer points of the star stay distinct.
+     */
+    static final double SIZE = 1_000_000;
+
+    abstract Area create(int vertexCount);
+}
@@ -0,0 +1,136 @@
+package de.itwerkstatt.pathfinder;
+
+import de.itwerkstatt.pathfinder.entities.Point;
+import de.itwerkstatt.pathfinder.util.AStarUtil;
+import de.itwerkstatt.pathfinder.util.CsrGraph;
+
+/**
+ * The distances of all nodes of a navigation mesh to one goal.<br>
+ * One Dijkstra search from the goal calculates the distance and the next node
+ * on the way to the goal for every node. A path from any start point is then
+ * found by connecting the start point to the visible nodes and following the
+ * next nodes, without any further search. This is useful if many agents head
+ * for the same goal, e.g. the exit.<br>
+ * The field is immutable and can be shared between threads. It belongs to the
+ * mesh it was created from, so it has to be created again if the area
+ * changes.
+ *
+ * @author dsust
+ * @see NavigationMesh#createDistanceField(Point)
+ */
+public final class DistanceField {
+
+    private final NavigationMesh mesh;
+    private final Point goal;
+    private final Point[] nodePoints;
+    //Distance of every node to the goal and the next node on its way, -1 if
+    //the node sees the goal or can not reach it
+    private final double[] distances;
+    private final int[] nextNodes;
+
+    DistanceField(NavigationMesh mesh, Point goal, Point[] nodePoints, CsrGraph nodeMesh) {
+        this.mesh = mesh;
+        this.goal = goal;
+        this.nodePoints = nodePoints;
+        int[] goalNodes = new int[nodePoints.length];
+        double[] goalDistances = new double[nodePoints.length];
+        int goalCount = 0;
+        for (int i = 0; i < nodePoints.length; i++) {
+            if (mesh.isLineOfSight(nodePoints[i], goal)) {
+                goalNodes[goalCount] = i;
+                goalDistances[goalCount++] = nodePoints[i].distanceTo(goal);
+            }
+        }
+        //The search runs from the goal, so the parent of a node is its next node to the goal
+        this.nextNodes = new int[nodePoints.length];
+        this.distances = AStarUtil.dijkstra(nodeMesh, goalNodes, goalDistances, goalCount, nextNodes);
+    }
+
+    public Point getGoal() {
+        return goal;
+    }
+
+    /**
+     * Returns the length of the shortest path from the given start point to
+     * the goal. A start point outside of the area is moved to the border of
+     * the area like in {@link NavigationMesh#findPath(Point, Point)}, the
+     * distance is counted from there.
+     *
+     * @param from
+     * @return the distance or infinity if there is no path
+     * @throws IllegalArgumentException if the start point is null
+     */
+    public double getDistance(Point from) {
+        Point start = moveIntoArea(from);
+        if (start == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (mesh.isLineOfSight(start, goal)) {
+            return start.distanceTo(goal);
+        }
+        int first = findFirstNode(start);
+        return first < 0 ? Double.POSITIVE_INFINITY : start.distanceTo(nodePoints[first]) + distances[first];
+    }
+
+    /**
+     * Returns the shortest path from the given start point to the goal. A
+     * start point outside of the area is handled like in
+     * {@link NavigationMesh#findPath(Point, Point)}.
+     *
+     * @param from
+     * @return the points of the path, beginning with the start point and
+     * ending with the goal, or an empty array if there is no path
+     * @throws IllegalArgumentException if the start point is null
+     */
+    public Point[] findPath(Point from) {
+        Point start = moveIntoArea(from);
+        if (start == null) {
+            return new Point[0];
+        }
+        if (mesh.isLineOfSight(start, goal)) {
+            return new Point[]{start, goal};
+        }
+        int first = findFirstNode(start);
+        if (first < 0) {
+            return new Point[0];
+        }
+        int length = 2;
+        for (int node = first; node >= 0; node = nextNodes[node]) {
+            length++;
+        }
+        Point[] path = new Point[length];
+        path[0] = start;
+        int i = 1;
+        for (int node = first; node >= 0; node = nextNodes[node]) {
+            path[i++] = nodePoints[node];
+        }
+        path[i] = goal;
+        return path;
+    }
+
+    private Point moveIntoArea(Point from) {
+        if (from == null) {
+            throw new IllegalArgumentException("Start point must not be null.");
+        }
+        return mesh.isPointInArea(from) ? from : mesh.getArea().calculateDirectionalNearestPointToArea(from, goal);
+    }
+
+    /**
+     * Finds the node visible from the start point with the shortest way to the
+     * goal.
+     */
+    private int findFirstNode(Point start) {
+        int best = -1;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < nodePoints.length; i++) {
+            if (distances[i] < Double.POSITIVE_INFINITY) {
+                double distance = start.distanceTo(nodePoints[i]) + distances[i];
+                if (distance < bestDistance && mesh.isLineOfSight(start, nodePoints[i])) {
+                    bestDistance = distance;
+                    best = i;
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,136 @@
+package de.itwerkstatt.pathfinder;
+
+import de.itwerkstatt.pathfinder.entities.Point;
+import de.itwerkstatt.pathfinder.util.LatencyHistogram;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sums up the statistics of many searches. It keeps a latency histogram of the
+ * whole searches and of every phase, and the totals of the counters.<br>
+ * One registry can be added as listener to any number of path finders, also
+ * in different threads.
+ *
+ * @author dsust
+ */
+public final class MetricsRegistry implements PathFinderListener {
+
+    private final LatencyHistogram totalLatency = new LatencyHistogram();
+    private final Map<SearchStatistics.Phase, LatencyHistogram> phaseLatencies = new EnumMap<>(SearchStatistics.Phase.class);
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder directLines = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder emptyPaths = new LongAdder();
+    private final LongAdder expandedNodes = new LongAdder();
+    private final LongAdder heapPushes = new LongAdder();
+    private final LongAdder intersectionTests = new LongAdder();
+
+    public MetricsRegistry() {
+        for (SearchStatistics.Phase phase : SearchStatistics.Phase.values()) {
+            phaseLatencies.put(phase, new LatencyHistogram());
+        }
+    }
+
+    @Override
+    public void pathFound(Point start, Point end, Point[] path, SearchStatistics statistics) {
+        totalLatency.record(statistics.totalNanos());
+        for (SearchStatistics.Phase phase : SearchStatistics.Phase.values()) {
+            long nanos = statistics.getNanos(phase);
+            //Only phases which ran, otherwise the zeros would hide the slow calls
+            if (nanos > 0) {
+                phaseLatencies.get(phase).record(nanos);
+            }
+        }
+        searches.increment();
+        if (statistics.directLine()) {
+            directLines.increment();
+        }
+        if (statistics.cacheHit()) {
+            cacheHits.increment();
+        }
+        if (statistics.pathLength() == 0) {
+            emptyPaths.increment();
+        }
+        expandedNodes.add(statistics.expandedNodes());
+        heapPushes.add(statistics.heapPushes());
+        intersectionTests.add(statistics.intersectionTests());
+    }
+
+    /**
+     * Returns the latencies of the whole searches in nanoseconds.
+     *
+     * @return the histogram
+     */
+    public LatencyHistogram getTotalLatency() {
+        return totalLatency;
+    }
+
+    /**
+     * Returns the latencies of the given phase in nanoseconds. Only searches
+     * which ran that phase are recorded.
+     *
+     * @param phase
+     * @return the histogram
+     */
+    public LatencyHistogram getLatency(SearchStatistics.Phase phase) {
+        return phaseLatencies.get(phase);
+    }
+
+    public long getSearchCount() {
+        return searches.sum();
+    }
+
+    public long getDirectLineCount() {
+        return directLines.sum();
+    }
+
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    public long getEmptyPathCount() {
+        return emptyPaths.sum();
+    }
+
+    public long getExpandedNodes() {
+        return expandedNodes.sum();
+    }
+
+    public long getHeapPushes() {
+        return heapPushes.sum();
+    }
+
+    public long getIntersectionTests() {
+        return intersectionTests.sum();
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        totalLatency.reset();
+        phaseLatencies.values().forEach(LatencyHistogram::reset);
+        searches.reset();
+        directLines.reset();
+        cacheHits.reset();
+        emptyPaths.reset();
+        expandedNodes.reset();
+        heapPushes.reset();
+        intersectionTests.reset();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("MetricsRegistry[searches=").append(getSearchCount())
+                .append(", directLines=").append(getDirectLineCount())
+                .append(", cacheHits=").append(getCacheHitCount())
+                .append(", emptyPaths=").append(getEmptyPathCount())
+                .append(", expandedNodes=").append(getExpandedNodes())
+                .append(", heapPushes=").append(getHeapPushes())
+                .append(", intersectionTests=").append(getIntersectionTests())
+                .append(", total=").append(totalLatency);
+        phaseLatencies.forEach((phase, histogram) -> sb.append(", ").append(phase).append('=').append(histogram));
+        return sb.append(']').toString();
+    }
+}
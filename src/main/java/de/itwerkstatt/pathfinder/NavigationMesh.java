@@ -0,0 +1,1062 @@
+package de.itwerkstatt.pathfinder;
+
+import de.itwerkstatt.pathfinder.entities.Area;
+import de.itwerkstatt.pathfinder.entities.Line;
+import de.itwerkstatt.pathfinder.entities.PathRequest;
+import de.itwerkstatt.pathfinder.entities.Point;
+import de.itwerkstatt.pathfinder.entities.Triangle;
+import de.itwerkstatt.pathfinder.util.AStarUtil;
+import de.itwerkstatt.pathfinder.util.BinaryReader;
+import de.itwerkstatt.pathfinder.util.BinaryWriter;
+import de.itwerkstatt.pathfinder.util.CsrGraph;
+import de.itwerkstatt.pathfinder.util.EdgeGrid;
+import de.itwerkstatt.pathfinder.util.FunnelUtil;
+import de.itwerkstatt.pathfinder.util.GeometryUtil;
+import de.itwerkstatt.pathfinder.util.LandmarkHeuristic;
+import de.itwerkstatt.pathfinder.util.SearchContext;
+import de.itwerkstatt.pathfinder.util.ShortestPathTable;
+import de.itwerkstatt.pathfinder.util.TriangleLocator;
+import de.itwerkstatt.pathfinder.util.Triangulator;
+import de.itwerkstatt.pathfinder.util.VisibilityGraphBuilder;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * The compiled, immutable form of an area: its triangles, its edges and the
+ * node mesh (visibility graph) of its concave points and the convex points of
+ * its holes.<br>
+ * Paths are searched by one of two engines, see {@link Engine}.<br>
+ * All data is calculated once in the constructor and never modified
+ * afterwards, so one instance can be shared by any number of threads. Every
+ * call of {@link #findPath(Point, Point) findPath} keeps its search state in
+ * its own {@link SearchContext}.
+ *
+ * @author dsust
+ */
+public final class NavigationMesh {
+
+    /**
+     * Number of landmarks of the heuristic of the node mesh.
+     */
+    static final int LANDMARK_COUNT = 8;
+
+    //"PFNM" and the version of the file format of save and load
+    private static final int FILE_MAGIC = 0x50464E4D;
+    static final int FILE_VERSION = 1;
+
+    /**
+     * The algorithm which searches the paths.
+     */
+    public enum Engine {
+        /**
+         * A* on the visibility graph of the concave points of the area. The
+         * graph has up to n² edges for n concave points.
+         */
+        VISIBILITY_GRAPH,
+        /**
+         * A* on the adjacency graph of the triangles, the resulting corridor
+         * of triangles is straightened by the funnel algorithm. The costs of a
+         * search depend on the length of the corridor, so this engine scales
+         * to large areas. The path is the shortest path through the found
+         * corridor, which can be slightly longer than the shortest path of the
+         * visibility graph.
+         */
+        TRIANGLE_CORRIDOR
+    }
+
+    /**
+     * The direction of the graph search of a single query.
+     */
+    public enum Search {
+        /**
+         * A* from the start point to the end point.
+         */
+        A_STAR,
+        /**
+         * A* from the start and the end point at the same time. If both
+         * points are far apart, both searches together expand fewer nodes than
+         * a single search, whose frontier grows with the distance.
+         */
+        BIDIRECTIONAL_A_STAR
+    }
+
+    private final Area area;
+    private final Engine engine;
+    private final Triangle[] areaTriangles;
+    private final TriangleLocator triangleLocator;
+    private final EdgeGrid areaLineGrid;
+
+    //Triangle mesh: the triangles in counterclockwise order, their neighbours
+    //over the edges (p1,p2), (p2,p3) and (p3,p1) and the adjacency graph
+    private final Triangle[] corridorTriangles;
+    private final int[] triangleNeighbours;
+    private final Point[] triangleCenters;
+    private final CsrGraph triangleMesh;
+
+    //Node mesh: points of the nodes and the edges between them
+    private final Point[] nodePoints;
+    private final CsrGraph nodeMesh;
+    private final LandmarkHeuristic landmarkHeuristic;
+    //Optional shortest paths between all nodes, null if not precomputed
+    private final ShortestPathTable shortestPathTable;
+    //Number of points of the area and its holes
+    private final int vertexCount;
+
+    /**
+     * Compiles the given area. The triangles are calculated automatically.
+     *
+     * @param a
+     */
+    public NavigationMesh(Area a) {
+        this(a, Engine.VISIBILITY_GRAPH);
+    }
+
+    /**
+     * Compiles the given area for the given engine. The triangles are
+     * calculated automatically.
+     *
+     * @param a
+     * @param engine
+     */
+    public NavigationMesh(Area a, Engine engine) {
+        this(a, engine, calculateTrianglesOfArea(a));
+    }
+
+    /**
+     * Compiles the given area with the given triangles. The triangles have to
+     * cover in sum the complete area.
+     *
+     * @param a
+     * @param areaTriangles
+     */
+    public NavigationMesh(Area a, Triangle... areaTriangles) {
+        this(a, Engine.VISIBILITY_GRAPH, areaTriangles);
+    }
+
+    /**
+     * Compiles the given area with the given triangles for the given engine.
+     * The triangles have to cover in sum the complete area. The triangle
+     * corridor engine also needs triangles which share complete edges with
+     * their neighbours.
+     *
+     * @param a
+     * @param engine
+     * @param areaTriangles
+     */
+    public NavigationMesh(Area a, Engine engine, Triangle... areaTriangles) {
+        this(a, engine, areaTriangles, null, null, false);
+    }
+
+    /**
+     * Compiles the area. If a previous mesh is given, its node mesh is
+     * repaired instead of built again: only the area differs by the given
+     * obstacle, which was added or removed.
+     */
+    private NavigationMesh(Area a, Engine engine, Triangle[] areaTriangles, NavigationMesh previous, Area changedObstacle, boolean obstacleAdded) {
+        if (engine == null) {
+            throw new IllegalArgumentException("Engine must not be null.");
+        }
+        this.area = a;
+        this.engine = engine;
+        this.areaTriangles = areaTriangles.clone();
+        this.triangleLocator = new TriangleLocator(areaTriangles);
+        Point[][] rings = calculateRings(a);
+        this.vertexCount = Stream.of(rings).mapToInt(r -> r.length).sum();
+        this.areaLineGrid = new EdgeGrid(Stream.of(rings).flatMap(r -> Stream.of(calculateAreaLines(r))).toArray(Line[]::new));
+        if (engine == Engine.VISIBILITY_GRAPH) {
+            this.nodePoints = Stream.of(rings).flatMap(r -> Stream.of(calculateConcavePoints(r))).toArray(Point[]::new);
+            this.nodeMesh = previous == null
+                    ? new VisibilityGraphBuilder(rings).build(nodePoints)
+                    : repairNodeMesh(previous, changedObstacle, obstacleAdded, rings);
+            this.landmarkHeuristic = new LandmarkHeuristic(nodeMesh, LANDMARK_COUNT);
+            this.corridorTriangles = new Triangle[0];
+            this.triangleNeighbours = new int[0];
+            this.triangleCenters = new Point[0];
+            this.triangleMesh = CsrGraph.undirected(0, new int[0], new int[0], new double[0], 0);
+        } else {
+            this.nodePoints = new Point[0];
+            this.nodeMesh = CsrGraph.undirected(0, new int[0], new int[0], new double[0], 0);
+            this.landmarkHeuristic = new LandmarkHeuristic(nodeMesh, 0);
+            this.corridorTriangles = Stream.of(areaTriangles).map(NavigationMesh::counterclockwise).toArray(Triangle[]::new);
+            this.triangleNeighbours = calculateTriangleNeighbours(corridorTriangles);
+            this.triangleCenters = Stream.of(corridorTriangles).map(NavigationMesh::center).toArray(Point[]::new);
+            this.triangleMesh = calculateTriangleMesh();
+        }
+        this.shortestPathTable = previous != null && previous.shortestPathTable != null
+                ? ShortestPathTable.of(nodeMesh)
+                : null;
+    }
+
+    /**
+     * Copies the given mesh and adds the shortest path table.
+     */
+    private NavigationMesh(NavigationMesh mesh, ShortestPathTable shortestPathTable) {
+        this.area = mesh.area;
+        this.engine = mesh.engine;
+        this.areaTriangles = mesh.areaTriangles;
+        this.triangleLocator = mesh.triangleLocator;
+        this.areaLineGrid = mesh.areaLineGrid;
+        this.corridorTriangles = mesh.corridorTriangles;
+        this.triangleNeighbours = mesh.triangleNeighbours;
+        this.triangleCenters = mesh.triangleCenters;
+        this.triangleMesh = mesh.triangleMesh;
+        this.nodePoints = mesh.nodePoints;
+        this.nodeMesh = mesh.nodeMesh;
+        this.landmarkHeuristic = mesh.landmarkHeuristic;
+        this.shortestPathTable = shortestPathTable;
+        this.vertexCount = mesh.vertexCount;
+    }
+
+    /**
+     * Creates a mesh from the parts of a saved mesh. Only the locator of the
+     * triangles and the grid of the area lines are calculated again, both in
+     * linear time.
+     */
+    private NavigationMesh(Area a, Engine engine, Triangle[] areaTriangles,
+            Triangle[] corridorTriangles, int[] triangleNeighbours, Point[] triangleCenters, CsrGraph triangleMesh,
+            Point[] nodePoints, CsrGraph nodeMesh, LandmarkHeuristic landmarkHeuristic, ShortestPathTable shortestPathTable) {
+        this.area = a;
+        this.engine = engine;
+        this.areaTriangles = areaTriangles;
+        this.triangleLocator = new TriangleLocator(areaTriangles);
+        Point[][] rings = calculateRings(a);
+        this.vertexCount = Stream.of(rings).mapToInt(r -> r.length).sum();
+        this.areaLineGrid = new EdgeGrid(Stream.of(rings).flatMap(r -> Stream.of(calculateAreaLines(r))).toArray(Line[]::new));
+        this.corridorTriangles = corridorTriangles;
+        this.triangleNeighbours = triangleNeighbours;
+        this.triangleCenters = triangleCenters;
+        this.triangleMesh = triangleMesh;
+        this.nodePoints = nodePoints;
+        this.nodeMesh = nodeMesh;
+        this.landmarkHeuristic = landmarkHeuristic;
+        this.shortestPathTable = shortestPathTable;
+    }
+
+    /**
+     * Stores the compiled mesh in a binary file: the area, the triangles, the
+     * triangle mesh or the node mesh with its landmarks, and the shortest path
+     * table if it is precomputed. {@link #load(Path)} creates the same mesh
+     * from the file without calculating any of these again.<br>
+     * The file starts with a version number of the format. All values are
+     * stored in little endian byte order.
+     *
+     * @param file the file, which is replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path file) throws IOException {
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeInt(FILE_MAGIC);
+        writer.writeInt(FILE_VERSION);
+        writer.writeInt(engine.ordinal());
+        writer.writePoints(area.points());
+        writer.writeInt(area.holes().length);
+        for (Area hole : area.holes()) {
+            writer.writePoints(hole.points());
+        }
+        writeTriangles(writer, areaTriangles);
+        writeTriangles(writer, corridorTriangles);
+        writer.writeInts(triangleNeighbours);
+        writer.writePoints(triangleCenters);
+        triangleMesh.write(writer);
+        writer.writePoints(nodePoints);
+        nodeMesh.write(writer);
+        landmarkHeuristic.write(writer);
+        writer.writeInt(shortestPathTable != null ? 1 : 0);
+        if (shortestPathTable != null) {
+            shortestPathTable.write(writer);
+        }
+        writer.writeTo(file);
+    }
+
+    /**
+     * Loads a mesh stored by {@link #save(Path)}. The file is mapped into
+     * memory and its arrays are copied as a whole, so loading takes about as
+     * long as reading the file.
+     *
+     * @param file
+     * @return the mesh
+     * @throws IOException if the file cannot be read, is no mesh or has
+     * another version of the format
+     */
+    public static NavigationMesh load(Path file) throws IOException {
+        BinaryReader reader = BinaryReader.map(file);
+        if (reader.readInt() != FILE_MAGIC) {
+            throw new IOException(file + " contains no navigation mesh.");
+        }
+        int version = reader.readInt();
+        if (version != FILE_VERSION) {
+            throw new IOException("Unsupported version " + version + " of navigation mesh " + file + ".");
+        }
+        int engineIndex = reader.readInt();
+        if (engineIndex < 0 || engineIndex >= Engine.values().length) {
+            throw new IOException("Unknown engine " + engineIndex + ".");
+        }
+        Engine engine = Engine.values()[engineIndex];
+        Point[] outline = reader.readPoints();
+        int holeCount = reader.readInt();
+        if (holeCount < 0) {
+            throw new IOException("Invalid number of holes " + holeCount + ".");
+        }
+        Area[] holes = new Area[holeCount];
+        Area area;
+        try {
+            for (int i = 0; i < holeCount; i++) {
+                holes[i] = new Area(reader.readPoints());
+            }
+            area = new Area(outline, holes);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid area.", e);
+        }
+        Triangle[] areaTriangles = readTriangles(reader);
+        Triangle[] corridorTriangles = readTriangles(reader);
+        int[] triangleNeighbours = reader.readInts();
+        Point[] triangleCenters = reader.readPoints();
+        CsrGraph triangleMesh = CsrGraph.read(reader);
+        Point[] nodePoints = reader.readPoints();
+        CsrGraph nodeMesh = CsrGraph.read(reader);
+        LandmarkHeuristic landmarkHeuristic = LandmarkHeuristic.read(reader);
+        ShortestPathTable shortestPathTable = reader.readInt() != 0 ? ShortestPathTable.read(reader) : null;
+        int triangleCount = corridorTriangles.length;
+        if (triangleNeighbours.length != 3 * triangleCount || triangleCenters.length != triangleCount
+                || triangleMesh.getNodeCount() != triangleCount || nodeMesh.getNodeCount() != nodePoints.length
+                || (shortestPathTable != null && shortestPathTable.getNodeCount() != nodePoints.length)
+                || IntStream.of(triangleNeighbours).anyMatch(t -> t < -1 || t >= triangleCount)) {
+            throw new IOException("Parts of navigation mesh " + file + " do not match.");
+        }
+        return new NavigationMesh(area, engine, areaTriangles, corridorTriangles, triangleNeighbours, triangleCenters,
+                triangleMesh, nodePoints, nodeMesh, landmarkHeuristic, shortestPathTable);
+    }
+
+    private static void writeTriangles(BinaryWriter writer, Triangle[] triangles) {
+        writer.writePoints(Stream.of(triangles).flatMap(t -> Stream.of(t.p1(), t.p2(), t.p3())).toArray(Point[]::new));
+    }
+
+    private static Triangle[] readTriangles(BinaryReader reader) throws IOException {
+        Point[] points = reader.readPoints();
+        if (points.length % 3 != 0) {
+            throw new IOException("Invalid triangles.");
+        }
+        Triangle[] triangles = new Triangle[points.length / 3];
+        for (int i = 0; i < triangles.length; i++) {
+            triangles[i] = new Triangle(points[i * 3], points[i * 3 + 1], points[i * 3 + 2]);
+        }
+        return triangles;
+    }
+
+    /**
+     * Returns a mesh with the shortest paths between all nodes precomputed.
+     * A search then only has to find the nodes visible from start and end and
+     * the pair of them with the shortest way, the path is read from the table
+     * instead of searched by A*. The table needs memory for n² distances and
+     * next hops, so this is meant for areas with up to some thousand nodes.
+     * Meshes created by {@link #withObstacle(Area)} and
+     * {@link #withoutObstacle(Area)} keep a precomputed table up to date.
+     *
+     * @return the new mesh, this mesh is not modified
+     * @throws IllegalStateException if the engine is not
+     * {@link Engine#VISIBILITY_GRAPH}
+     */
+    public NavigationMesh withShortestPathTable() {
+        if (engine != Engine.VISIBILITY_GRAPH) {
+            throw new IllegalStateException("Shortest path table is only supported by the visibility graph engine.");
+        }
+        return shortestPathTable != null ? this : new NavigationMesh(this, ShortestPathTable.of(nodeMesh));
+    }
+
+    public boolean hasShortestPathTable() {
+        return shortestPathTable != null;
+    }
+
+    /**
+     * Tries to find the shortest possible path from start to end. If start is
+     * outside of the area, first point in the result array will be the point
+     * on the border of the area.<br>
+     * If end is outside of the area, last point in the result array will be the
+     * point on the border of the area. If there is no possible path from start
+     * to end, an empty array will be returned.<br>
+     * This method can be called by several threads at the same time.
+     *
+     * @param from
+     * @param to
+     * @return an array of points
+     * @throws IllegalArgumentException if start or endpoint is null
+     */
+    public Point[] findPath(Point from, Point to) {
+        return findPath(from, to, Search.A_STAR);
+    }
+
+    /**
+     * Tries to find the shortest possible path from start to end like
+     * {@link #findPath(Point, Point)} with the given search. If the shortest
+     * path table is precomputed, no search is needed and the table is used.
+     *
+     * @param from
+     * @param to
+     * @param search
+     * @return an array of points
+     * @throws IllegalArgumentException if start, endpoint or search is null
+     */
+    public Point[] findPath(Point from, Point to, Search search) {
+        return findPath(from, to, search, SearchStatistics.Recorder.DISABLED);
+    }
+
+    /**
+     * Searches the path like {@link #findPath(Point, Point, Search)} and
+     * writes the statistics of the search into the recorder.
+     */
+    Point[] findPath(Point from, Point to, Search search, SearchStatistics.Recorder recorder) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Start- and endpoint must not be null.");
+        }
+        if (search == null) {
+            throw new IllegalArgumentException("Search must not be null.");
+        }
+        Point start = from;
+        Point end = to;
+        //Check if start is in area
+        PhaseEvent phase = recorder.start(SearchStatistics.Phase.CONTAINMENT);
+        boolean startInArea = isPointInArea(start);
+        recorder.end(phase, vertexCount);
+        if (!startInArea) {
+            //Alternatively: NearestPointToArea regardless of direction?
+            phase = recorder.start(SearchStatistics.Phase.PROJECTION);
+            start = area.calculateDirectionalNearestPointToArea(start, end);
+            recorder.end(phase, vertexCount);
+        }
+        if (start != null) {
+            phase = recorder.start(SearchStatistics.Phase.CONTAINMENT);
+            boolean endInArea = isPointInArea(end);
+            recorder.end(phase, vertexCount);
+            if (!endInArea) {
+                //Alternatively: NearestPointToArea regardless of direction?
+                phase = recorder.start(SearchStatistics.Phase.PROJECTION);
+                end = area.calculateDirectionalNearestPointToArea(end, start);
+                recorder.end(phase, vertexCount);
+            }
+        }
+        if (start == null || end == null) {
+            //The direct way does not touch the area at all
+            return new Point[0];
+        }
+
+        //We now have start and end point inside of area.
+        //Direct way from start to end without crossing any area lines
+        phase = recorder.start(SearchStatistics.Phase.LINE_OF_SIGHT);
+        boolean lineOfSight = isLineOfSight(start, end);
+        recorder.end(phase, vertexCount);
+        recorder.countIntersectionTests(1);
+        if (lineOfSight) {
+            recorder.setDirectLine();
+            return new Point[]{start, end};
+        }
+
+        if (engine == Engine.TRIANGLE_CORRIDOR) {
+            return findCorridorPath(start, end, search, recorder);
+        }
+        if (shortestPathTable != null) {
+            return findTablePath(start, end, recorder);
+        }
+        return findNodeMeshPath(start, end, search, recorder);
+    }
+
+    /**
+     * Searches the node mesh. Start and end are connected to all nodes they
+     * can see.
+     */
+    private Point[] findNodeMeshPath(Point start, Point end, Search search, SearchStatistics.Recorder recorder) {
+        PhaseEvent phase = recorder.start(SearchStatistics.Phase.SEARCH);
+        VisibleNodes startNodes = connectVisibleNodes(start, recorder);
+        VisibleNodes endNodes = connectVisibleNodes(end, recorder);
+        SearchContext context = new SearchContext(nodeMesh, createHeuristic(start, end, end, endNodes));
+        for (int i = 0; i < startNodes.count(); i++) {
+            context.connectStart(startNodes.nodes()[i], startNodes.distances()[i]);
+        }
+        for (int i = 0; i < endNodes.count(); i++) {
+            context.connectDestination(endNodes.nodes()[i], endNodes.distances()[i]);
+        }
+        int[] path = search == Search.A_STAR
+                ? AStarUtil.aStar(context)
+                : AStarUtil.bidirectionalAStar(context, createHeuristic(start, end, start, startNodes));
+        recorder.countSearch(context);
+        recorder.end(phase, vertexCount, context.getExpandedNodes(), 0);
+
+        phase = recorder.start(SearchStatistics.Phase.RECONSTRUCTION);
+        //Index n is the start and n+1 the end behind the nodes
+        int n = nodePoints.length;
+        Point[] result = new Point[path.length];
+        for (int i = 0; i < path.length; i++) {
+            result[i] = path[i] < n ? nodePoints[path[i]] : (path[i] == n ? start : end);
+        }
+        recorder.end(phase, vertexCount, context.getExpandedNodes(), result.length);
+        return result;
+    }
+
+    /**
+     * Collects the nodes visible from the given point with their distances.
+     * Every node is tested, so the cost is linear in the number of nodes.
+     */
+    private VisibleNodes connectVisibleNodes(Point point, SearchStatistics.Recorder recorder) {
+        int[] nodes = new int[nodePoints.length];
+        double[] distances = new double[nodePoints.length];
+        int count = 0;
+        for (int i = 0; i < nodePoints.length; i++) {
+            if (isLineOfSight(nodePoints[i], point)) {
+                nodes[count] = i;
+                distances[count++] = nodePoints[i].distanceTo(point);
+            }
+        }
+        recorder.countIntersectionTests(nodePoints.length);
+        return new VisibleNodes(nodes, distances, count);
+    }
+
+    /**
+     * Nodes visible from a point, only the first count entries are used.
+     */
+    private record VisibleNodes(int[] nodes, double[] distances, int count) {
+    }
+
+    /**
+     * Creates the heuristic of the node mesh search from start to end (goal
+     * is end) or from end to start (goal is start). The goal is connected to
+     * the given nodes. The straight distance and the landmark bound are both
+     * lower bounds, so is their maximum.
+     */
+    private IntToDoubleFunction createHeuristic(Point start, Point end, Point goal, VisibleNodes goalNodes) {
+        double[] landmarkDistances = landmarkHeuristic.distancesToGoal(goalNodes.nodes(), goalNodes.distances(), goalNodes.count());
+        int n = nodePoints.length;
+        return node -> {
+            if (node >= n) {
+                return (node == n ? start : end).distanceTo(goal);
+            }
+            return Math.max(nodePoints[node].distanceTo(goal), landmarkHeuristic.lowerBound(node, landmarkDistances));
+        };
+    }
+
+    /**
+     * Calculates the distances of all nodes to the given goal with one
+     * search. The returned field answers paths from any start point to the
+     * goal without a further search, so many agents heading for the same goal
+     * need only one search together.
+     *
+     * @param goal
+     * @return the distance field, which can be shared between threads
+     * @throws IllegalArgumentException if the goal is null or outside of the
+     * area
+     * @throws IllegalStateException if the engine is not
+     * {@link Engine#VISIBILITY_GRAPH}
+     */
+    public DistanceField createDistanceField(Point goal) {
+        if (engine != Engine.VISIBILITY_GRAPH) {
+            throw new IllegalStateException("Distance fields are only supported by the visibility graph engine.");
+        }
+        if (goal == null || !isPointInArea(goal)) {
+            throw new IllegalArgumentException("Goal " + goal + " must lie inside of the area.");
+        }
+        return new DistanceField(this, goal, nodePoints, nodeMesh);
+    }
+
+    /**
+     * Finds the pair of a node visible from start and a node visible from end
+     * with the shortest way and reads the way between them from the table.
+     */
+    private Point[] findTablePath(Point start, Point end, SearchStatistics.Recorder recorder) {
+        PhaseEvent phase = recorder.start(SearchStatistics.Phase.SEARCH);
+        VisibleNodes startNodes = connectVisibleNodes(start, recorder);
+        VisibleNodes endNodes = connectVisibleNodes(end, recorder);
+        double bestDistance = Double.POSITIVE_INFINITY;
+        int bestStart = -1;
+        int bestEnd = -1;
+        for (int i = 0; i < startNodes.count(); i++) {
+            for (int j = 0; j < endNodes.count(); j++) {
+                double distance = startNodes.distances()[i] + shortestPathTable.getDistance(startNodes.nodes()[i], endNodes.nodes()[j]) + endNodes.distances()[j];
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    bestStart = startNodes.nodes()[i];
+                    bestEnd = endNodes.nodes()[j];
+                }
+            }
+        }
+        recorder.end(phase, vertexCount);
+        if (bestStart < 0) {
+            return new Point[0];
+        }
+        phase = recorder.start(SearchStatistics.Phase.RECONSTRUCTION);
+        int[] nodes = shortestPathTable.getPath(bestStart, bestEnd);
+        Point[] path = new Point[nodes.length + 2];
+        path[0] = start;
+        for (int i = 0; i < nodes.length; i++) {
+            path[i + 1] = nodePoints[nodes[i]];
+        }
+        path[path.length - 1] = end;
+        recorder.end(phase, vertexCount, 0, path.length);
+        return path;
+    }
+
+    /**
+     * Calculates the paths of all requests in parallel on the common
+     * ForkJoin pool. See {@link #findPaths(List, ForkJoinPool)}.
+     *
+     * @param requests
+     * @return the paths in the order of the requests
+     * @throws IllegalArgumentException if a start or endpoint is null
+     */
+    public List<Point[]> findPaths(List<PathRequest> requests) {
+        return findPaths(requests, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Calculates the paths of all requests in parallel on the given pool. Every
+     * path is calculated like with {@link #findPath(Point, Point)}, each
+     * search keeps its state in its own context, so the mesh is only read.
+     *
+     * @param requests
+     * @param pool
+     * @return the paths in the order of the requests
+     * @throws IllegalArgumentException if a start or endpoint is null
+     */
+    public List<Point[]> findPaths(List<PathRequest> requests, ForkJoinPool pool) {
+        //A parallel stream started inside of a pool runs its tasks in that pool
+        return pool.submit(() -> findPaths(requests.parallelStream()).toList()).join();
+    }
+
+    /**
+     * Maps every request to its path. The returned stream is parallel, if the
+     * given stream is parallel, and keeps the order of the requests.
+     *
+     * @param requests
+     * @return the paths
+     */
+    public Stream<Point[]> findPaths(Stream<PathRequest> requests) {
+        return requests.map(r -> findPath(r.start(), r.end()));
+    }
+
+    /**
+     * Searches the corridor of triangles from start to end and pulls the path
+     * straight through it.
+     */
+    private Point[] findCorridorPath(Point start, Point end, Search search, SearchStatistics.Recorder recorder) {
+        PhaseEvent phase = recorder.start(SearchStatistics.Phase.SEARCH);
+        int startTriangle = triangleLocator.locate(start);
+        int endTriangle = triangleLocator.locate(end);
+        if (startTriangle < 0 || endTriangle < 0) {
+            //A point moved to the border can miss the triangles by rounding
+            recorder.end(phase, vertexCount);
+            return new Point[0];
+        }
+        int triangleCount = corridorTriangles.length;
+        SearchContext context = new SearchContext(triangleMesh,
+                t -> t == triangleCount + 1 ? 0 : (t == triangleCount ? start : triangleCenters[t]).distanceTo(end));
+        context.connectStart(startTriangle, start.distanceTo(triangleCenters[startTriangle]));
+        context.connectDestination(endTriangle, triangleCenters[endTriangle].distanceTo(end));
+        int[] path = search == Search.A_STAR
+                ? AStarUtil.aStar(context)
+                : AStarUtil.bidirectionalAStar(context,
+                        t -> (t == triangleCount + 1 ? end : t == triangleCount ? start : triangleCenters[t]).distanceTo(start));
+        recorder.countSearch(context);
+        recorder.end(phase, vertexCount, context.getExpandedNodes(), 0);
+        if (path.length == 0) {
+            return new Point[0];
+        }
+        phase = recorder.start(SearchStatistics.Phase.RECONSTRUCTION);
+        //The path consists of the start node, the triangles and the destination node
+        int portalCount = path.length - 3;
+        Point[] left = new Point[portalCount];
+        Point[] right = new Point[portalCount];
+        for (int i = 0; i < portalCount; i++) {
+            int from = path[i + 1];
+            int to = path[i + 2];
+            Triangle t = corridorTriangles[from];
+            Point[] vertices = {t.p1(), t.p2(), t.p3()};
+            for (int k = 0; k < 3; k++) {
+                if (triangleNeighbours[from * 3 + k] == to) {
+                    //Counterclockwise edges have the inside on their left, so we leave them to the right
+                    right[i] = vertices[k];
+                    left[i] = vertices[(k + 1) % 3];
+                }
+            }
+        }
+        Point[] result = FunnelUtil.stringPull(start, end, left, right);
+        recorder.end(phase, vertexCount, context.getExpandedNodes(), result.length);
+        return result;
+    }
+
+    /**
+     * Returns a new mesh, which contains the given obstacle as additional hole
+     * of the area. The obstacle has to lie inside of the area and must not
+     * touch its border or the other holes.<br>
+     * The triangles and edges are calculated again, but the node mesh is only
+     * repaired: existing node connections are checked again only if they pass
+     * the bounding box of the obstacle, and only the new nodes of the
+     * obstacle are connected by a rotational sweep.
+     *
+     * @param obstacle
+     * @return the new mesh, this mesh is not modified
+     * @throws IllegalArgumentException if the obstacle does not lie inside of
+     * the area or touches its border or another hole
+     */
+    public NavigationMesh withObstacle(Area obstacle) {
+        checkObstacle(obstacle);
+        Area[] holes = Arrays.copyOf(area.holes(), area.holes().length + 1);
+        holes[holes.length - 1] = obstacle;
+        Area newArea = new Area(area.points(), holes);
+        return new NavigationMesh(newArea, engine, calculateTrianglesOfArea(newArea), this, obstacle, true);
+    }
+
+    /**
+     * Checks that the obstacle lies inside of the area without touching its
+     * border: all its points lie inside of the area and not on the border, no
+     * edge of the obstacle crosses the border and no point of the border lies
+     * inside of or on the obstacle.
+     */
+    private void checkObstacle(Area obstacle) {
+        Point[] points = obstacle.points();
+        for (Point p : points) {
+            if (!isPointInArea(p)) {
+                throw new IllegalArgumentException("Obstacle point " + p + " lies outside of the area.");
+            }
+        }
+        double minX = Stream.of(points).mapToDouble(Point::x).min().orElseThrow();
+        double minY = Stream.of(points).mapToDouble(Point::y).min().orElseThrow();
+        double maxX = Stream.of(points).mapToDouble(Point::x).max().orElseThrow();
+        double maxY = Stream.of(points).mapToDouble(Point::y).max().orElseThrow();
+        for (Point[] ring : calculateRings(area)) {
+            for (int i = 0; i < ring.length; i++) {
+                Point a = ring[i];
+                Point b = ring[(i + 1) % ring.length];
+                //Only edges near the obstacle can touch it
+                if (!GeometryUtil.isSegmentIntersectingBox(a.x(), a.y(), b.x(), b.y(), minX, minY, maxX, maxY)) {
+                    continue;
+                }
+                if (obstacle.isPointInOutline(a)) {
+                    throw new IllegalArgumentException("Obstacle touches or contains the border point " + a + ".");
+                }
+                for (Point p : points) {
+                    if (GeometryUtil.isCollinearPointOnSegment(a.x(), a.y(), b.x(), b.y(), p.x(), p.y())
+                            && GeometryUtil.orientation(a.x(), a.y(), b.x(), b.y(), p.x(), p.y()) == 0) {
+                        throw new IllegalArgumentException("Obstacle point " + p + " lies on the border.");
+                    }
+                }
+            }
+        }
+        for (Line edge : calculateAreaLines(points)) {
+            if (areaLineGrid.intersectsAnyEdge(edge)) {
+                throw new IllegalArgumentException("Obstacle edge " + edge + " crosses the border.");
+            }
+        }
+    }
+
+    /**
+     * Returns a new mesh without the given hole. The hole is identified by its
+     * points. Like in {@link #withObstacle(Area)}, only the node connections
+     * which pass the bounding box of the hole are checked again.
+     *
+     * @param obstacle
+     * @return the new mesh, this mesh is not modified
+     * @throws IllegalArgumentException if the area has no such hole
+     */
+    public NavigationMesh withoutObstacle(Area obstacle) {
+        Area[] holes = Stream.of(area.holes())
+                .filter(h -> !Arrays.equals(h.points(), obstacle.points()))
+                .toArray(Area[]::new);
+        if (holes.length == area.holes().length) {
+            throw new IllegalArgumentException("Area has no hole " + Arrays.toString(obstacle.points()));
+        }
+        Area newArea = new Area(area.points(), holes);
+        return new NavigationMesh(newArea, engine, calculateTrianglesOfArea(newArea), this, obstacle, false);
+    }
+
+    public boolean isPointInArea(Point p) {
+        return triangleLocator.contains(p);
+    }
+
+    /**
+     * Returns the index of the triangle of the area which contains the given
+     * point.
+     *
+     * @param p
+     * @return index in {@link #getAreaTriangles()} or -1 if the point is
+     * outside of the area
+     */
+    public int findTriangle(Point p) {
+        return triangleLocator.locate(p);
+    }
+
+    public Area getArea() {
+        return area;
+    }
+
+    /**
+     * Returns the number of points of the area including its holes.
+     *
+     * @return the number of points
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public Triangle[] getAreaTriangles() {
+        return areaTriangles.clone();
+    }
+
+    /**
+     * Returns the points of all nodes of the node mesh. The index of a point
+     * is the index of the node.
+     *
+     * @return array of points
+     */
+    public Point[] getNodePoints() {
+        return nodePoints.clone();
+    }
+
+    /**
+     * Returns the indices of the direct neighbours of the given node.
+     *
+     * @param node index of the node
+     * @return indices of the neighbours
+     */
+    public int[] getNeighbours(int node) {
+        return IntStream.range(nodeMesh.getFirstEdge(node), nodeMesh.getEndEdge(node)).map(nodeMesh::getTarget).toArray();
+    }
+
+    /**
+     * Returns the node mesh. The index of a node is the index of its point in
+     * {@link #getNodePoints()}.
+     *
+     * @return the node mesh
+     */
+    public CsrGraph getNodeMesh() {
+        return nodeMesh;
+    }
+
+    /**
+     * Calculates triangles from the points of the area automatically. Concave
+     * areas and areas with holes are supported as well.
+     *
+     * @param area
+     * @return the triangles
+     * @see Triangulator#triangulate(Area)
+     */
+    static Triangle[] calculateTrianglesOfArea(Area area) {
+        return Triangulator.triangulate(area);
+    }
+
+    /**
+     * Returns the points of the area in counterclockwise order, followed by
+     * the points of every hole in clockwise order. So the interior of the area
+     * lies left of every edge.
+     */
+    private static Point[][] calculateRings(Area area) {
+        Point[][] rings = new Point[area.holes().length + 1][];
+        rings[0] = Triangulator.counterclockwise(area.points());
+        for (int i = 0; i < area.holes().length; i++) {
+            rings[i + 1] = Triangulator.clockwise(area.holes()[i].points());
+        }
+        return rings;
+    }
+
+    /**
+     * Calculates all edge-lines of the area by the points.
+     */
+    private static Line[] calculateAreaLines(Point[] ring) {
+        Line[] areaLines = new Line[ring.length];
+        for (int i = 0; i < ring.length; i++) {
+            Point p1 = ring[i];
+            Point p2 = ring[0];
+            if ((i + 1) < ring.length) {
+                p2 = ring[i + 1];
+            }
+            areaLines[i] = new Line(p1, p2);
+        }
+        return areaLines;
+    }
+
+    /**
+     * Detects the concave points of the area by its triangle area: if the
+     * value is negative, the point is concave. The interior of the area has to
+     * lie left of the ring, so for holes these are their convex points.
+     */
+    private static Point[] calculateConcavePoints(Point[] ring) {
+        //Detect concave vertices by checking its triangle area.
+        //If it is negativ, it is concave
+        List<Point> concavePoints = new ArrayList<>();
+        for (int i = 0; i < ring.length; i++) {
+            Point p1, p2, p3;
+            p1 = ring[i];
+            if (i == ring.length - 1) {
+                p2 = ring[0];
+                p3 = ring[i - 1];
+            } else if (i == 0) {
+                p2 = ring[i + 1];
+                p3 = ring[ring.length - 1];
+            } else {
+                p2 = ring[i + 1];
+                p3 = ring[i - 1];
+            }
+            if (new Triangle(p1, p2, p3).calculateArea() < 0) {
+                concavePoints.add(p1);
+            }
+        }
+        return concavePoints.toArray(Point[]::new);
+    }
+
+    /**
+     * Calculates the node mesh from the node mesh of the previous mesh, which
+     * differs from this one only by the given added or removed obstacle.
+     * Connections which do not pass the bounding box of the obstacle can not
+     * have changed.
+     */
+    private CsrGraph repairNodeMesh(NavigationMesh previous, Area obstacle, boolean added, Point[][] rings) {
+        double minX = Stream.of(obstacle.points()).mapToDouble(Point::x).min().orElseThrow();
+        double minY = Stream.of(obstacle.points()).mapToDouble(Point::y).min().orElseThrow();
+        double maxX = Stream.of(obstacle.points()).mapToDouble(Point::x).max().orElseThrow();
+        double maxY = Stream.of(obstacle.points()).mapToDouble(Point::y).max().orElseThrow();
+        Map<Point, Integer> nodeIndices = new HashMap<>();
+        for (int i = 0; i < nodePoints.length; i++) {
+            nodeIndices.put(nodePoints[i], i);
+        }
+        //Pairs of connected nodes as i * nodeCount + j with i < j
+        Set<Long> connections = new TreeSet<>();
+        CsrGraph oldMesh = previous.nodeMesh;
+        for (int oldNode = 0; oldNode < oldMesh.getNodeCount(); oldNode++) {
+            Integer i = nodeIndices.get(previous.nodePoints[oldNode]);
+            for (int edge = oldMesh.getFirstEdge(oldNode); edge < oldMesh.getEndEdge(oldNode); edge++) {
+                Integer j = nodeIndices.get(previous.nodePoints[oldMesh.getTarget(edge)]);
+                //Connections to the nodes of a removed obstacle are dropped
+                if (i == null || j == null || i > j) {
+                    continue;
+                }
+                Point a = nodePoints[i];
+                Point b = nodePoints[j];
+                //A new obstacle can only hide nodes from each other
+                if (!added || !GeometryUtil.isSegmentIntersectingBox(a.x(), a.y(), b.x(), b.y(), minX, minY, maxX, maxY)
+                        || isLineOfSight(a, b)) {
+                    connections.add((long) i * nodePoints.length + j);
+                }
+            }
+        }
+        if (added) {
+            //Nodes of the new obstacle are not in the previous mesh
+            VisibilityGraphBuilder builder = new VisibilityGraphBuilder(rings);
+            for (int i = previous.nodePoints.length; i < nodePoints.length; i++) {
+                for (int j : builder.findVisibleNodes(nodePoints[i], nodePoints)) {
+                    connections.add((long) Math.min(i, j) * nodePoints.length + Math.max(i, j));
+                }
+            }
+        } else {
+            //A removed obstacle can only reveal nodes to each other
+            for (int i = 0; i < nodePoints.length; i++) {
+                for (int j = i + 1; j < nodePoints.length; j++) {
+                    Point a = nodePoints[i];
+                    Point b = nodePoints[j];
+                    if (!connections.contains((long) i * nodePoints.length + j)
+                            && GeometryUtil.isSegmentIntersectingBox(a.x(), a.y(), b.x(), b.y(), minX, minY, maxX, maxY)
+                            && isLineOfSight(a, b)) {
+                        connections.add((long) i * nodePoints.length + j);
+                    }
+                }
+            }
+        }
+        int[] from = new int[connections.size()];
+        int[] to = new int[connections.size()];
+        double[] weights = new double[connections.size()];
+        int edgeCount = 0;
+        for (long connection : connections) {
+            from[edgeCount] = (int) (connection / nodePoints.length);
+            to[edgeCount] = (int) (connection % nodePoints.length);
+            weights[edgeCount] = nodePoints[from[edgeCount]].distanceTo(nodePoints[to[edgeCount]]);
+            edgeCount++;
+        }
+        return CsrGraph.undirected(nodePoints.length, from, to, weights, edgeCount);
+    }
+
+    /**
+     * Calculates the adjacency graph of the triangles. Two triangles are
+     * connected if they share an edge, the weight is the distance of their
+     * centers.
+     */
+    private CsrGraph calculateTriangleMesh() {
+        int[] from = new int[triangleNeighbours.length];
+        int[] to = new int[triangleNeighbours.length];
+        double[] weights = new double[triangleNeighbours.length];
+        int edgeCount = 0;
+        for (int i = 0; i < triangleNeighbours.length; i++) {
+            int t = i / 3;
+            int neighbour = triangleNeighbours[i];
+            //Every pair only once
+            if (neighbour > t) {
+                from[edgeCount] = t;
+                to[edgeCount] = neighbour;
+                weights[edgeCount] = triangleCenters[t].distanceTo(triangleCenters[neighbour]);
+                edgeCount++;
+            }
+        }
+        return CsrGraph.undirected(corridorTriangles.length, from, to, weights, edgeCount);
+    }
+
+    /**
+     * Finds the neighbour of every triangle over each of its edges. Entry
+     * 3*t+k is the neighbour of triangle t over its k-th edge or -1 if the
+     * edge is part of the border.
+     */
+    private static int[] calculateTriangleNeighbours(Triangle[] triangles) {
+        int[] neighbours = new int[triangles.length * 3];
+        Arrays.fill(neighbours, -1);
+        //The neighbour contains the same edge in the opposite direction
+        Map<Line, Integer> edges = new HashMap<>();
+        for (int t = 0; t < triangles.length; t++) {
+            Point[] vertices = {triangles[t].p1(), triangles[t].p2(), triangles[t].p3()};
+            for (int k = 0; k < 3; k++) {
+                Integer other = edges.remove(new Line(vertices[(k + 1) % 3], vertices[k]));
+                if (other != null) {
+                    neighbours[t * 3 + k] = other / 3;
+                    neighbours[other] = t;
+                } else {
+                    edges.put(new Line(vertices[k], vertices[(k + 1) % 3]), t * 3 + k);
+                }
+            }
+        }
+        return neighbours;
+    }
+
+    private static Triangle counterclockwise(Triangle t) {
+        return t.calculateArea() < 0 ? new Triangle(t.p1(), t.p3(), t.p2()) : t;
+    }
+
+    private static Point center(Triangle t) {
+        return new Point((t.p1().x() + t.p2().x() + t.p3().x()) / 3, (t.p1().y() + t.p2().y() + t.p3().y()) / 3);
+    }
+
+    /**
+     * Checks if the line between the two points lies completely inside of the
+     * area. Lines along the border of the area count as inside.<br>
+     * The check is exact: the line must not cross an area edge and must not
+     * leave the area at a vertex it touches. A line which passes these checks
+     * lies either completely inside or completely outside, so testing its
+     * midpoint decides the rest.
+     *
+     * @param p1
+     * @param p2
+     * @return true, if p2 is visible from p1
+     */
+    public boolean isLineOfSight(Point p1, Point p2) {
+        if (areaLineGrid.crossesBorder(p1.x(), p1.y(), p2.x(), p2.y())) {
+            return false;
+        }
+        return triangleLocator.locate((p1.x() + p2.x()) / 2, (p1.y() + p2.y()) / 2) >= 0;
+    }
+}
@@ -1,13 +1,14 @@
 package de.itwerkstatt.pathfinder;
 
 import de.itwerkstatt.pathfinder.entities.Area;
-import de.itwerkstatt.pathfinder.entities.Line;
-import de.itwerkstatt.pathfinder.entities.Node;
+import de.itwerkstatt.pathfinder.entities.PathRequest;
 import de.itwerkstatt.pathfinder.entities.Point;
 import de.itwerkstatt.pathfinder.entities.Triangle;
-import de.itwerkstatt.pathfinder.util.AStarUtil;
-import java.util.ArrayList;
+import de.itwerkstatt.pathfinder.util.PathCache;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 /**
@@ -20,29 +21,64 @@ import java.util.stream.Stream;
  */
 public class PathFinder {
 
-    private final Area area;
+    private Area area;
+    private final NavigationMesh.Engine engine;
     private Triangle[] areaTriangles;
-    private Line[] areaLines;
 
     private Point startPoint;
     private Point endPoint;
-    private List<Node> nodes;
+    /**
+     * Compiled form of the area and its triangles. It is created on the first
+     * call of {@link #findPath()} and reused afterwards.
+     */
+    private NavigationMesh navigationMesh;
+    private PathCache pathCache;
+    private boolean shortestPathTable;
+    //Batches inform the listeners from several threads
+    private final List<PathFinderListener> listeners = new CopyOnWriteArrayList<>();
 
     /**
      * Takes the given area and calculates triangles of all points of the
-     * area.<br>
-     * This array can be overwritten with null null null null null null null null     
+     * area. Convex and concave areas are triangulated automatically, see
+     * {@link de.itwerkstatt.pathfinder.util.Triangulator Triangulator}.<br>
+     * This array can be overwritten with the
      * {@link #setAreaTriangles(de.itwerkstatt.pathfinder.entities.Triangle[]) 
-     * setAreaTriangles} method which can be necessary if the calculation of
-     * triangles did not work. So please examine the calculated triangles with
+     * setAreaTriangles} method. The calculated triangles can be examined with
      * {@link #getAreaTriangles()}.
      *
      * @param a
      */
     public PathFinder(Area a) {
+        this(a, NavigationMesh.Engine.VISIBILITY_GRAPH);
+    }
+
+    /**
+     * Takes the given area and calculates triangles of all points of the area
+     * like {@link #PathFinder(Area)}. The paths are searched by the given
+     * engine.
+     *
+     * @param a
+     * @param engine
+     */
+    public PathFinder(Area a, NavigationMesh.Engine engine) {
         this.area = a;
-        calculateTrianglesOfArea();
-        calculateAreaLines();
+        this.engine = engine;
+        this.areaTriangles = NavigationMesh.calculateTrianglesOfArea(a);
+    }
+
+    /**
+     * Takes the area, the triangles and the engine of the given mesh and uses
+     * the mesh without compiling it again, e.g. a mesh loaded by
+     * {@link NavigationMesh#load(java.nio.file.Path)}.
+     *
+     * @param mesh
+     */
+    public PathFinder(NavigationMesh mesh) {
+        this.area = mesh.getArea();
+        this.engine = mesh.getEngine();
+        this.areaTriangles = mesh.getAreaTriangles();
+        this.navigationMesh = mesh;
+        this.shortestPathTable = mesh.hasShortestPathTable();
     }
 
     /**
@@ -62,7 +98,7 @@ public class PathFinder {
     }
 
     public boolean isPointInArea(Point p) {
-        return Stream.of(areaTriangles).anyMatch(t -> t.isPointInTriangle(p));
+        return getNavigationMesh().isPointInArea(p);
     }
 
     /**
@@ -75,71 +111,237 @@ public class PathFinder {
      *
      * @return an array of points
      * @throws IllegalArgumentException if start or endpoint is null
+     * @see NavigationMesh#findPath(Point, Point)
      */
     public Point[] findPath() {
-        if (startPoint == null || endPoint == null) {
-            throw new IllegalArgumentException("Start- and endpoint must not be null.");
+        return findPath(NavigationMesh.Search.A_STAR);
+    }
+
+    /**
+     * Tries to find the shortest possible path from startpoint to endpoint
+     * like {@link #findPath()} with the given search.
+     *
+     * @param search
+     * @return an array of points
+     * @throws IllegalArgumentException if start, endpoint or search is null
+     * @see NavigationMesh#findPath(Point, Point, NavigationMesh.Search)
+     */
+    public Point[] findPath(NavigationMesh.Search search) {
+        return findPath(startPoint, endPoint, search, this::getNavigationMesh);
+    }
+
+    /**
+     * Finds the path with the cache and informs the listeners. The mesh is
+     * taken from the given function, so its compilation can be measured.
+     */
+    private Point[] findPath(Point start, Point end, NavigationMesh.Search search,
+            Function<SearchStatistics.Recorder, NavigationMesh> meshFunction) {
+        if (listeners.isEmpty()) {
+            SearchStatistics.Recorder disabled = SearchStatistics.Recorder.DISABLED;
+            return findPath(start, end, search, meshFunction.apply(disabled), disabled);
         }
-        List<Point> result = new ArrayList<>();
-        //Check if startPoint is in area
-        if (isPointInArea(startPoint)) {
-            result.add(startPoint);
-        } else {
-            //Alternatively: NearestPointToArea regardless of direction?
-            startPoint = area.calculateDirectionalNearestPointToArea(startPoint, endPoint);
-            result.add(startPoint);
+        SearchStatistics.Recorder recorder = new SearchStatistics.Recorder();
+        long time = recorder.start();
+        Point[] path = findPath(start, end, search, meshFunction.apply(recorder), recorder);
+        SearchStatistics statistics = recorder.build(System.nanoTime() - time, path.length);
+        for (PathFinderListener listener : listeners) {
+            listener.pathFound(start, end, path, statistics);
+        }
+        return path;
+    }
+
+    private Point[] findPath(Point start, Point end, NavigationMesh.Search search, NavigationMesh mesh, SearchStatistics.Recorder recorder) {
+        if (pathCache == null || start == null || end == null) {
+            return mesh.findPath(start, end, search, recorder);
         }
-        if (!isPointInArea(endPoint)) {
-            //Alternatively: NearestPointToArea regardless of direction?
-            endPoint = area.calculateDirectionalNearestPointToArea(endPoint, startPoint);
+        //Every change of the area or its triangles creates a new mesh, so
+        //cached paths of the old geometry are not used anymore
+        Point[] path = pathCache.get(start, end, mesh);
+        if (path == null) {
+            path = mesh.findPath(start, end, search, recorder);
+            pathCache.put(start, end, path, mesh);
+        } else {
+            recorder.setCacheHit();
         }
+        return path;
+    }
 
-        //We now have start and end point inside of area.
-        //Direct way from start to end without crossing any area lines
-        if (Stream.of(areaLines).noneMatch(l -> l.doIntersect(new Line(startPoint, endPoint)))) {
-            result.add(endPoint);
-            return result.toArray(Point[]::new);
+    /**
+     * Adds a listener, which is informed about every path found by
+     * {@link #findPath()} and {@link #findPaths(List)}. Without listeners no
+     * statistics are collected.
+     *
+     * @param listener
+     * @throws IllegalArgumentException if the listener is null
+     */
+    public void addListener(PathFinderListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener must not be null.");
         }
+        listeners.add(listener);
+    }
 
-        //We have to use the nodemesh
-        Node start = new Node(startPoint);
-        Node end = new Node(endPoint);
-        calculateNodeMesh(start, end);
-        return AStarUtil.aStar(start, end).stream().map(Node::getPoint).toArray(Point[]::new);
+    public void removeListener(PathFinderListener listener) {
+        listeners.remove(listener);
     }
 
     /**
-     * Tries to calculate triangles from the points of the area automatically.
+     * Calculates the distances to the given goal for many start points at
+     * once.
+     *
+     * @param goal
+     * @return the distance field
+     * @see NavigationMesh#createDistanceField(Point)
      */
-    private void calculateTrianglesOfArea() {
-        areaTriangles = new Triangle[area.points().length - 2];
-        Point p1 = area.points()[0];
-        for (int i = 2; i < area.points().length; i++) {
-            Point p2 = area.points()[i - 1];
-            Point p3 = area.points()[i];
-            areaTriangles[i - 2] = new Triangle(p1, p2, p3);
-        }
+    public DistanceField createDistanceField(Point goal) {
+        return getNavigationMesh().createDistanceField(goal);
+    }
+
+    /**
+     * Calculates the paths of many start and end points in parallel on the
+     * common ForkJoin pool. The start and end point of this path finder are
+     * not used or changed. Like {@link #findPath()}, every path uses the
+     * path cache and is reported to the listeners, which are called from the
+     * threads of the pool.
+     *
+     * @param requests
+     * @return the paths in the order of the requests
+     * @throws IllegalArgumentException if a start or endpoint is null
+     * @see NavigationMesh#findPaths(List)
+     */
+    public List<Point[]> findPaths(List<PathRequest> requests) {
+        return findPaths(requests, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Calculates the paths of many start and end points in parallel on the
+     * given pool like {@link #findPaths(List)}.
+     *
+     * @param requests
+     * @param pool
+     * @return the paths in the order of the requests
+     * @throws IllegalArgumentException if a start or endpoint is null
+     * @see NavigationMesh#findPaths(List, ForkJoinPool)
+     */
+    public List<Point[]> findPaths(List<PathRequest> requests, ForkJoinPool pool) {
+        //A parallel stream started inside of a pool runs its tasks in that pool
+        return pool.submit(() -> findPaths(requests.parallelStream()).toList()).join();
+    }
+
+    /**
+     * Maps every request to its path like {@link #findPaths(List)}. Use a
+     * parallel stream to calculate the paths in parallel.
+     *
+     * @param requests
+     * @return the paths in the order of the requests
+     * @see NavigationMesh#findPaths(Stream)
+     */
+    public Stream<Point[]> findPaths(Stream<PathRequest> requests) {
+        //Compile the mesh before the stream is consumed by several threads
+        NavigationMesh mesh = getNavigationMesh();
+        return requests.map(r -> findPath(r.start(), r.end(), NavigationMesh.Search.A_STAR, recorder -> mesh));
     }
 
     /**
-     * Calculates all edge-lines of the area by the points.
+     * Returns the compiled navigation mesh of the area and its current
+     * triangles. The mesh is immutable and can be shared between threads.
+     *
+     * @return the navigation mesh
      */
-    private void calculateAreaLines() {
-        areaLines = new Line[area.points().length];
-        for (int i = 0; i < area.points().length; i++) {
-            Point p1 = area.points()[i];
-            Point p2 = area.points()[0];
-            if ((i + 1) < area.points().length) {
-                p2 = area.points()[i + 1];
+    public NavigationMesh getNavigationMesh() {
+        return getNavigationMesh(SearchStatistics.Recorder.DISABLED);
+    }
+
+    private NavigationMesh getNavigationMesh(SearchStatistics.Recorder recorder) {
+        if (navigationMesh == null) {
+            PhaseEvent phase = recorder.start(SearchStatistics.Phase.MESH_BUILD);
+            navigationMesh = new NavigationMesh(area, engine, areaTriangles);
+            if (shortestPathTable) {
+                navigationMesh = navigationMesh.withShortestPathTable();
             }
-            areaLines[i] = new Line(p1, p2);
+            recorder.end(phase, navigationMesh.getVertexCount());
+        }
+        return navigationMesh;
+    }
+
+    /**
+     * Adds an obstacle (a hole) to the area, e.g. a pushed crate or a closed
+     * door. The obstacle has to lie inside of the area and must not touch its
+     * border or other obstacles. The triangles are calculated again and the
+     * navigation mesh is repaired locally, see
+     * {@link NavigationMesh#withObstacle(Area)}.
+     *
+     * @param obstacle
+     * @throws IllegalArgumentException if the obstacle does not lie inside of
+     * the area or touches its border or another obstacle
+     */
+    public void addObstacle(Area obstacle) {
+        setNavigationMesh(getNavigationMesh().withObstacle(obstacle));
+    }
+
+    /**
+     * Removes an obstacle (a hole) from the area. The triangles are calculated
+     * again and the navigation mesh is repaired locally, see
+     * {@link NavigationMesh#withoutObstacle(Area)}.
+     *
+     * @param obstacle
+     * @throws IllegalArgumentException if the area has no such obstacle
+     */
+    public void removeObstacle(Area obstacle) {
+        setNavigationMesh(getNavigationMesh().withoutObstacle(obstacle));
+    }
+
+    private void setNavigationMesh(NavigationMesh mesh) {
+        this.area = mesh.getArea();
+        this.areaTriangles = mesh.getAreaTriangles();
+        this.navigationMesh = mesh;
+    }
+
+    /**
+     * Sets the cache for the results of {@link #findPath()}. The cache is
+     * cleared automatically when the area or its triangles change.
+     *
+     * @param pathCache the cache or null to disable caching
+     */
+    public void setPathCache(PathCache pathCache) {
+        this.pathCache = pathCache;
+    }
+
+    /**
+     * Enables or disables the precomputed shortest paths between all nodes,
+     * see {@link NavigationMesh#withShortestPathTable()}. The table is
+     * calculated with the next navigation mesh.
+     *
+     * @param enabled
+     * @throws IllegalStateException if enabled for another engine than
+     * {@link NavigationMesh.Engine#VISIBILITY_GRAPH}
+     */
+    public void setShortestPathTableEnabled(boolean enabled) {
+        if (enabled && engine != NavigationMesh.Engine.VISIBILITY_GRAPH) {
+            throw new IllegalStateException("Shortest path table is only supported by the visibility graph engine.");
+        }
+        if (enabled != shortestPathTable) {
+            shortestPathTable = enabled;
+            navigationMesh = null;
         }
     }
 
+    public boolean isShortestPathTableEnabled() {
+        return shortestPathTable;
+    }
+
+    public PathCache getPathCache() {
+        return pathCache;
+    }
+
     public Area getArea() {
         return area;
     }
 
+    public NavigationMesh.Engine getEngine() {
+        return engine;
+    }
+
     public Triangle[] getAreaTriangles() {
         return areaTriangles;
     }
@@ -152,10 +354,6 @@ public class PathFinder {
         return endPoint;
     }
 
-    public List<Node> getNodes() {
-        return nodes;
-    }
-    
     /**
      * Sets the array of triangles that should cover in sum the complete area.
      *
@@ -163,59 +361,7 @@ public class PathFinder {
      */
     public void setAreaTriangles(Triangle... areaTriangles) {
         this.areaTriangles = areaTriangles;
-    }
-
-    /**
-     * Calculates the node mesh of concave points of the area. Concave points
-     * are detected by its triangle area: if the value is negative, the point is
-     * concave
-     */
-    private void calculateNodeMesh(Node start, Node end) {
-        //Detect concave vertices by checking its triangle area.
-        //If it is negativ, it is concave
-        List<Point> concavePoints = new ArrayList<>();
-        for (int i = 0; i < area.points().length; i++) {
-            Point p1, p2, p3;
-            p1 = area.points()[i];
-            if (i == area.points().length - 1) {
-                p2 = area.points()[0];
-                p3 = area.points()[i - 1];
-            } else if (i == 0) {
-                p2 = area.points()[i + 1];
-                p3 = area.points()[area.points().length - 1];
-            } else {
-                p2 = area.points()[i + 1];
-                p3 = area.points()[i - 1];
-            }
-            if (new Triangle(p1, p2, p3).calculateArea() < 0) {
-                concavePoints.add(p1);
-            }
-        }
-        //TODO Obstacles (= polygon holes) : include the convex vertices of them.
-        
-        nodes = new ArrayList<>(concavePoints.stream().map(Node::new).toList());
-        //Add start and endpoint
-        nodes.add(start);
-        nodes.add(end);
-        for (Node n : nodes) {
-            for (Node otherNode : nodes) {
-                if (n == otherNode) {
-                    continue;
-                }
-                Line tempLine = new Line(n.getPoint(), otherNode.getPoint());
-                //Check if line crosses area edges
-                boolean crossAreaEdge = Stream.of(areaLines)
-                        .filter(l -> l.doIntersect(tempLine))
-                        .count() > 0;
-                //Check if line is inside area. Maybe we have to adjust the steps 
-                //by the length of the line in the future
-                boolean lineIsInArea = Stream.of(tempLine.splitLineInPoints(10)).allMatch(p -> isPointInArea(p));
-                if (!crossAreaEdge && lineIsInArea) {
-                    //No intersection
-                    n.addNeighbour(otherNode, tempLine.length());
-                    otherNode.addNeighbour(n, tempLine.length());
-                }
-            }
-        }
+        //The navigation mesh depends on the triangles, so it has to be compiled again
+        this.navigationMesh = null;
     }
 }
@@ -0,0 +1,26 @@
+package de.itwerkstatt.pathfinder;
+
+import de.itwerkstatt.pathfinder.entities.Point;
+
+/**
+ * Is informed about every path found by a {@link PathFinder}, see
+ * {@link PathFinder#addListener(PathFinderListener)}.<br>
+ * The listener is called in the thread of the search, so it should return
+ * quickly. Batches of {@link PathFinder#findPaths(java.util.List)} call it
+ * from several threads at the same time.
+ *
+ * @author dsust
+ */
+@FunctionalInterface
+public interface PathFinderListener {
+
+    /**
+     * Is called after a search.
+     *
+     * @param start the requested start point
+     * @param end the requested end point
+     * @param path the found path, which must not be modified
+     * @param statistics
+     */
+    void pathFound(Point start, Point end, Point[] path, SearchStatistics statistics);
+}
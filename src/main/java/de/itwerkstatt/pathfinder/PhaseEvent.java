@@ -0,0 +1,43 @@
+package de.itwerkstatt.pathfinder;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event of a phase of a path search or of the compilation
+ * of a navigation mesh, see {@link SearchStatistics.Phase}. The event is
+ * disabled unless a recording enables it, e.g. with the default or profile
+ * settings of JFR.
+ *
+ * @author dsust
+ */
+@Name("de.itwerkstatt.pathfinder.Phase")
+@Label("Path Finder Phase")
+@Category("Path Finder")
+@Description("A phase of a path search or of the compilation of a navigation mesh")
+@StackTrace(false)
+final class PhaseEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Vertex Count")
+    @Description("Number of points of the area including its holes")
+    int vertexCount;
+
+    @Label("Expanded Nodes")
+    @Description("Number of nodes taken from the open sets, 0 outside of the search")
+    int expandedNodes;
+
+    @Label("Path Length")
+    @Description("Number of points of the path, 0 before the path is known")
+    int pathLength;
+
+    //Not recorded, only used by SearchStatistics.Recorder
+    transient SearchStatistics.Phase type;
+    transient long startNanos;
+}
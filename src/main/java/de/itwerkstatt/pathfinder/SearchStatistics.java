@@ -0,0 +1,180 @@
+package de.itwerkstatt.pathfinder;
+
+import de.itwerkstatt.pathfinder.util.SearchContext;
+import jdk.jfr.EventType;
+
+/**
+ * Statistics of a single call of {@link PathFinder#findPath()}, see
+ * {@link PathFinderListener}.<br>
+ * All times are in nanoseconds, phases which did not run have the time 0.
+ *
+ * @param containmentNanos time of the checks if start and end lie in the area
+ * @param projectionNanos time of moving start or end onto the border
+ * @param lineOfSightNanos time of the check for a direct line from start to
+ * end
+ * @param meshBuildNanos time of compiling the navigation mesh
+ * @param searchNanos time of the graph search including the connection of
+ * start and end with the graph
+ * @param reconstructionNanos time of creating the path from the result of the
+ * search
+ * @param totalNanos time of the whole call
+ * @param expandedNodes number of nodes taken from the open sets
+ * @param heapPushes number of inserts and updates in the open sets
+ * @param intersectionTests number of segments tested against the lines of the
+ * area
+ * @param directLine true, if start and end see each other, so no search was
+ * needed
+ * @param cacheHit true, if the path came from the path cache
+ * @param pathLength number of points of the path
+ *
+ * @author dsust
+ */
+public record SearchStatistics(long containmentNanos, long projectionNanos, long lineOfSightNanos,
+        long meshBuildNanos, long searchNanos, long reconstructionNanos, long totalNanos,
+        int expandedNodes, int heapPushes, int intersectionTests,
+        boolean directLine, boolean cacheHit, int pathLength) {
+
+    /**
+     * The measured phases of a search.
+     */
+    public enum Phase {
+        CONTAINMENT,
+        PROJECTION,
+        LINE_OF_SIGHT,
+        MESH_BUILD,
+        SEARCH,
+        RECONSTRUCTION
+    }
+
+    /**
+     * Returns the time of the given phase.
+     *
+     * @param phase
+     * @return time in nanoseconds
+     */
+    public long getNanos(Phase phase) {
+        return switch (phase) {
+            case CONTAINMENT -> containmentNanos;
+            case PROJECTION -> projectionNanos;
+            case LINE_OF_SIGHT -> lineOfSightNanos;
+            case MESH_BUILD -> meshBuildNanos;
+            case SEARCH -> searchNanos;
+            case RECONSTRUCTION -> reconstructionNanos;
+        };
+    }
+
+    /**
+     * Collects the statistics while a path is searched. The disabled recorder
+     * measures nothing and is never modified, so all searches without
+     * statistics share it.<br>
+     * Every phase is also reported as {@link PhaseEvent} to the Java Flight
+     * Recorder, if a recording enables the event. If neither statistics nor
+     * events are needed, all phases share one event which is never committed,
+     * so a search allocates nothing for them.
+     */
+    static final class Recorder {
+
+        static final Recorder DISABLED = new Recorder(false);
+        private static final EventType PHASE_EVENT_TYPE = EventType.getEventType(PhaseEvent.class);
+        static final PhaseEvent DISABLED_EVENT = new PhaseEvent();
+
+        private final boolean enabled;
+        private final long[] nanos = new long[Phase.values().length];
+        private int expandedNodes;
+        private int heapPushes;
+        private int intersectionTests;
+        private boolean directLine;
+        private boolean cacheHit;
+
+        Recorder() {
+            this(true);
+        }
+
+        private Recorder(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Returns the start time of a search.
+         */
+        long start() {
+            return enabled ? System.nanoTime() : 0;
+        }
+
+        /**
+         * Starts a phase. The returned event must only be passed to
+         * {@link #end(PhaseEvent, int, int, int)}, it may be shared.
+         */
+        PhaseEvent start(Phase phase) {
+            if (!enabled && !PHASE_EVENT_TYPE.isEnabled()) {
+                return DISABLED_EVENT;
+            }
+            PhaseEvent event = new PhaseEvent();
+            event.type = phase;
+            event.begin();
+            if (enabled) {
+                event.startNanos = System.nanoTime();
+            }
+            return event;
+        }
+
+        void end(PhaseEvent event, int vertexCount) {
+            end(event, vertexCount, 0, 0);
+        }
+
+        /**
+         * Adds the time since the start of the phase and commits the event.
+         *
+         * @param expandedNodes nodes expanded so far, 0 outside of the search
+         * @param pathLength points of the path, 0 before the path is known
+         */
+        void end(PhaseEvent event, int vertexCount, int expandedNodes, int pathLength) {
+            if (event == DISABLED_EVENT) {
+                return;
+            }
+            if (enabled) {
+                nanos[event.type.ordinal()] += System.nanoTime() - event.startNanos;
+            }
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = event.type.name();
+                event.vertexCount = vertexCount;
+                event.expandedNodes = expandedNodes;
+                event.pathLength = pathLength;
+                event.commit();
+            }
+        }
+
+        void countSearch(SearchContext context) {
+            if (enabled) {
+                expandedNodes += context.getExpandedNodes();
+                heapPushes += context.getHeapPushes();
+            }
+        }
+
+        void countIntersectionTests(int count) {
+            if (enabled) {
+                intersectionTests += count;
+            }
+        }
+
+        void setDirectLine() {
+            if (enabled) {
+                directLine = true;
+            }
+        }
+
+        void setCacheHit() {
+            if (enabled) {
+                cacheHit = true;
+            }
+        }
+
+        SearchStatistics build(long totalNanos, int pathLength) {
+            return new SearchStatistics(nanos[Phase.CONTAINMENT.ordinal()], nanos[Phase.PROJECTION.ordinal()],
+                    nanos[Phase.LINE_OF_SIGHT.ordinal()], nanos[Phase.MESH_BUILD.ordinal()], nanos[Phase.SEARCH.ordinal()],
+                    nanos[Phase.RECONSTRUCTION.ordinal()], totalNanos,
+                    expandedNodes, heapPushes, intersectionTests, directLine, cacheHit, pathLength);
+        }
+    }
+}
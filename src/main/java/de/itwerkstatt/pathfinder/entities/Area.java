@@ -1,23 +1,66 @@
 package de.itwerkstatt.pathfinder.entities;
 
+import de.itwerkstatt.pathfinder.util.GeometryUtil;
 import java.util.Arrays;
 
 /**
- * An area defined by at least three points
+ * An area defined by at least three points. The area can contain holes
+ * (obstacles), which are areas themselves and must not overlap each other or
+ * the border of the area.
  * @author dsust
  */
-public record Area(Point... points) {
+public record Area(Point[] points, Area... holes) {
 
     /**
-     * Constructor for a new Area Object.
+     * Constructor for a new Area Object without holes.
      * @param points 
      * @throws IllegalArgumentException if less than three points were passed
      */
     public Area(Point... points) {
+        this(points, new Area[0]);
+    }
+
+    /**
+     * Constructor for a new Area Object with holes.
+     * @param points
+     * @param holes
+     * @throws IllegalArgumentException if less than three points were passed
+     * or a hole has holes itself
+     */
+    public Area {
         if (points.length < 3) {
             throw new IllegalArgumentException("Area must be defined by at least three points.");
         }
-        this.points = points;
+        for (Area hole : holes) {
+            if (hole.holes().length > 0) {
+                throw new IllegalArgumentException("Holes must not contain holes.");
+            }
+        }
+    }
+
+    /**
+     * Checks if the point lies inside of the outline of the area or on its
+     * border. Holes are not considered.
+     * @param p
+     * @return true, if the point is inside of the outline
+     */
+    public boolean isPointInOutline(Point p) {
+        boolean inside = false;
+        for (int i = 0, j = points.length - 1; i < points.length; j = i++) {
+            Point a = points[i];
+            Point b = points[j];
+            //Points on the border count as inside
+            double cross = (b.x() - a.x()) * (p.y() - a.y()) - (b.y() - a.y()) * (p.x() - a.x());
+            if (cross == 0 && p.x() >= Math.min(a.x(), b.x()) && p.x() <= Math.max(a.x(), b.x())
+                    && p.y() >= Math.min(a.y(), b.y()) && p.y() <= Math.max(a.y(), b.y())) {
+                return true;
+            }
+            if ((a.y() > p.y()) != (b.y() > p.y())
+                    && p.x() < (b.x() - a.x()) * (p.y() - a.y()) / (b.y() - a.y()) + a.x()) {
+                inside = !inside;
+            }
+        }
+        return inside;
     }
     
     /**
@@ -27,53 +70,48 @@ public record Area(Point... points) {
      */
     public Point calculateNearestPointToArea(Point p) {
         //Find Point with minimal distance
+        int nearest = 0;
         double minDistance = Double.MAX_VALUE;
-        Line candidate1 = null;
-        Line candidate2 = null;
         for (int i = 0; i < points.length; i++) {
-            double distanceTo = points[i].distanceTo(p);
+            double distanceTo = GeometryUtil.distance(points[i].x(), points[i].y(), p.x(), p.y());
             if (distanceTo < minDistance) {
-                //Set new minDistance
                 minDistance = distanceTo;
-                //Get Prev and Next Point of current
-                Point prevPoint = (i == 0) ? points[points.length - 1] : points[i - 1];
-                Point nextPoint = (i == points.length - 1) ? points[0] : points[i + 1];
-                candidate1 = new Line(prevPoint, points[i]);
-                candidate2 = new Line(nextPoint, points[i]);
+                nearest = i;
             }
         }
-        assert candidate1 != null && candidate2 != null;
-        Point nearestPointCandid1 = candidate1.getNearestPointToLine(p);
-        Point nearestPointCandid2 = candidate2.getNearestPointToLine(p);
-
-        if (nearestPointCandid1.distanceTo(p) < nearestPointCandid2.distanceTo(p)) {
-            return nearestPointCandid1;
+        //Prev and Next Point of the nearest one
+        Point prevPoint = points[(nearest + points.length - 1) % points.length];
+        Point nextPoint = points[(nearest + 1) % points.length];
+        Point point = points[nearest];
+        if (GeometryUtil.distanceToSegment(prevPoint.x(), prevPoint.y(), point.x(), point.y(), p.x(), p.y())
+                < GeometryUtil.distanceToSegment(nextPoint.x(), nextPoint.y(), point.x(), point.y(), p.x(), p.y())) {
+            return new Line(prevPoint, point).getNearestPointToLine(p);
         }
-        return nearestPointCandid2;
+        return new Line(nextPoint, point).getNearestPointToLine(p);
     }
     
     /**
      * Calculates the nearest point to the edge of the area
-     * in direction to the destinationPoint
+     * in direction to the destinationPoint. If s lies inside of a hole, the
+     * point is on the edge of that hole.
      * @param s
      * @param dest
      * @return 
      */
     public Point calculateDirectionalNearestPointToArea(Point s, Point dest) {
+        for (Area hole : holes) {
+            if (hole.isPointInOutline(s)) {
+                return hole.calculateDirectionalNearestPointToArea(s, dest);
+            }
+        }
         //Find line which is being crossed by path from s to dest
-        Line l = new Line(s, dest);
         for (int i = 0; i < points.length; i++) {
             Point p1 = points[i];
-            Point p2 = points[0];
-            if ((i+1) < points.length) {
-                p2 = points[i+1];
-            }
-            Line tmpLine = new Line(p1,p2);
-            System.out.println(l+" > "+tmpLine+" : "+l.doIntersect(tmpLine));
+            Point p2 = points[(i + 1) % points.length];
             //Lines intersect
-            if (l.doIntersect(tmpLine)) {
+            if (GeometryUtil.isProperCrossing(s.x(), s.y(), dest.x(), dest.y(), p1.x(), p1.y(), p2.x(), p2.y())) {
                 //Find shortest point on that edge of the area
-                return tmpLine.getNearestPointToLine(s);
+                return new Line(p1, p2).getNearestPointToLine(s);
             }
         }
         return null;
@@ -1,5 +1,6 @@
 package de.itwerkstatt.pathfinder.entities;
 
+import de.itwerkstatt.pathfinder.util.GeometryUtil;
 import java.util.Optional;
 
 /**
@@ -83,18 +84,6 @@ public record Line(Point p1, Point p2) {
         return p1.y() - (calculateGradient() * p1.x());
     }
 
-    /**
-     * Checks if the given point p is between the linesegment by checking the
-     * coordinate-values
-     *
-     * @param p
-     * @return true, if p is between p1 and p2
-     */
-    private boolean isPointBetweenSegmentpoints(Point p) {
-        return p.y() >= getMinY() && p.y() <= getMaxY()
-                && p.x() >= getMinX() && p.x() <= getMaxX();
-    }
-
     private double getMaxX() {
         return p1.x() > p2.x() ? p1.x() : p2.x();
     }
@@ -119,109 +108,28 @@ public record Line(Point p1, Point p2) {
      * @return Point
      */
     public Point getNearestPointToLine(Point p) {
-        Point intersectionPoint;
-        if (isHorizontal()) {
-            intersectionPoint = new Point(p.x(), p1.y());
-        } else if (isVertical()) {
-            intersectionPoint = new Point(p1.x(), p.y());
-        } else {
-            // Calculate linear equation y = mx + c
-            // Gradient 
-            double m = calculateGradient();
-            // Offset c = y - mx
-            double c = calculateOffset();
-            //Normal through point P
-            //Gradient of normal
-            double m_normal = -1.0d / m;
-            double c_normal = p.y() - (m_normal * p.x());
-            // m x + c = m_normal x + c_normal
-            // x = (c_normal - c) / (m - m_normal)
-            double x_new = (c_normal - c) / (m - m_normal);
-            double y_new = m_normal * x_new + c_normal;
-            intersectionPoint = new Point(x_new, y_new);
-        }
-        if (isPointBetweenSegmentpoints(intersectionPoint)) {
-            return intersectionPoint;
+        double t = GeometryUtil.nearestPointParameter(p1.x(), p1.y(), p2.x(), p2.y(), p.x(), p.y());
+        if (t == 0) {
+            return p1;
         }
-        // Point is not within the segment. 
-        // Return the point of the line with the 
-        // smallest distance to the starting point
-        double distanceToP1 = p.distanceTo(p1);
-        if (p.distanceTo(p2) < distanceToP1) {
+        if (t == 1) {
             return p2;
         }
-        return p1;
+        return new Point(p1.x() + t * (p2.x() - p1.x()), p1.y() + t * (p2.y() - p1.y()));
     }
 
     /**
-     * Checks if the line segments intersect
+     * Checks if the line segments cross each other in a point which lies in
+     * the interior of both segments. Touching and collinear segments do not
+     * intersect.
      *
      * @param other
      * @return
+     * @see GeometryUtil#isProperCrossing(double, double, double, double, double, double, double, double)
      */
     public boolean doIntersect(Line other) {
-        //Case 1 - line is horizontal
-        if (isHorizontal()) {
-            //Other line is horizonal
-            if (other.isHorizontal()) {
-                return false;
-            }
-            //Other line is vertical
-            if (other.isVertical()) {
-                return other.p1.x() >= getMinX() && other.p1.x() <= getMaxX()
-                        && p1.y() >= other.getMinY() && p1.y() <= other.getMaxY()
-                        && !touch(other);
-            }
-            //Other line has specific gradient
-            Optional<Double> optXVal = other.getXforGivenY(p1.y());
-            if (optXVal.isPresent()) {
-                double intersectAtXVal = optXVal.get();
-                return p1.x() != intersectAtXVal && p2.x() != intersectAtXVal
-                        && intersectAtXVal >= getMinX() && intersectAtXVal <= getMaxX();
-            }
-            return false;
-        }
-
-        //Case 2 - line is vertical
-        if (isVertical()) {
-            //Other line is horizonal
-            if (other.isHorizontal()) {
-                return other.p1.y() >= getMinY() && other.p1.y() <= getMaxY()
-                        && p1.x() >= other.getMinX() && p1.x() <= other.getMaxX()
-                        && !touch(other);
-            }
-            //Other line is vertical
-            if (other.isVertical()) {
-                return false;
-            }
-            //Other line has specific gradient
-            Optional<Double> optYVal = other.getYforGivenX(p1.x());
-            if (optYVal.isPresent()) {
-                double intersectAtYVal = optYVal.get();
-                return p1.y() != intersectAtYVal && p2.y() != intersectAtYVal
-                        && intersectAtYVal >= getMinY() && intersectAtYVal <= getMaxY();
-            }
-            return false;
-        }
-        //Line has a specific gradient
-        //Other line is horizonal or vertical
-        if (other.isHorizontal() || other.isVertical()) {
-            return other.doIntersect(this);
-        }
-        //Both lines have a specific gradient, calculacte intersection point
-        //Same gradient, so the lines are parallel
-        if (calculateGradient() == other.calculateGradient()) {
-            return false; 
-        }
-
-        // x-Koordinate des Schnittpunkts berechnen
-        double x = (other.calculateOffset() - calculateOffset()) / 
-                (calculateGradient() - other.calculateGradient());
-
-        // y-Koordinate des Schnittpunkts berechnen
-        double y = calculateGradient() * x + calculateOffset();
-        Point intersectionPoint = new Point(x,y);
-        return isPointBetweenSegmentpoints(intersectionPoint) && !intersectionPoint.equals(p1) && !intersectionPoint.equals(p2);
+        return GeometryUtil.isProperCrossing(p1.x(), p1.y(), p2.x(), p2.y(),
+                other.p1.x(), other.p1.y(), other.p2.x(), other.p2.y());
     }
 
     /**
@@ -230,7 +138,7 @@ public record Line(Point p1, Point p2) {
      * @return
      */
     public double length() {
-        return Math.sqrt(Math.pow(p2.x() - p1.x(), 2) + Math.pow(p2.y() - p1.y(), 2));
+        return GeometryUtil.distance(p1.x(), p1.y(), p2.x(), p2.y());
     }
     
     /**
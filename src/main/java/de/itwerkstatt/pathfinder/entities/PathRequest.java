@@ -0,0 +1,9 @@
+package de.itwerkstatt.pathfinder.entities;
+
+/**
+ * A request for a path from a start to an end point, used for batch queries
+ * @author dsust
+ */
+public record PathRequest(Point start, Point end) {
+
+}
@@ -13,8 +13,10 @@ public record Point(double x, double y) {
      * @param p
      * @return The distance between the two points
      */
-    double distanceTo(Point p) {
-        return Math.sqrt(Math.pow(x - p.x, 2) + Math.pow(y - p.y, 2));
+    public double distanceTo(Point p) {
+        double dx = x - p.x;
+        double dy = y - p.y;
+        return Math.sqrt(dx * dx + dy * dy);
     }
     
     public boolean equals(Point other) {
@@ -1,5 +1,7 @@
 package de.itwerkstatt.pathfinder.entities;
 
+import de.itwerkstatt.pathfinder.util.GeometryUtil;
+
 /**
  * A triangle area defined by three points
  * @author dsust
@@ -26,15 +28,35 @@ public record Triangle(Point p1, Point p2, Point p3) {
      * @return true, if point is located inside the triangle
      */
     public boolean isPointInTriangle(Point p) {
+        return isPointInTriangle(p.x(), p.y());
+    }
+
+    /**
+     * Checks whether the point (x/y) is located in the triangle. Works like
+     * {@link #isPointInTriangle(Point)} without creating any objects.
+     *
+     * @param x
+     * @param y
+     * @return true, if point is located inside the triangle
+     */
+    public boolean isPointInTriangle(double x, double y) {
         // The order of the points is important and must always 
         // have the same direction.
-        double areaTri1 = new Triangle(p, p1, p2).calculateArea();
-        double areaTri2 = new Triangle(p, p2, p3).calculateArea();
-        double areaTri3 = new Triangle(p, p3, p1).calculateArea();
+        double areaTri1 = calculateArea(x, y, p1, p2);
+        double areaTri2 = calculateArea(x, y, p2, p3);
+        double areaTri3 = calculateArea(x, y, p3, p1);
         // Check if positive and negative areas present
         boolean has_neg_areas = (areaTri1 < 0d) || (areaTri2 < 0d) || (areaTri3 < 0d);
         boolean has_pos_areas = (areaTri1 > 0d) || (areaTri2 > 0d) || (areaTri3 > 0d);
         return !(has_neg_areas && has_pos_areas);
     }
 
+    /**
+     * Calculates the area of the triangle ((x/y), a, b)
+     */
+    private static double calculateArea(double x, double y, Point a, Point b) {
+        //Robust, so points on an edge are never classified wrongly
+        return 0.5d * GeometryUtil.orientation(b.x(), b.y(), x, y, a.x(), a.y());
+    }
+
 }
@@ -1,13 +1,11 @@
 package de.itwerkstatt.pathfinder.util;
 
-import de.itwerkstatt.pathfinder.entities.Node;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Set;
+import java.util.function.IntToDoubleFunction;
 
 /**
  * Implements the A* algorithm that calculates the shortest path to all areas of
@@ -17,55 +15,223 @@ import java.util.Set;
  */
 public class AStarUtil {
 
-    public static List<Node> aStar(Node startNode, Node destinationNode) {
+    /**
+     * Calculates the shortest path from the start node to the destination node
+     * of the given context. All values of the search are written into the
+     * context, the node mesh is not modified.
+     *
+     * @param context
+     * @return the indices of the nodes of the path or an empty array if no path
+     * was found
+     */
+    public static int[] aStar(SearchContext context) {
+        int startNode = context.getStartIndex();
+        int destinationNode = context.getDestinationIndex();
 
-        PriorityQueue<Node> openSet = new PriorityQueue<>();
-        Set<Node> closedSet = new HashSet<>();
+        IndexedMinHeap openSet = new IndexedMinHeap(destinationNode + 1);
+        BitSet closedSet = new BitSet(destinationNode + 1);
 
-        startNode.setDistanceFromStart(0);
-        startNode.setTotalDistance(startNode.getHeuristicDistanceToGoal());
-        openSet.add(startNode);
+        context.setDistanceFromStart(startNode, 0);
+        context.setTotalDistance(startNode, context.getHeuristicDistanceToGoal(startNode));
+        openSet.insertOrUpdate(startNode, context.getTotalDistance(startNode));
+        context.countHeapPush();
 
         while (!openSet.isEmpty()) {
-            Node current = openSet.poll();
+            int current = openSet.poll();
+            context.countExpandedNode();
 
-            if (current.equals(destinationNode)) {
-                return reconstructPath(current);
+            if (current == destinationNode) {
+                return reconstructPath(context, current);
             }
 
-            closedSet.add(current);
+            closedSet.set(current);
 
-            for (Node.NeighbourNode nn : current.getDirectNeighbours()) {
-                Double distance = nn.distance();
-                Node neighbor = nn.node();
-                if (closedSet.contains(neighbor)) {
+            for (int i = 0; i < context.getNeighbourCount(current); i++) {
+                double distance = context.getNeighbourDistance(current, i);
+                int neighbor = context.getNeighbour(current, i);
+                if (closedSet.get(neighbor)) {
                     continue;
                 }
 
-                double tentativeG = current.getDistanceFromStart() + distance;
+                double tentativeG = context.getDistanceFromStart(current) + distance;
 
-                if (tentativeG < neighbor.getDistanceFromStart()) {
-                    neighbor.setParent(current);
-                    neighbor.setDistanceFromStart(tentativeG);
-                    neighbor.setTotalDistance(neighbor.getDistanceFromStart() + neighbor.getHeuristicDistanceToGoal());
+                if (tentativeG < context.getDistanceFromStart(neighbor)) {
+                    context.setParent(neighbor, current);
+                    context.setDistanceFromStart(neighbor, tentativeG);
+                    context.setTotalDistance(neighbor, tentativeG + context.getHeuristicDistanceToGoal(neighbor));
+                    //Adds the neighbor or moves it up if it is already in the open set
+                    openSet.insertOrUpdate(neighbor, context.getTotalDistance(neighbor));
+                    context.countHeapPush();
+                }
+            }
+        }
+        return new int[0]; // Return empty path if no path found
+    }
+
+    /**
+     * Calculates the shortest path from the start node to the destination node
+     * of the given context by searching from both nodes at the same time. The
+     * forward search uses the heuristic and the values of the context, the
+     * backward search the given heuristic to the start node. The graph has to
+     * be undirected.<br>
+     * Both searches alternately expand the smaller of their open sets. Every
+     * node reached by both searches gives a candidate path. The search stops
+     * when the smallest total distance of one open set is not smaller than the
+     * best candidate, because both heuristics are consistent lower bounds.
+     *
+     * @param context
+     * @param heuristicToStart lower bound of the distance from a node to the
+     * start node, including the start and destination node
+     * @return the indices of the nodes of the path or an empty array if no path
+     * was found
+     */
+    public static int[] bidirectionalAStar(SearchContext context, IntToDoubleFunction heuristicToStart) {
+        int startNode = context.getStartIndex();
+        int destinationNode = context.getDestinationIndex();
+        int size = destinationNode + 1;
+
+        IndexedMinHeap forwardOpenSet = new IndexedMinHeap(size);
+        IndexedMinHeap backwardOpenSet = new IndexedMinHeap(size);
+        BitSet forwardClosedSet = new BitSet(size);
+        BitSet backwardClosedSet = new BitSet(size);
+        double[] backwardDistance = new double[size];
+        int[] backwardParent = new int[size];
+        Arrays.fill(backwardDistance, Double.MAX_VALUE);
+        Arrays.fill(backwardParent, -1);
+
+        context.setDistanceFromStart(startNode, 0);
+        context.setTotalDistance(startNode, context.getHeuristicDistanceToGoal(startNode));
+        forwardOpenSet.insertOrUpdate(startNode, context.getTotalDistance(startNode));
+        context.countHeapPush();
+        backwardDistance[destinationNode] = 0;
+        backwardOpenSet.insertOrUpdate(destinationNode, heuristicToStart.applyAsDouble(destinationNode));
+        context.countHeapPush();
 
-                    if (!openSet.contains(neighbor)) {
-                        openSet.add(neighbor);
+        //Length of the best path found so far and the node where both searches met
+        double bestDistance = Double.MAX_VALUE;
+        int meetingNode = -1;
+        while (!forwardOpenSet.isEmpty() && !backwardOpenSet.isEmpty()) {
+            if (Math.max(forwardOpenSet.peekKey(), backwardOpenSet.peekKey()) >= bestDistance) {
+                break;
+            }
+            if (forwardOpenSet.size() <= backwardOpenSet.size()) {
+                int current = forwardOpenSet.poll();
+                context.countExpandedNode();
+                forwardClosedSet.set(current);
+                for (int i = 0; i < context.getNeighbourCount(current); i++) {
+                    int neighbor = context.getNeighbour(current, i);
+                    if (forwardClosedSet.get(neighbor)) {
+                        continue;
+                    }
+                    double tentativeG = context.getDistanceFromStart(current) + context.getNeighbourDistance(current, i);
+                    if (tentativeG < context.getDistanceFromStart(neighbor)) {
+                        context.setParent(neighbor, current);
+                        context.setDistanceFromStart(neighbor, tentativeG);
+                        context.setTotalDistance(neighbor, tentativeG + context.getHeuristicDistanceToGoal(neighbor));
+                        forwardOpenSet.insertOrUpdate(neighbor, context.getTotalDistance(neighbor));
+                        context.countHeapPush();
+                        if (backwardDistance[neighbor] < Double.MAX_VALUE && tentativeG + backwardDistance[neighbor] < bestDistance) {
+                            bestDistance = tentativeG + backwardDistance[neighbor];
+                            meetingNode = neighbor;
+                        }
+                    }
+                }
+            } else {
+                int current = backwardOpenSet.poll();
+                context.countExpandedNode();
+                backwardClosedSet.set(current);
+                for (int i = 0; i < context.getNeighbourCount(current); i++) {
+                    int neighbor = context.getNeighbour(current, i);
+                    if (backwardClosedSet.get(neighbor)) {
+                        continue;
+                    }
+                    double tentativeG = backwardDistance[current] + context.getNeighbourDistance(current, i);
+                    if (tentativeG < backwardDistance[neighbor]) {
+                        backwardParent[neighbor] = current;
+                        backwardDistance[neighbor] = tentativeG;
+                        backwardOpenSet.insertOrUpdate(neighbor, tentativeG + heuristicToStart.applyAsDouble(neighbor));
+                        context.countHeapPush();
+                        if (context.getDistanceFromStart(neighbor) < Double.MAX_VALUE
+                                && tentativeG + context.getDistanceFromStart(neighbor) < bestDistance) {
+                            bestDistance = tentativeG + context.getDistanceFromStart(neighbor);
+                            meetingNode = neighbor;
+                        }
                     }
                 }
             }
         }
-        return new ArrayList<>(); // Return empty path if no path found
+        if (meetingNode < 0) {
+            return new int[0];
+        }
+        List<Integer> path = new ArrayList<>();
+        for (int node : reconstructPath(context, meetingNode)) {
+            path.add(node);
+        }
+        for (int node = backwardParent[meetingNode]; node >= 0; node = backwardParent[node]) {
+            path.add(node);
+        }
+        return path.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Calculates the distances from the given node to all nodes of the graph
+     * with Dijkstra's algorithm.
+     *
+     * @param graph
+     * @param source
+     * @return the distance of every node, infinity if it can not be reached
+     */
+    public static double[] dijkstra(CsrGraph graph, int source) {
+        return dijkstra(graph, new int[]{source}, new double[]{0}, 1, new int[graph.getNodeCount()]);
+    }
+
+    /**
+     * Calculates the distances from several sources to all nodes of the graph
+     * with Dijkstra's algorithm. Every source starts with its own distance, so
+     * the sources can be the nodes connected to a point outside of the graph.
+     *
+     * @param graph
+     * @param sources
+     * @param sourceDistances start distance of every source
+     * @param sourceCount number of sources
+     * @param parents receives the previous node on the shortest path of every
+     * node, -1 for sources and unreachable nodes
+     * @return the distance of every node, infinity if it can not be reached
+     */
+    public static double[] dijkstra(CsrGraph graph, int[] sources, double[] sourceDistances, int sourceCount, int[] parents) {
+        double[] distances = new double[graph.getNodeCount()];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(parents, -1);
+        IndexedMinHeap openSet = new IndexedMinHeap(graph.getNodeCount());
+        for (int i = 0; i < sourceCount; i++) {
+            if (sourceDistances[i] < distances[sources[i]]) {
+                distances[sources[i]] = sourceDistances[i];
+                openSet.insertOrUpdate(sources[i], sourceDistances[i]);
+            }
+        }
+        while (!openSet.isEmpty()) {
+            int current = openSet.poll();
+            for (int edge = graph.getFirstEdge(current); edge < graph.getEndEdge(current); edge++) {
+                int neighbour = graph.getTarget(edge);
+                double tentative = distances[current] + graph.getWeight(edge);
+                if (tentative < distances[neighbour]) {
+                    distances[neighbour] = tentative;
+                    parents[neighbour] = current;
+                    openSet.insertOrUpdate(neighbour, tentative);
+                }
+            }
+        }
+        return distances;
     }
 
-    private static List<Node> reconstructPath(Node current) {
-        List<Node> path = new ArrayList<>();
-        while (current != null) {
+    private static int[] reconstructPath(SearchContext context, int current) {
+        List<Integer> path = new ArrayList<>();
+        while (current >= 0) {
             path.add(current);
-            current = current.getParent();
+            current = context.getParent(current);
         }
         Collections.reverse(path);
-        return path;
+        return path.stream().mapToInt(Integer::intValue).toArray();
     }
 
 }
@@ -0,0 +1,113 @@
+package de.itwerkstatt.pathfinder.util;
+
+import de.itwerkstatt.pathfinder.entities.Point;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the values written by {@link BinaryWriter}. The file is mapped into
+ * memory, so arrays are copied from the page cache in one step and nothing is
+ * parsed value by value.
+ *
+ * @author dsust
+ */
+public final class BinaryReader {
+
+    private final ByteBuffer buffer;
+
+    private BinaryReader(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Maps the given file into memory.
+     *
+     * @param file
+     * @return the reader
+     * @throws IOException if the file cannot be read or is larger than 2 GB
+     */
+    public static BinaryReader map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("File " + file + " is too large.");
+            }
+            //The mapping stays valid after the channel is closed
+            return new BinaryReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads the rest of the stream into memory.
+     *
+     * @param in the stream, which is not closed
+     * @return the reader
+     * @throws IOException if the stream cannot be read
+     */
+    public static BinaryReader read(InputStream in) throws IOException {
+        return new BinaryReader(ByteBuffer.wrap(in.readAllBytes()));
+    }
+
+    public int readInt() throws IOException {
+        try {
+            return buffer.getInt();
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Unexpected end of data.", e);
+        }
+    }
+
+    public int[] readInts() throws IOException {
+        int length = readLength(Integer.BYTES);
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        return values;
+    }
+
+    public double[] readDoubles() throws IOException {
+        int length = readLength(Double.BYTES);
+        double[] values = new double[length];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + length * Double.BYTES);
+        return values;
+    }
+
+    /**
+     * Reads points written by {@link BinaryWriter#writePoints(Point...)}.
+     *
+     * @return the points
+     * @throws IOException if the data is invalid
+     */
+    public Point[] readPoints() throws IOException {
+        double[] coordinates = readDoubles();
+        if (coordinates.length % 2 != 0) {
+            throw new IOException("Odd number of coordinates.");
+        }
+        Point[] points = new Point[coordinates.length / 2];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point(coordinates[i * 2], coordinates[i * 2 + 1]);
+        }
+        return points;
+    }
+
+    /**
+     * Reads the number of following elements. The remaining data must be
+     * large enough for them, so corrupt data cannot allocate huge arrays.
+     *
+     * @param elementBytes minimal number of bytes of one element
+     * @return the number of elements
+     * @throws IOException if the number is negative or too large
+     */
+    public int readLength(int elementBytes) throws IOException {
+        int length = readInt();
+        if (length < 0 || (long) length * elementBytes > buffer.remaining()) {
+            throw new IOException("Invalid array length " + length + ".");
+        }
+        return length;
+    }
+}
@@ -0,0 +1,98 @@
+package de.itwerkstatt.pathfinder.util;
+
+import de.itwerkstatt.pathfinder.entities.Point;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes primitive values and arrays in little endian byte order into a
+ * growing buffer, which is stored in a file at the end. Arrays are stored
+ * with their length in front, so {@link BinaryReader} can copy them in one
+ * step.
+ *
+ * @author dsust
+ */
+public final class BinaryWriter {
+
+    private ByteBuffer buffer = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+
+    public void writeInt(int value) {
+        ensureRemaining(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    public void writeInts(int[] values) {
+        writeInt(values.length);
+        ensureRemaining((long) values.length * Integer.BYTES);
+        buffer.asIntBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Integer.BYTES);
+    }
+
+    public void writeDoubles(double[] values) {
+        writeInt(values.length);
+        ensureRemaining((long) values.length * Double.BYTES);
+        buffer.asDoubleBuffer().put(values);
+        buffer.position(buffer.position() + values.length * Double.BYTES);
+    }
+
+    /**
+     * Writes the points as one array of coordinates x0, y0, x1, y1, ...
+     *
+     * @param points
+     */
+    public void writePoints(Point... points) {
+        double[] coordinates = new double[points.length * 2];
+        for (int i = 0; i < points.length; i++) {
+            coordinates[i * 2] = points[i].x();
+            coordinates[i * 2 + 1] = points[i].y();
+        }
+        writeDoubles(coordinates);
+    }
+
+    /**
+     * Stores everything written so far in the file. An existing file is
+     * replaced.
+     *
+     * @param file
+     * @throws IOException
+     */
+    public void writeTo(Path file) throws IOException {
+        ByteBuffer data = buffer.duplicate().flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+    }
+
+    /**
+     * Writes everything written so far to the stream.
+     *
+     * @param out the stream, which is flushed but not closed
+     * @throws IOException
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer.array(), buffer.arrayOffset(), buffer.position());
+        out.flush();
+    }
+
+    private void ensureRemaining(long bytes) {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        long required = buffer.position() + bytes;
+        if (required > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Data is too large for one buffer.");
+        }
+        int capacity = (int) Math.max(required, Math.min(Integer.MAX_VALUE - 8, 2L * buffer.capacity()));
+        ByteBuffer larger = ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        larger.put(buffer.flip());
+        buffer = larger;
+    }
+}
@@ -1,7 +1,7 @@
 package de.itwerkstatt.pathfinder.util;
 
+import de.itwerkstatt.pathfinder.NavigationMesh;
 import de.itwerkstatt.pathfinder.entities.Area;
-import de.itwerkstatt.pathfinder.entities.Node;
 import de.itwerkstatt.pathfinder.entities.Point;
 import de.itwerkstatt.pathfinder.entities.Triangle;
 import java.awt.BasicStroke;
@@ -10,8 +10,6 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.event.ItemEvent;
 import java.awt.event.ItemListener;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Stream;
 import javax.swing.JCheckBox;
@@ -29,7 +27,7 @@ public class CanvasPanel extends JPanel implements ItemListener {
     private Point startPoint;
     private Point endPoint;
     private Point[] path;
-    private List<Node> nodes;
+    private NavigationMesh navigationMesh;
 
     private final int POINT_SIZE = 8;
 
@@ -87,8 +85,8 @@ public class CanvasPanel extends JPanel implements ItemListener {
         SwingUtilities.invokeLater(() -> repaint());
     }
 
-    void setNodes(List<Node> nodes) {
-        this.nodes = nodes;
+    void setNavigationMesh(NavigationMesh navigationMesh) {
+        this.navigationMesh = navigationMesh;
     }
     //</editor-fold>
 
@@ -100,9 +98,12 @@ public class CanvasPanel extends JPanel implements ItemListener {
         if (area != null && Filter.AREA.isVisible()) {
             g2d.setStroke(new BasicStroke(3));
             drawPolygon(g2d, area.points(), false);
+            for (Area hole : area.holes()) {
+                drawPolygon(g2d, hole.points(), false);
+            }
             //Points of area
             if (Filter.AREA_POINTS.isVisible()) {
-                for (Point point : area.points()) {
+                for (Point point : Stream.concat(Stream.of(area), Stream.of(area.holes())).flatMap(a -> Stream.of(a.points())).toList()) {
                     drawPoint(g2d, "", (int) point.x(), (int) point.y());
                 }
             }
@@ -147,18 +148,16 @@ public class CanvasPanel extends JPanel implements ItemListener {
         }
 
         //Nodes
-        if (nodes != null && Filter.NODE_MESH.isVisible()) {
+        if (navigationMesh != null && Filter.NODE_MESH.isVisible()) {
             g2d.setColor(Color.ORANGE);
-            List<Point> alreadyPainted = new ArrayList<>();
-            for (Node node : nodes) {
-                if (!alreadyPainted.contains(node.getPoint())) {
-                    alreadyPainted.add(node.getPoint());
-                    for (Node.NeighbourNode directNeighbour : node.getDirectNeighbours()) {
-                        if (!alreadyPainted.contains(directNeighbour.node().getPoint())){
-                            drawLine(g2d, new Point[]{node.getPoint(), directNeighbour.node().getPoint()});
-                        }
+            Point[] nodePoints = navigationMesh.getNodePoints();
+            CsrGraph nodeMesh = navigationMesh.getNodeMesh();
+            for (int node = 0; node < nodePoints.length; node++) {
+                for (int edge = nodeMesh.getFirstEdge(node); edge < nodeMesh.getEndEdge(node); edge++) {
+                    //Every edge is stored for both nodes, so paint it only once
+                    if (nodeMesh.getTarget(edge) > node) {
+                        drawLine(g2d, new Point[]{nodePoints[node], nodePoints[nodeMesh.getTarget(edge)]});
                     }
-            
                 }
             }
         }
@@ -0,0 +1,153 @@
+package de.itwerkstatt.pathfinder.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * An immutable, undirected and weighted graph in compressed sparse row
+ * layout.<br>
+ * The edges of node v are stored at the indices offsets[v] to
+ * offsets[v+1]-1 of the arrays targets and weights, so the graph only
+ * consists of three primitive arrays and all edges of a node lie next to each
+ * other in memory.
+ *
+ * @author dsust
+ */
+public final class CsrGraph {
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+
+    private CsrGraph(int[] offsets, int[] targets, double[] weights) {
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Creates an undirected graph from the given edges. Every edge has to be
+     * passed only once, it is stored for both of its nodes.
+     *
+     * @param nodeCount number of nodes of the graph
+     * @param from first node of every edge
+     * @param to second node of every edge
+     * @param edgeWeights weight of every edge
+     * @param edgeCount number of edges in the arrays
+     * @return the graph
+     */
+    public static CsrGraph undirected(int nodeCount, int[] from, int[] to, double[] edgeWeights, int edgeCount) {
+        int[] offsets = new int[nodeCount + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            offsets[from[e] + 1]++;
+            offsets[to[e] + 1]++;
+        }
+        for (int v = 0; v < nodeCount; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] targets = new int[2 * edgeCount];
+        double[] weights = new double[2 * edgeCount];
+        int[] next = Arrays.copyOf(offsets, nodeCount);
+        for (int e = 0; e < edgeCount; e++) {
+            int i = next[from[e]]++;
+            targets[i] = to[e];
+            weights[i] = edgeWeights[e];
+            i = next[to[e]]++;
+            targets[i] = from[e];
+            weights[i] = edgeWeights[e];
+        }
+        return new CsrGraph(offsets, targets, weights);
+    }
+
+    public int getNodeCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns the number of directed edges, so every undirected edge is
+     * counted twice.
+     *
+     * @return number of edges
+     */
+    public int getEdgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Returns the index of the first edge of the given node.
+     *
+     * @param node
+     * @return index of the first edge
+     */
+    public int getFirstEdge(int node) {
+        return offsets[node];
+    }
+
+    /**
+     * Returns the index after the last edge of the given node.
+     *
+     * @param node
+     * @return index after the last edge
+     */
+    public int getEndEdge(int node) {
+        return offsets[node + 1];
+    }
+
+    public int getDegree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    /**
+     * Returns the node the given edge leads to.
+     *
+     * @param edge
+     * @return index of the node
+     */
+    public int getTarget(int edge) {
+        return targets[edge];
+    }
+
+    public double getWeight(int edge) {
+        return weights[edge];
+    }
+
+    /**
+     * Writes the three arrays of the graph.
+     *
+     * @param writer
+     */
+    public void write(BinaryWriter writer) {
+        writer.writeInts(offsets);
+        writer.writeInts(targets);
+        writer.writeDoubles(weights);
+    }
+
+    /**
+     * Reads a graph written by {@link #write(BinaryWriter)}.
+     *
+     * @param reader
+     * @return the graph
+     * @throws IOException if the data is no valid graph
+     */
+    public static CsrGraph read(BinaryReader reader) throws IOException {
+        int[] offsets = reader.readInts();
+        int[] targets = reader.readInts();
+        double[] weights = reader.readDoubles();
+        if (offsets.length == 0 || offsets[0] != 0 || offsets[offsets.length - 1] != targets.length
+                || weights.length != targets.length) {
+            throw new IOException("Invalid graph.");
+        }
+        int nodeCount = offsets.length - 1;
+        for (int v = 0; v < nodeCount; v++) {
+            if (offsets[v] > offsets[v + 1]) {
+                throw new IOException("Invalid graph.");
+            }
+        }
+        for (int target : targets) {
+            if (target < 0 || target >= nodeCount) {
+                throw new IOException("Invalid graph.");
+            }
+        }
+        return new CsrGraph(offsets, targets, weights);
+    }
+}
@@ -0,0 +1,272 @@
+package de.itwerkstatt.pathfinder.util;
+
+import de.itwerkstatt.pathfinder.entities.Line;
+import de.itwerkstatt.pathfinder.entities.Point;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A uniform grid over the bounding box of a set of edges.<br>
+ * Every edge is registered in all cells it passes through. A segment query
+ * only has to test the edges of the cells the segment passes through instead
+ * of all edges. The cells are stored in compressed sparse row layout: the edges
+ * of cell c are at the indices cellOffsets[c] to cellOffsets[c+1]-1 of
+ * cellEdges.<br>
+ * If the edges form closed polygons (the end point of every edge is the start
+ * point of another edge), the grid can also check whether a segment leaves the
+ * polygons, see {@link #crossesBorder(double, double, double, double)
+ * crossesBorder}.<br>
+ * If all coordinates are integral (see {@link IntGeometryUtil}), they are
+ * stored packed in one int array and segments with integral end points are
+ * checked with exact integer arithmetic.<br>
+ * The grid is immutable and can be used by several threads at the same time.
+ *
+ * @author dsust
+ */
+public final class EdgeGrid {
+
+    private final Line[] edges;
+    //Coordinates of the edges, so the hot loops do not have to follow references.
+    //Either the double arrays or the packed int array (start x, start y, end x
+    //and end y of every edge) is used, the other one is null.
+    private final double[] startX;
+    private final double[] startY;
+    private final double[] endX;
+    private final double[] endY;
+    private final int[] packedEdges;
+    //Index of the edge which ends at the start point of an edge, -1 if none
+    private final int[] previousEdge;
+    private final GridLayout grid;
+    private final int[] cellOffsets;
+    private final int[] cellEdges;
+
+    /**
+     * Creates the grid for the given edges. The number of cells is chosen in
+     * the order of the number of edges.
+     *
+     * @param edges
+     */
+    public EdgeGrid(Line... edges) {
+        this.edges = edges.clone();
+        boolean integral = IntGeometryUtil.isIntegral(edges);
+        this.startX = integral ? null : new double[edges.length];
+        this.startY = integral ? null : new double[edges.length];
+        this.endX = integral ? null : new double[edges.length];
+        this.endY = integral ? null : new double[edges.length];
+        this.packedEdges = integral ? new int[edges.length * 4] : null;
+        this.previousEdge = new int[edges.length];
+        Map<Point, Integer> edgesByEndPoint = new HashMap<>();
+        for (int e = 0; e < edges.length; e++) {
+            if (integral) {
+                packedEdges[e * 4] = (int) edges[e].p1().x();
+                packedEdges[e * 4 + 1] = (int) edges[e].p1().y();
+                packedEdges[e * 4 + 2] = (int) edges[e].p2().x();
+                packedEdges[e * 4 + 3] = (int) edges[e].p2().y();
+            } else {
+                startX[e] = edges[e].p1().x();
+                startY[e] = edges[e].p1().y();
+                endX[e] = edges[e].p2().x();
+                endY[e] = edges[e].p2().y();
+            }
+            edgesByEndPoint.put(edges[e].p2(), e);
+        }
+        for (int e = 0; e < edges.length; e++) {
+            previousEdge[e] = edgesByEndPoint.getOrDefault(edges[e].p1(), -1);
+        }
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        for (Line l : edges) {
+            minX = Math.min(minX, Math.min(l.p1().x(), l.p2().x()));
+            minY = Math.min(minY, Math.min(l.p1().y(), l.p2().y()));
+            maxX = Math.max(maxX, Math.max(l.p1().x(), l.p2().x()));
+            maxY = Math.max(maxY, Math.max(l.p1().y(), l.p2().y()));
+        }
+        //About one cell per edge
+        this.grid = new GridLayout(minX, minY, maxX, maxY, edges.length);
+
+        //First pass counts the edges per cell, second pass fills them in
+        int cellCount = grid.getCellCount();
+        int[] counts = new int[cellCount + 1];
+        for (Line l : edges) {
+            forEachCell(l, cell -> counts[cell + 1]++);
+        }
+        for (int c = 0; c < cellCount; c++) {
+            counts[c + 1] += counts[c];
+        }
+        this.cellOffsets = counts.clone();
+        this.cellEdges = new int[counts[cellCount]];
+        for (int e = 0; e < edges.length; e++) {
+            int edge = e;
+            forEachCell(edges[e], cell -> cellEdges[counts[cell]++] = edge);
+        }
+    }
+
+    /**
+     * Checks if at least one of the edges intersects the given segment. The
+     * same check as {@code edge.doIntersect(segment)} is used.
+     *
+     * @param segment
+     * @return true, if an edge intersects the segment
+     */
+    public boolean intersectsAnyEdge(Line segment) {
+        double ax = segment.p1().x();
+        double ay = segment.p1().y();
+        double bx = segment.p2().x();
+        double by = segment.p2().y();
+        int columns = grid.getColumns();
+        int lastRow = grid.lastRow(ay, by);
+        for (int row = grid.firstRow(ay, by); row <= lastRow; row++) {
+            long columnRange = grid.columnRange(ax, ay, bx, by, row);
+            int lastColumn = (int) columnRange;
+            for (int column = (int) (columnRange >>> 32); column <= lastColumn; column++) {
+                int cell = row * columns + column;
+                for (int i = cellOffsets[cell]; i < cellOffsets[cell + 1]; i++) {
+                    int e = cellEdges[i];
+                    if (GeometryUtil.isProperCrossing(startX(e), startY(e), endX(e), endY(e), ax, ay, bx, by)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the segment from a to b leaves the polygons formed by the
+     * edges. This is the case if the segment crosses an edge or if it passes
+     * a vertex on the outside of the polygon. The interior of the polygons has
+     * to lie left of every edge.<br>
+     * A segment which neither crosses an edge nor touches a vertex lies
+     * completely inside or completely outside of the polygons, so if this
+     * method returns false one additional point-in-polygon test of any point
+     * of the segment decides if the segment is inside.
+     *
+     * @param ax
+     * @param ay
+     * @param bx
+     * @param by
+     * @return true, if the segment crosses the border of the polygons
+     */
+    public boolean crossesBorder(double ax, double ay, double bx, double by) {
+        boolean integral = packedEdges != null && IntGeometryUtil.isIntegral(ax) && IntGeometryUtil.isIntegral(ay)
+                && IntGeometryUtil.isIntegral(bx) && IntGeometryUtil.isIntegral(by);
+        int columns = grid.getColumns();
+        int lastRow = grid.lastRow(ay, by);
+        for (int row = grid.firstRow(ay, by); row <= lastRow; row++) {
+            long columnRange = grid.columnRange(ax, ay, bx, by, row);
+            int lastColumn = (int) columnRange;
+            for (int column = (int) (columnRange >>> 32); column <= lastColumn; column++) {
+                int cell = row * columns + column;
+                for (int i = cellOffsets[cell]; i < cellOffsets[cell + 1]; i++) {
+                    int e = cellEdges[i];
+                    if (integral
+                            ? crossesEdge((int) ax, (int) ay, (int) bx, (int) by, e)
+                            : crossesEdge(ax, ay, bx, by, e)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if the segment crosses the given edge or leaves the polygon at
+     * its start point. Every vertex is the start point of exactly one edge.
+     */
+    private boolean crossesEdge(double ax, double ay, double bx, double by, int e) {
+        return GeometryUtil.isProperCrossing(ax, ay, bx, by, startX(e), startY(e), endX(e), endY(e))
+                || previousEdge[e] >= 0 && leavesAtVertex(ax, ay, bx, by, e);
+    }
+
+    /**
+     * Checks if the segment touches the start point of the given edge and
+     * passes it on the outside of the polygon.
+     */
+    private boolean leavesAtVertex(double ax, double ay, double bx, double by, int edge) {
+        double vx = startX(edge);
+        double vy = startY(edge);
+        if (GeometryUtil.orientation(ax, ay, bx, by, vx, vy) != 0
+                || !GeometryUtil.isCollinearPointOnSegment(ax, ay, bx, by, vx, vy)) {
+            return false;
+        }
+        double px = startX(previousEdge[edge]);
+        double py = startY(previousEdge[edge]);
+        double nx = endX(edge);
+        double ny = endY(edge);
+        //Both directions of the segment have to stay inside at the vertex
+        boolean atA = vx == ax && vy == ay;
+        boolean atB = vx == bx && vy == by;
+        return !atA && !GeometryUtil.isInVertexCone(px, py, vx, vy, nx, ny, ax, ay)
+                || !atB && !GeometryUtil.isInVertexCone(px, py, vx, vy, nx, ny, bx, by);
+    }
+
+    /**
+     * Integer version of {@link #crossesEdge(double, double, double, double, int)}.
+     */
+    private boolean crossesEdge(int ax, int ay, int bx, int by, int e) {
+        int[] c = packedEdges;
+        if (IntGeometryUtil.isProperCrossing(ax, ay, bx, by, c[e * 4], c[e * 4 + 1], c[e * 4 + 2], c[e * 4 + 3])) {
+            return true;
+        }
+        if (previousEdge[e] < 0) {
+            return false;
+        }
+        int vx = c[e * 4];
+        int vy = c[e * 4 + 1];
+        if (IntGeometryUtil.orientation(ax, ay, bx, by, vx, vy) != 0
+                || !IntGeometryUtil.isCollinearPointOnSegment(ax, ay, bx, by, vx, vy)) {
+            return false;
+        }
+        int px = c[previousEdge[e] * 4];
+        int py = c[previousEdge[e] * 4 + 1];
+        int nx = c[e * 4 + 2];
+        int ny = c[e * 4 + 3];
+        boolean atA = vx == ax && vy == ay;
+        boolean atB = vx == bx && vy == by;
+        return !atA && !IntGeometryUtil.isInVertexCone(px, py, vx, vy, nx, ny, ax, ay)
+                || !atB && !IntGeometryUtil.isInVertexCone(px, py, vx, vy, nx, ny, bx, by);
+    }
+
+    private double startX(int e) {
+        return packedEdges != null ? packedEdges[e * 4] : startX[e];
+    }
+
+    private double startY(int e) {
+        return packedEdges != null ? packedEdges[e * 4 + 1] : startY[e];
+    }
+
+    private double endX(int e) {
+        return packedEdges != null ? packedEdges[e * 4 + 2] : endX[e];
+    }
+
+    private double endY(int e) {
+        return packedEdges != null ? packedEdges[e * 4 + 3] : endY[e];
+    }
+
+    /**
+     * Checks if the coordinates are stored as integers.
+     *
+     * @return true, if the grid works in integer mode
+     */
+    public boolean isIntegral() {
+        return packedEdges != null;
+    }
+
+    public int getColumns() {
+        return grid.getColumns();
+    }
+
+    public int getRows() {
+        return grid.getRows();
+    }
+
+    /**
+     * Calls the consumer for every cell the segment passes through.
+     */
+    private void forEachCell(Line segment, GridLayout.CellConsumer consumer) {
+        grid.forEachCell(segment.p1().x(), segment.p1().y(), segment.p2().x(), segment.p2().y(), consumer);
+    }
+}
@@ -0,0 +1,94 @@
+package de.itwerkstatt.pathfinder.util;
+
+import de.itwerkstatt.pathfinder.entities.Point;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implements the simple stupid funnel algorithm, which calculates the shortest
+ * path through a corridor of triangles (string pulling).<br>
+ * The corridor is given by its portals: the edges the path has to pass from
+ * one triangle to the next. The funnel starts at the apex with the first
+ * portal and is narrowed by every further portal. If one side of the funnel
+ * crosses the other side, the point of that side is a corner of the path and
+ * becomes the new apex.
+ *
+ * @author dsust
+ */
+public final class FunnelUtil {
+
+    private FunnelUtil() {
+    }
+
+    /**
+     * Calculates the shortest path from start to end through the given
+     * portals. The left and right point of a portal are seen in the direction
+     * of the path.
+     *
+     * @param start
+     * @param end
+     * @param leftPoints left point of every portal
+     * @param rightPoints right point of every portal
+     * @return the corners of the path, beginning with start and ending with
+     * end
+     */
+    public static Point[] stringPull(Point start, Point end, Point[] leftPoints, Point[] rightPoints) {
+        //The start and end point are added as portals of zero width
+        int portalCount = leftPoints.length + 2;
+        Point[] left = new Point[portalCount];
+        Point[] right = new Point[portalCount];
+        left[0] = start;
+        right[0] = start;
+        System.arraycopy(leftPoints, 0, left, 1, leftPoints.length);
+        System.arraycopy(rightPoints, 0, right, 1, rightPoints.length);
+        left[portalCount - 1] = end;
+        right[portalCount - 1] = end;
+
+        List<Point> path = new ArrayList<>();
+        path.add(start);
+        Point apex = start;
+        Point portalLeft = start;
+        Point portalRight = start;
+        int leftIndex = 0;
+        int rightIndex = 0;
+        for (int i = 1; i < portalCount; i++) {
+            //Narrow the right side of the funnel
+            if (orientation(apex, portalRight, right[i]) >= 0) {
+                if (apex.equals(portalRight) || orientation(apex, portalLeft, right[i]) < 0) {
+                    portalRight = right[i];
+                    rightIndex = i;
+                } else {
+                    //Right side crosses the left side: the left point is a corner
+                    apex = portalLeft;
+                    path.add(apex);
+                    portalRight = apex;
+                    rightIndex = leftIndex;
+                    i = leftIndex;
+                    continue;
+                }
+            }
+            //Narrow the left side of the funnel
+            if (orientation(apex, portalLeft, left[i]) <= 0) {
+                if (apex.equals(portalLeft) || orientation(apex, portalRight, left[i]) > 0) {
+                    portalLeft = left[i];
+                    leftIndex = i;
+                } else {
+                    //Left side crosses the right side: the right point is a corner
+                    apex = portalRight;
+                    path.add(apex);
+                    portalLeft = apex;
+                    leftIndex = rightIndex;
+                    i = rightIndex;
+                }
+            }
+        }
+        if (!path.get(path.size() - 1).equals(end)) {
+            path.add(end);
+        }
+        return path.toArray(Point[]::new);
+    }
+
+    private static double orientation(Point a, Point b, Point c) {
+        return GeometryUtil.orientation(a.x(), a.y(), b.x(), b.y(), c.x(), c.y());
+    }
+}
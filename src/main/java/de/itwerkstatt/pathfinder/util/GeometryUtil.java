@@ -0,0 +1,248 @@
+package de.itwerkstatt.pathfinder.util;
+
+import java.math.BigDecimal;
+
+/**
+ * Geometric predicates which work directly on the coordinates, so they can be
+ * used in hot loops without creating any objects.<br>
+ * The orientation and all predicates based on it are robust: their decisions
+ * are always exact, even for nearly collinear points.
+ *
+ * @author dsust
+ */
+public final class GeometryUtil {
+
+    private GeometryUtil() {
+    }
+
+    /**
+     * Relative error bound of the floating point orientation, see Shewchuk,
+     * "Adaptive Precision Floating-Point Arithmetic and Fast Robust Geometric
+     * Predicates": (3 + 16 * eps) * eps with eps = 2^-53.
+     */
+    private static final double ORIENTATION_ERROR_BOUND = (3.0 + 16.0 * 0x1p-53) * 0x1p-53;
+
+    /**
+     * Calculates twice the signed area of the triangle (a, b, c). The value is
+     * positive if c lies left of the directed line from a to b, negative if it
+     * lies right of it and zero if the three points are collinear.<br>
+     * The sign is always exact. The floating point result is used if its error
+     * bound shows that the sign is correct, which is the case for almost all
+     * inputs. Only for nearly collinear points the value is calculated again
+     * with exact arithmetic.
+     *
+     * @param ax
+     * @param ay
+     * @param bx
+     * @param by
+     * @param cx
+     * @param cy
+     * @return the orientation value
+     */
+    public static double orientation(double ax, double ay, double bx, double by, double cx, double cy) {
+        double left = (bx - ax) * (cy - ay);
+        double right = (by - ay) * (cx - ax);
+        double det = left - right;
+        //If both products have different signs, no cancellation can change the sign
+        if (left > 0 ? right <= 0 : left < 0 ? right >= 0 : true) {
+            return det;
+        }
+        double errorBound = ORIENTATION_ERROR_BOUND * Math.abs(left + right);
+        if (det >= errorBound || -det >= errorBound) {
+            return det;
+        }
+        return exactOrientation(ax, ay, bx, by, cx, cy);
+    }
+
+    /**
+     * Calculates the orientation with exact arithmetic. Differences and
+     * products of doubles are exact in BigDecimal, so only the conversion of
+     * the result is rounded, which never changes its sign.
+     */
+    static double exactOrientation(double ax, double ay, double bx, double by, double cx, double cy) {
+        BigDecimal left = exactDifference(bx, ax).multiply(exactDifference(cy, ay));
+        BigDecimal right = exactDifference(by, ay).multiply(exactDifference(cx, ax));
+        BigDecimal det = left.subtract(right);
+        double value = det.doubleValue();
+        //Results below the smallest double keep at least their sign
+        return value != 0 || det.signum() == 0 ? value : det.signum() * Double.MIN_VALUE;
+    }
+
+    private static BigDecimal exactDifference(double a, double b) {
+        return new BigDecimal(a).subtract(new BigDecimal(b));
+    }
+
+    /**
+     * Checks if the segments (a, b) and (c, d) cross each other in exactly one
+     * point which lies in the interior of both segments. Touching segments and
+     * collinear segments do not cross. The result is exact, see
+     * {@link #orientation(double, double, double, double, double, double)}.
+     *
+     * @param ax
+     * @param ay
+     * @param bx
+     * @param by
+     * @param cx
+     * @param cy
+     * @param dx
+     * @param dy
+     * @return true, if the segments cross
+     */
+    public static boolean isProperCrossing(double ax, double ay, double bx, double by,
+            double cx, double cy, double dx, double dy) {
+        double o1 = orientation(ax, ay, bx, by, cx, cy);
+        double o2 = orientation(ax, ay, bx, by, dx, dy);
+        if (!(o1 > 0 && o2 < 0 || o1 < 0 && o2 > 0)) {
+            return false;
+        }
+        double o3 = orientation(cx, cy, dx, dy, ax, ay);
+        double o4 = orientation(cx, cy, dx, dy, bx, by);
+        return o3 > 0 && o4 < 0 || o3 < 0 && o4 > 0;
+    }
+
+    /**
+     * Checks if the point c, which has to be collinear with the segment
+     * (a, b), lies between a and b (both inclusive).
+     *
+     * @param ax
+     * @param ay
+     * @param bx
+     * @param by
+     * @param cx
+     * @param cy
+     * @return true, if c lies on the segment
+     */
+    public static boolean isCollinearPointOnSegment(double ax, double ay, double bx, double by, double cx, double cy) {
+        return cx >= Math.min(ax, bx) && cx <= Math.max(ax, bx)
+                && cy >= Math.min(ay, by) && cy <= Math.max(ay, by);
+    }
+
+    /**
+     * Checks if the direction from vertex v to point x points into the
+     * interior of a polygon or along its border. The interior has to lie left
+     * of the edges (p, v) and (v, n), where p is the previous and n the next
+     * vertex of v.
+     *
+     * @param px
+     * @param py
+     * @param vx
+     * @param vy
+     * @param nx
+     * @param ny
+     * @param xx
+     * @param xy
+     * @return true, if the direction does not leave the polygon at v
+     */
+    public static boolean isInVertexCone(double px, double py, double vx, double vy,
+            double nx, double ny, double xx, double xy) {
+        boolean leftOfIncoming = orientation(px, py, vx, vy, xx, xy) >= 0;
+        boolean leftOfOutgoing = orientation(vx, vy, nx, ny, xx, xy) >= 0;
+        if (orientation(px, py, vx, vy, nx, ny) >= 0) {
+            //Convex vertex: the interior angle is at most 180 degrees
+            return leftOfIncoming && leftOfOutgoing;
+        }
+        //Reflex vertex: the interior angle is more than 180 degrees
+        return leftOfIncoming || leftOfOutgoing;
+    }
+
+    /**
+     * Checks if the segment (a, b) intersects or touches the axis-parallel box.
+     * The segment is clipped against the four borders of the box (Liang-Barsky)
+     * without creating any objects.
+     *
+     * @param ax
+     * @param ay
+     * @param bx
+     * @param by
+     * @param minX
+     * @param minY
+     * @param maxX
+     * @param maxY
+     * @return true, if at least one point of the segment lies in the box
+     */
+    public static boolean isSegmentIntersectingBox(double ax, double ay, double bx, double by,
+            double minX, double minY, double maxX, double maxY) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        //Parameter range of the segment inside of the box, restricted by both pairs of borders
+        double tMin = 0;
+        double tMax = 1;
+        if (dx == 0) {
+            if (ax < minX || ax > maxX) {
+                return false;
+            }
+        } else {
+            double t1 = (minX - ax) / dx;
+            double t2 = (maxX - ax) / dx;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        if (dy == 0) {
+            if (ay < minY || ay > maxY) {
+                return false;
+            }
+        } else {
+            double t1 = (minY - ay) / dy;
+            double t2 = (maxY - ay) / dy;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        return tMin <= tMax;
+    }
+
+    /**
+     * Calculates the distance of the points a and b.
+     *
+     * @param ax
+     * @param ay
+     * @param bx
+     * @param by
+     * @return the Euclidean distance
+     */
+    public static double distance(double ax, double ay, double bx, double by) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Calculates the position of the point of the segment (a, b) which is
+     * nearest to the point p. The position is given as parameter t of
+     * a + t * (b - a), so the nearest point can be calculated without creating
+     * an object.
+     *
+     * @param ax
+     * @param ay
+     * @param bx
+     * @param by
+     * @param px
+     * @param py
+     * @return the parameter in the range [0, 1]
+     */
+    public static double nearestPointParameter(double ax, double ay, double bx, double by, double px, double py) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double lengthSquared = dx * dx + dy * dy;
+        if (lengthSquared == 0) {
+            return 0;
+        }
+        double t = ((px - ax) * dx + (py - ay) * dy) / lengthSquared;
+        return Math.max(0, Math.min(1, t));
+    }
+
+    /**
+     * Calculates the distance of the point p to the segment (a, b).
+     *
+     * @param ax
+     * @param ay
+     * @param bx
+     * @param by
+     * @param px
+     * @param py
+     * @return the distance to the nearest point of the segment
+     */
+    public static double distanceToSegment(double ax, double ay, double bx, double by, double px, double py) {
+        double t = nearestPointParameter(ax, ay, bx, by, px, py);
+        return distance(ax + t * (bx - ax), ay + t * (by - ay), px, py);
+    }
+}
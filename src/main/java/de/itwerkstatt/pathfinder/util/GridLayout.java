@@ -0,0 +1,150 @@
+package de.itwerkstatt.pathfinder.util;
+
+/**
+ * The cells of a uniform grid over a bounding box, as used by
+ * {@link EdgeGrid} and {@link TriangleLocator}. Cell c lies in row
+ * c / columns and column c % columns. Points on the border between two cells
+ * belong to both of them.
+ *
+ * @author dsust
+ */
+final class GridLayout {
+
+    /**
+     * Upper limit for the number of columns and rows.
+     */
+    private static final int MAX_CELLS_PER_AXIS = 1024;
+    /**
+     * Cells are enlarged by this fraction of their size, so rounding errors
+     * never drop an entry from a cell it touches.
+     */
+    private static final double EPSILON = 1e-6;
+
+    private final double minX;
+    private final double minY;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final int columns;
+    private final int rows;
+
+    /**
+     * Creates the cells for the given bounding box. The number of cells is
+     * chosen in the order of the number of entries, with cells as square as
+     * possible.
+     */
+    GridLayout(double minX, double minY, double maxX, double maxY, int entryCount) {
+        this.minX = minX;
+        this.minY = minY;
+        double width = Math.max(maxX - minX, 1e-9);
+        double height = Math.max(maxY - minY, 1e-9);
+        double cellSize = Math.sqrt(width * height / Math.max(entryCount, 1));
+        this.columns = (int) Math.max(1, Math.min(MAX_CELLS_PER_AXIS, Math.ceil(width / cellSize)));
+        this.rows = (int) Math.max(1, Math.min(MAX_CELLS_PER_AXIS, Math.ceil(height / cellSize)));
+        this.cellWidth = width / columns;
+        this.cellHeight = height / rows;
+    }
+
+    interface CellConsumer {
+
+        void accept(int cell);
+    }
+
+    /**
+     * Calls the consumer for every cell the segment passes through.
+     */
+    void forEachCell(double x1, double y1, double x2, double y2, CellConsumer consumer) {
+        int lastRow = lastRow(y1, y2);
+        for (int row = firstRow(y1, y2); row <= lastRow; row++) {
+            long columnRange = columnRange(x1, y1, x2, y2, row);
+            int lastColumn = (int) columnRange;
+            for (int column = (int) (columnRange >>> 32); column <= lastColumn; column++) {
+                consumer.accept(row * columns + column);
+            }
+        }
+    }
+
+    /**
+     * Returns the first row of the y-range from y1 to y2.
+     */
+    int firstRow(double y1, double y2) {
+        return row(Math.min(y1, y2) - cellHeight * EPSILON);
+    }
+
+    /**
+     * Returns the last row of the y-range from y1 to y2.
+     */
+    int lastRow(double y1, double y2) {
+        return row(Math.max(y1, y2) + cellHeight * EPSILON);
+    }
+
+    /**
+     * Checks if the y-range from y1 to y2 reaches into the given row.
+     */
+    boolean overlapsRow(double y1, double y2, int row) {
+        return Math.max(y1, y2) >= minY + (row - EPSILON) * cellHeight
+                && Math.min(y1, y2) <= minY + (row + 1 + EPSILON) * cellHeight;
+    }
+
+    /**
+     * Returns the first (upper 32 bits) and last (lower 32 bits) column the
+     * segment passes through in the given row. The part of the segment in the
+     * row is calculated and the cells of its x-range are returned.
+     */
+    long columnRange(double x1, double y1, double x2, double y2, int row) {
+        double rowMinY = minY + (row - EPSILON) * cellHeight;
+        double rowMaxY = minY + (row + 1 + EPSILON) * cellHeight;
+        double fromX = Math.min(x1, x2);
+        double toX = Math.max(x1, x2);
+        if (y1 != y2) {
+            //x values of the segment at the lower and upper border of the row
+            double tMin = (Math.max(rowMinY, Math.min(y1, y2)) - y1) / (y2 - y1);
+            double tMax = (Math.min(rowMaxY, Math.max(y1, y2)) - y1) / (y2 - y1);
+            double xa = x1 + tMin * (x2 - x1);
+            double xb = x1 + tMax * (x2 - x1);
+            fromX = Math.max(fromX, Math.min(xa, xb));
+            toX = Math.min(toX, Math.max(xa, xb));
+        }
+        return ((long) column(fromX - cellWidth * EPSILON) << 32) | column(toX + cellWidth * EPSILON);
+    }
+
+    /**
+     * Returns the cell of the point, points outside of the bounding box get
+     * the nearest cell.
+     */
+    int cell(double x, double y) {
+        return row(y) * columns + column(x);
+    }
+
+    /**
+     * Returns the left, right, lower and upper border of the cell.
+     */
+    double[] cellBounds(int cell) {
+        double cellMinX = minX + cell % columns * cellWidth;
+        double cellMinY = minY + cell / columns * cellHeight;
+        return new double[]{cellMinX, cellMinX + cellWidth, cellMinY, cellMinY + cellHeight};
+    }
+
+    int getCellCount() {
+        return columns * rows;
+    }
+
+    int getColumns() {
+        return columns;
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    private int row(double y) {
+        return clamp((int) Math.floor((y - minY) / cellHeight), rows);
+    }
+
+    private int column(double x) {
+        return clamp((int) Math.floor((x - minX) / cellWidth), columns);
+    }
+
+    private static int clamp(int value, int size) {
+        return Math.max(0, Math.min(size - 1, value));
+    }
+}
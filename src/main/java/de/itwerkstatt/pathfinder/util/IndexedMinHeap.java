@@ -0,0 +1,178 @@
+package de.itwerkstatt.pathfinder.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of the node indices 0 to capacity-1, ordered by a double
+ * key per node.<br>
+ * The position of every node in the heap is stored, so checking whether a node
+ * is in the heap takes constant time and lowering the key of a node
+ * (decrease-key) only takes O(log n).
+ *
+ * @author dsust
+ */
+public class IndexedMinHeap {
+
+    private final int[] heap;
+    private final int[] positions; // -1 if the node is not in the heap
+    private final double[] keys;
+    private int size;
+
+    /**
+     * Creates an empty heap for the nodes 0 to capacity-1.
+     *
+     * @param capacity
+     */
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int node) {
+        return positions[node] >= 0;
+    }
+
+    /**
+     * Returns the key of the given node.
+     *
+     * @param node
+     * @return the key
+     * @throws NoSuchElementException if the node is not in the heap
+     */
+    public double getKey(int node) {
+        if (!contains(node)) {
+            throw new NoSuchElementException("Node " + node + " is not in the heap.");
+        }
+        return keys[node];
+    }
+
+    /**
+     * Adds the node with the given key. If the node is already in the heap its
+     * key is updated instead.
+     *
+     * @param node
+     * @param key
+     */
+    public void insertOrUpdate(int node, double key) {
+        if (contains(node)) {
+            double oldKey = keys[node];
+            keys[node] = key;
+            if (key < oldKey) {
+                siftUp(positions[node]);
+            } else {
+                siftDown(positions[node]);
+            }
+            return;
+        }
+        keys[node] = key;
+        heap[size] = node;
+        positions[node] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Lowers the key of a node which is already in the heap.
+     *
+     * @param node
+     * @param key
+     * @throws IllegalArgumentException if the new key is greater than the old
+     * one
+     * @throws NoSuchElementException if the node is not in the heap
+     */
+    public void decreaseKey(int node, double key) {
+        if (key > getKey(node)) {
+            throw new IllegalArgumentException("New key " + key + " is greater than the current key " + keys[node] + ".");
+        }
+        keys[node] = key;
+        siftUp(positions[node]);
+    }
+
+    /**
+     * Returns the node with the smallest key without removing it.
+     *
+     * @return index of the node
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty.");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Returns the smallest key of the heap.
+     *
+     * @return the smallest key
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public double peekKey() {
+        return keys[peek()];
+    }
+
+    /**
+     * Removes and returns the node with the smallest key.
+     *
+     * @return index of the node
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int poll() {
+        int node = peek();
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        positions[node] = -1;
+        return node;
+    }
+
+    private void siftUp(int i) {
+        int node = heap[i];
+        double key = keys[node];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[heap[parent]] <= key) {
+                break;
+            }
+            heap[i] = heap[parent];
+            positions[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = node;
+        positions[node] = i;
+    }
+
+    private void siftDown(int i) {
+        int node = heap[i];
+        double key = keys[node];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            if (key <= keys[heap[child]]) {
+                break;
+            }
+            heap[i] = heap[child];
+            positions[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = node;
+        positions[node] = i;
+    }
+}
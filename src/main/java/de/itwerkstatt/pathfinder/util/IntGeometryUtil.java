@@ -0,0 +1,154 @@
+package de.itwerkstatt.pathfinder.util;
+
+import de.itwerkstatt.pathfinder.entities.Line;
+import de.itwerkstatt.pathfinder.entities.Point;
+
+/**
+ * The geometric predicates of {@link GeometryUtil} for integer coordinates.<br>
+ * Levels are usually built from integer pixel coordinates. For them the
+ * orientation is calculated exactly with long arithmetic, without the error
+ * filter and the exact fallback of the floating point version. The
+ * coordinates must not exceed {@link #MAX_COORDINATE}, so no product can
+ * overflow. Structures which support the integer mode check this with
+ * {@link #isIntegral(Point...)} and store their coordinates packed in int
+ * arrays, which needs half the memory of double arrays.
+ *
+ * @author dsust
+ */
+public final class IntGeometryUtil {
+
+    /**
+     * Largest absolute value of a coordinate: differences fit into 31 bits,
+     * so the difference of two products fits into a long.
+     */
+    public static final int MAX_COORDINATE = 1 << 30;
+
+    private IntGeometryUtil() {
+    }
+
+    /**
+     * Checks if the value is an integer which can be used in integer mode.
+     *
+     * @param value
+     * @return true, if the value is an integer not larger than
+     * {@link #MAX_COORDINATE}
+     */
+    public static boolean isIntegral(double value) {
+        return value == (int) value && Math.abs(value) <= MAX_COORDINATE;
+    }
+
+    /**
+     * Checks if all coordinates of the points can be used in integer mode.
+     *
+     * @param points
+     * @return true, if all coordinates are integral
+     */
+    public static boolean isIntegral(Point... points) {
+        for (Point p : points) {
+            if (!isIntegral(p.x()) || !isIntegral(p.y())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if all coordinates of the lines can be used in integer mode.
+     *
+     * @param lines
+     * @return true, if all coordinates are integral
+     */
+    public static boolean isIntegral(Line... lines) {
+        for (Line l : lines) {
+            if (!isIntegral(l.p1(), l.p2())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calculates twice the signed area of the triangle (a, b, c) exactly.
+     *
+     * @param ax
+     * @param ay
+     * @param bx
+     * @param by
+     * @param cx
+     * @param cy
+     * @return positive if c lies left of the line from a to b, negative if it
+     * lies right of it and zero if the points are collinear
+     * @see GeometryUtil#orientation(double, double, double, double, double, double)
+     */
+    public static long orientation(int ax, int ay, int bx, int by, int cx, int cy) {
+        return ((long) bx - ax) * ((long) cy - ay) - ((long) by - ay) * ((long) cx - ax);
+    }
+
+    /**
+     * Checks if the segments (a, b) and (c, d) cross each other in exactly one
+     * point which lies in the interior of both segments.
+     *
+     * @param ax
+     * @param ay
+     * @param bx
+     * @param by
+     * @param cx
+     * @param cy
+     * @param dx
+     * @param dy
+     * @return true, if the segments cross
+     * @see GeometryUtil#isProperCrossing(double, double, double, double, double, double, double, double)
+     */
+    public static boolean isProperCrossing(int ax, int ay, int bx, int by, int cx, int cy, int dx, int dy) {
+        long o1 = Long.signum(orientation(ax, ay, bx, by, cx, cy));
+        long o2 = Long.signum(orientation(ax, ay, bx, by, dx, dy));
+        if (o1 * o2 >= 0) {
+            return false;
+        }
+        long o3 = Long.signum(orientation(cx, cy, dx, dy, ax, ay));
+        long o4 = Long.signum(orientation(cx, cy, dx, dy, bx, by));
+        return o3 * o4 < 0;
+    }
+
+    /**
+     * Checks if the point c, which has to be collinear with the segment
+     * (a, b), lies between a and b (both inclusive).
+     *
+     * @param ax
+     * @param ay
+     * @param bx
+     * @param by
+     * @param cx
+     * @param cy
+     * @return true, if c lies on the segment
+     */
+    public static boolean isCollinearPointOnSegment(int ax, int ay, int bx, int by, int cx, int cy) {
+        return cx >= Math.min(ax, bx) && cx <= Math.max(ax, bx)
+                && cy >= Math.min(ay, by) && cy <= Math.max(ay, by);
+    }
+
+    /**
+     * Checks if the direction from vertex v to point x does not leave the
+     * polygon at v. The interior has to lie left of the edges (p, v) and
+     * (v, n).
+     *
+     * @param px
+     * @param py
+     * @param vx
+     * @param vy
+     * @param nx
+     * @param ny
+     * @param xx
+     * @param xy
+     * @return true, if the direction does not leave the polygon at v
+     * @see GeometryUtil#isInVertexCone(double, double, double, double, double, double, double, double)
+     */
+    public static boolean isInVertexCone(int px, int py, int vx, int vy, int nx, int ny, int xx, int xy) {
+        boolean leftOfIncoming = orientation(px, py, vx, vy, xx, xy) >= 0;
+        boolean leftOfOutgoing = orientation(vx, vy, nx, ny, xx, xy) >= 0;
+        if (orientation(px, py, vx, vy, nx, ny) >= 0) {
+            return leftOfIncoming && leftOfOutgoing;
+        }
+        return leftOfIncoming || leftOfOutgoing;
+    }
+}
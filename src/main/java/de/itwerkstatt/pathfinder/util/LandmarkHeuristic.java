@@ -0,0 +1,146 @@
+package de.itwerkstatt.pathfinder.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Lower bounds for the distance of two nodes by landmarks (ALT heuristic).<br>
+ * For a few landmark nodes the distances to all other nodes are precomputed.
+ * By the triangle inequality the distance from a node v to the goal is at
+ * least |d(L,goal) - d(L,v)| for every landmark L. In areas with long detours
+ * this bound is much better than the straight distance, so A* visits far
+ * fewer nodes. The landmarks are chosen far apart from each other, so they lie
+ * at the border of the graph.
+ *
+ * @author dsust
+ */
+public final class LandmarkHeuristic {
+
+    private final int nodeCount;
+    private final int[] landmarks;
+    //Entry l*n+v is the distance of landmark l to node v
+    private final double[] distances;
+
+    private LandmarkHeuristic(int nodeCount, int[] landmarks, double[] distances) {
+        this.nodeCount = nodeCount;
+        this.landmarks = landmarks;
+        this.distances = distances;
+    }
+
+    /**
+     * Chooses up to the given number of landmarks and calculates their
+     * distances to all nodes of the undirected graph.
+     *
+     * @param graph
+     * @param landmarkCount
+     */
+    public LandmarkHeuristic(CsrGraph graph, int landmarkCount) {
+        this.nodeCount = graph.getNodeCount();
+        int count = Math.min(landmarkCount, nodeCount);
+        this.landmarks = new int[count];
+        this.distances = new double[count * nodeCount];
+        //Distance of every node to the nearest chosen landmark
+        double[] nearest = new double[nodeCount];
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+        //The first landmark is the node farthest from node 0
+        double[] fromFirstNode = count > 0 ? AStarUtil.dijkstra(graph, 0) : new double[0];
+        int next = farthest(fromFirstNode);
+        for (int l = 0; l < count; l++) {
+            landmarks[l] = next;
+            double[] fromLandmark = AStarUtil.dijkstra(graph, next);
+            System.arraycopy(fromLandmark, 0, distances, l * nodeCount, nodeCount);
+            for (int v = 0; v < nodeCount; v++) {
+                nearest[v] = Math.min(nearest[v], fromLandmark[v]);
+            }
+            next = farthest(nearest);
+        }
+    }
+
+    /**
+     * Returns the node with the largest distance. Unreachable nodes come
+     * first, so every part of the graph gets a landmark.
+     */
+    private static int farthest(double[] distances) {
+        int result = 0;
+        for (int v = 1; v < distances.length; v++) {
+            if (distances[v] > distances[result]) {
+                result = v;
+            }
+        }
+        return result;
+    }
+
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * Calculates the distances of all landmarks to a goal, which is connected
+     * to the given nodes. This has to be done once per search.
+     *
+     * @param goalNodes nodes connected to the goal
+     * @param goalDistances distance of every goal node to the goal
+     * @param goalCount number of goal nodes
+     * @return the distance of every landmark to the goal
+     */
+    public double[] distancesToGoal(int[] goalNodes, double[] goalDistances, int goalCount) {
+        double[] result = new double[landmarks.length];
+        for (int l = 0; l < landmarks.length; l++) {
+            double min = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < goalCount; i++) {
+                min = Math.min(min, distances[l * nodeCount + goalNodes[i]] + goalDistances[i]);
+            }
+            result[l] = min;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a lower bound for the distance from the given node to the goal.
+     *
+     * @param node
+     * @param landmarkDistancesToGoal the result of
+     * {@link #distancesToGoal(int[], double[], int) distancesToGoal}
+     * @return the lower bound, infinity if the node can not reach the goal
+     */
+    public double lowerBound(int node, double[] landmarkDistancesToGoal) {
+        double bound = 0;
+        for (int l = 0; l < landmarks.length; l++) {
+            double toNode = distances[l * nodeCount + node];
+            double toGoal = landmarkDistancesToGoal[l];
+            //Both unreachable from this landmark: no information
+            if (toNode != toGoal) {
+                bound = Math.max(bound, Math.abs(toGoal - toNode));
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Writes the landmarks and their distances.
+     *
+     * @param writer
+     */
+    public void write(BinaryWriter writer) {
+        writer.writeInt(nodeCount);
+        writer.writeInts(landmarks);
+        writer.writeDoubles(distances);
+    }
+
+    /**
+     * Reads a heuristic written by {@link #write(BinaryWriter)}.
+     *
+     * @param reader
+     * @return the heuristic
+     * @throws IOException if the data is invalid
+     */
+    public static LandmarkHeuristic read(BinaryReader reader) throws IOException {
+        int nodeCount = reader.readInt();
+        int[] landmarks = reader.readInts();
+        double[] distances = reader.readDoubles();
+        if (nodeCount < 0 || distances.length != (long) landmarks.length * nodeCount) {
+            throw new IOException("Invalid landmark heuristic.");
+        }
+        return new LandmarkHeuristic(nodeCount, landmarks, distances);
+    }
+}
@@ -0,0 +1,524 @@
+package de.itwerkstatt.pathfinder.util;
+
+import de.itwerkstatt.pathfinder.entities.Area;
+import de.itwerkstatt.pathfinder.entities.PathRequest;
+import de.itwerkstatt.pathfinder.entities.Point;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Creates reproducible areas and path queries for tests and benchmarks.<br>
+ * Every result only depends on the seed and the parameters of the call, so the
+ * same workload can be created on any machine. All points have integer
+ * coordinates. A workload can also be stored in a compact binary file with
+ * {@link #write(Workload, OutputStream)} and loaded again with
+ * {@link #read(InputStream)}. Like navigation mesh files, it is written in
+ * little endian byte order by {@link BinaryWriter}.
+ *
+ * @author dsust
+ */
+public final class MapGenerator {
+
+    /**
+     * The shapes of the generated areas.
+     */
+    public enum Shape {
+        /**
+         * A polygon with points in random distance around its center.
+         */
+        STAR(3),
+        /**
+         * A bar with teeth of random height. Paths between two teeth have to
+         * go around the inner corners.
+         */
+        COMB(4),
+        /**
+         * A corridor which winds back and forth between walls. Paths from one
+         * end to the other pass every wall.
+         */
+        MAZE(4),
+        /**
+         * A corridor which winds around a center in up to 20 turns.
+         */
+        SPIRAL(16),
+        /**
+         * A square with star shaped holes in the cells of a grid.
+         */
+        HOLES(7);
+
+        private final int minVertexCount;
+
+        private Shape(int minVertexCount) {
+            this.minVertexCount = minVertexCount;
+        }
+
+        /**
+         * Returns the smallest number of points an area of this shape can
+         * have.
+         *
+         * @return the number of points
+         */
+        public int getMinVertexCount() {
+            return minVertexCount;
+        }
+    }
+
+    /**
+     * The kinds of the generated path queries.
+     */
+    public enum QueryKind {
+        /**
+         * Start and end point lie inside of the area.
+         */
+        IN_AREA,
+        /**
+         * The start point lies outside of the outline, so it is moved to the
+         * border first. The end point lies inside of the area.
+         */
+        OUT_OF_AREA,
+        /**
+         * The start point lies inside of the area, the end point inside of a
+         * hole. The end point cannot be reached, so the path ends at the border
+         * of the hole.
+         */
+        IN_HOLE
+    }
+
+    /**
+     * A path query with the kind it was generated for.
+     */
+    public record Query(Point start, Point end, QueryKind kind) {
+
+        public PathRequest toRequest() {
+            return new PathRequest(start, end);
+        }
+    }
+
+    /**
+     * An area together with queries for it.
+     */
+    public record Workload(Area area, Query[] queries) {
+
+    }
+
+    //"PFWL"
+    private static final int MAGIC = 0x5046574C;
+    private static final int FORMAT_VERSION = 2;
+
+    private final long seed;
+
+    public MapGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Creates an area and queries for it.
+     *
+     * @param shape
+     * @param vertexCount number of points of the area including its holes
+     * @param queryCount
+     * @return the workload
+     * @throws IllegalArgumentException if the vertex count is too small for the
+     * shape or the query count is negative
+     */
+    public Workload createWorkload(Shape shape, int vertexCount, int queryCount) {
+        Area area = createArea(shape, vertexCount);
+        return new Workload(area, createQueries(area, queryCount));
+    }
+
+    /**
+     * Creates an area of the given shape.
+     *
+     * @param shape
+     * @param vertexCount number of points of the area including its holes
+     * @return the area
+     * @throws IllegalArgumentException if the vertex count is too small for the
+     * shape
+     */
+    public Area createArea(Shape shape, int vertexCount) {
+        if (vertexCount < shape.getMinVertexCount()) {
+            throw new IllegalArgumentException(shape + " needs at least " + shape.getMinVertexCount() + " points.");
+        }
+        Random random = random(shape.ordinal(), vertexCount);
+        return switch (shape) {
+            case STAR -> {
+                double radius = Math.max(1000, vertexCount * 10.0);
+                yield new Area(star(random, radius, radius, radius, vertexCount));
+            }
+            case COMB -> createComb(random, vertexCount);
+            case MAZE -> createMaze(random, vertexCount);
+            case SPIRAL -> createSpiral(vertexCount);
+            case HOLES -> createHoles(random, vertexCount);
+        };
+    }
+
+    /**
+     * Creates queries for the area. About 60% of the queries are of kind
+     * {@link QueryKind#IN_AREA}, the others are divided between
+     * {@link QueryKind#OUT_OF_AREA} and {@link QueryKind#IN_HOLE}. Areas
+     * without holes only get queries from outside of the area instead.<br>
+     * No point lies on a border of the area.
+     *
+     * @param area
+     * @param count
+     * @return the queries
+     * @throws IllegalArgumentException if the count is negative
+     */
+    public Query[] createQueries(Area area, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Query count must not be negative.");
+        }
+        Random random = random(area.points().length, area.holes().length, count);
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (Point p : area.points()) {
+            minX = Math.min(minX, p.x());
+            minY = Math.min(minY, p.y());
+            maxX = Math.max(maxX, p.x());
+            maxY = Math.max(maxY, p.y());
+        }
+        //Points outside of the area are taken from a slightly larger box
+        double marginX = (maxX - minX) / 10;
+        double marginY = (maxY - minY) / 10;
+        Query[] queries = new Query[count];
+        for (int i = 0; i < count; i++) {
+            double kind = random.nextDouble();
+            if (kind < 0.6) {
+                queries[i] = new Query(insidePoint(random, area, minX, minY, maxX, maxY),
+                        insidePoint(random, area, minX, minY, maxX, maxY), QueryKind.IN_AREA);
+            } else if (kind < 0.8 || area.holes().length == 0) {
+                Point start;
+                do {
+                    start = randomPoint(random, minX - marginX, minY - marginY, maxX + marginX, maxY + marginY);
+                } while (area.isPointInOutline(start));
+                queries[i] = new Query(start, insidePoint(random, area, minX, minY, maxX, maxY), QueryKind.OUT_OF_AREA);
+            } else {
+                Area hole = area.holes()[random.nextInt(area.holes().length)];
+                Point end;
+                do {
+                    end = randomPoint(random, hole.points());
+                } while (!hole.isPointInOutline(end) || isOnBorder(hole.points(), end));
+                queries[i] = new Query(insidePoint(random, area, minX, minY, maxX, maxY), end, QueryKind.IN_HOLE);
+            }
+        }
+        return queries;
+    }
+
+    /**
+     * Stores the workload. Coordinates are stored as int values if possible,
+     * otherwise as double values.
+     *
+     * @param workload
+     * @param out the stream, which is flushed but not closed
+     * @throws IOException
+     */
+    public static void write(Workload workload, OutputStream out) throws IOException {
+        Area area = workload.area();
+        boolean integral = IntGeometryUtil.isIntegral(area.points());
+        for (Area hole : area.holes()) {
+            integral &= IntGeometryUtil.isIntegral(hole.points());
+        }
+        for (Query query : workload.queries()) {
+            integral &= IntGeometryUtil.isIntegral(query.start(), query.end());
+        }
+        Query[] queries = workload.queries();
+        int[] kinds = new int[queries.length];
+        Point[] endpoints = new Point[queries.length * 2];
+        for (int i = 0; i < queries.length; i++) {
+            kinds[i] = queries[i].kind().ordinal();
+            endpoints[i * 2] = queries[i].start();
+            endpoints[i * 2 + 1] = queries[i].end();
+        }
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeInt(MAGIC);
+        writer.writeInt(FORMAT_VERSION);
+        writer.writeInt(integral ? 1 : 0);
+        writePoints(writer, integral, area.points());
+        writer.writeInt(area.holes().length);
+        for (Area hole : area.holes()) {
+            writePoints(writer, integral, hole.points());
+        }
+        writer.writeInts(kinds);
+        writePoints(writer, integral, endpoints);
+        writer.writeTo(out);
+    }
+
+    /**
+     * Loads a workload which was stored with
+     * {@link #write(Workload, OutputStream)}.
+     *
+     * @param in the stream, which is not closed
+     * @return the workload
+     * @throws IOException if the stream cannot be read or does not contain a
+     * workload of a supported version
+     */
+    public static Workload read(InputStream in) throws IOException {
+        BinaryReader reader = BinaryReader.read(in);
+        if (reader.readInt() != MAGIC) {
+            throw new IOException("Stream does not contain a workload.");
+        }
+        int version = reader.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported workload version " + version + ".");
+        }
+        boolean integral = reader.readInt() != 0;
+        Point[] outline = readPoints(reader, integral);
+        //Every hole starts with the length of its points
+        Area[] holes = new Area[reader.readLength(Integer.BYTES)];
+        Area area;
+        try {
+            for (int i = 0; i < holes.length; i++) {
+                holes[i] = new Area(readPoints(reader, integral));
+            }
+            area = new Area(outline, holes);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid area.", e);
+        }
+        int[] kinds = reader.readInts();
+        Point[] endpoints = readPoints(reader, integral);
+        if (endpoints.length != kinds.length * 2) {
+            throw new IOException("Invalid number of query points " + endpoints.length + ".");
+        }
+        Query[] queries = new Query[kinds.length];
+        QueryKind[] values = QueryKind.values();
+        for (int i = 0; i < queries.length; i++) {
+            if (kinds[i] < 0 || kinds[i] >= values.length) {
+                throw new IOException("Unknown query kind " + kinds[i] + ".");
+            }
+            queries[i] = new Query(endpoints[i * 2], endpoints[i * 2 + 1], values[kinds[i]]);
+        }
+        return new Workload(area, queries);
+    }
+
+    private Random random(long... parameters) {
+        long value = seed;
+        for (long parameter : parameters) {
+            value = value * 31 + parameter;
+        }
+        return new Random(value);
+    }
+
+    /**
+     * Points around the center with angles in equal steps and random radius
+     * between a fifth of the maximum radius and the maximum radius.
+     */
+    private static Point[] star(Random random, double centerX, double centerY, double maxRadius, int n) {
+        Point[] points = new Point[n];
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * i / n;
+            double radius = maxRadius * (0.2 + 0.8 * random.nextDouble());
+            points[i] = new Point(Math.round(centerX + radius * Math.cos(angle)), Math.round(centerY + radius * Math.sin(angle)));
+        }
+        return points;
+    }
+
+    /**
+     * A bar of height 200 with n/4 teeth of width 100. The remaining points
+     * form dips below the bar.
+     */
+    private static Area createComb(Random random, int n) {
+        int teeth = n / 4;
+        int[] left = new int[teeth];
+        int[] height = new int[teeth];
+        for (int k = 0; k < teeth; k++) {
+            left[k] = k == 0 ? 0 : left[k - 1] + 200 + random.nextInt(200);
+            height[k] = 700 + random.nextInt(2000);
+        }
+        int width = left[teeth - 1] + 100;
+        List<Point> points = new ArrayList<>(n);
+        points.add(new Point(0, 0));
+        addDips(points, 0, width, n % 4);
+        points.add(new Point(width, 0));
+        for (int k = teeth - 1; k >= 0; k--) {
+            points.add(new Point(left[k] + 100, height[k]));
+            points.add(new Point(left[k], height[k]));
+            if (k > 0) {
+                points.add(new Point(left[k], 200));
+                points.add(new Point(left[k - 1] + 100, 200));
+            }
+        }
+        return new Area(points.toArray(Point[]::new));
+    }
+
+    /**
+     * A box of height 2000 with (n-4)/4 walls of thickness 50, which are
+     * attached to the bottom and the top in turns and leave a gap of 300 at
+     * the other side. The remaining points form dips below the box.
+     */
+    private static Area createMaze(Random random, int n) {
+        int walls = (n - 4) / 4;
+        int height = 2000;
+        int gap = 300;
+        int[] left = new int[walls];
+        int x = 0;
+        for (int i = 0; i < walls; i++) {
+            x += 100 + random.nextInt(200);
+            left[i] = x;
+            x += 50;
+        }
+        int width = x + 100 + random.nextInt(200);
+        List<Point> points = new ArrayList<>(n);
+        points.add(new Point(0, 0));
+        addDips(points, 0, walls > 0 ? left[0] : width, (n - 4) % 4);
+        for (int i = 0; i < walls; i += 2) {
+            points.add(new Point(left[i], 0));
+            points.add(new Point(left[i], height - gap));
+            points.add(new Point(left[i] + 50, height - gap));
+            points.add(new Point(left[i] + 50, 0));
+        }
+        points.add(new Point(width, 0));
+        points.add(new Point(width, height));
+        for (int i = walls % 2 == 0 ? walls - 1 : walls - 2; i > 0; i -= 2) {
+            points.add(new Point(left[i] + 50, height));
+            points.add(new Point(left[i] + 50, gap));
+            points.add(new Point(left[i], gap));
+            points.add(new Point(left[i], height));
+        }
+        points.add(new Point(0, height));
+        return new Area(points.toArray(Point[]::new));
+    }
+
+    /**
+     * Adds points between (fromX, 0) and (toX, 0) which lie below that line
+     * in alternating depth, so no three points are collinear.
+     */
+    private static void addDips(List<Point> points, int fromX, int toX, int count) {
+        for (int i = 0; i < count; i++) {
+            points.add(new Point(Math.round(fromX + (toX - fromX) * (i + 1.0) / (count + 1)), -100 * (1 + i % 2)));
+        }
+    }
+
+    /**
+     * A corridor of width 5000 between two arithmetic spirals with a
+     * distance of 10000 between their turns. With an odd number of points the
+     * outer end of the corridor gets a pointed cap.
+     */
+    private static Area createSpiral(int n) {
+        int perCurve = n / 2;
+        //At least 32 points per turn keep the chords away from the next turn
+        int turns = Math.max(1, Math.min(20, perCurve / 32));
+        double pitch = 10000;
+        double width = 5000;
+        double innerRadius = 20000;
+        double endAngle = 2 * Math.PI * turns;
+        Point[] points = new Point[n];
+        for (int i = 0; i < perCurve; i++) {
+            double angle = endAngle * i / (perCurve - 1);
+            double radius = innerRadius + pitch * angle / (2 * Math.PI);
+            points[i] = polar(radius + width, angle);
+            points[n - 1 - i] = polar(radius, angle);
+        }
+        if (n % 2 == 1) {
+            double angle = endAngle + endAngle / (perCurve - 1) / 2;
+            points[perCurve] = polar(innerRadius + pitch * turns + width / 2, angle);
+        }
+        return new Area(points);
+    }
+
+    private static Point polar(double radius, double angle) {
+        return new Point(Math.round(radius * Math.cos(angle)), Math.round(radius * Math.sin(angle)));
+    }
+
+    /**
+     * A square which is divided into cells of size 1000. A star shaped hole
+     * with about 8 points is placed in the center of each of the first cells.
+     */
+    private static Area createHoles(Random random, int n) {
+        int holePoints = n - 4;
+        int holeCount = Math.max(1, holePoints / 8);
+        int columns = (int) Math.ceil(Math.sqrt(holeCount));
+        int size = columns * 1000;
+        Area[] holes = new Area[holeCount];
+        for (int j = 0; j < holeCount; j++) {
+            int count = holePoints / holeCount + (j < holePoints % holeCount ? 1 : 0);
+            holes[j] = new Area(star(random, 500 + 1000 * (j % columns), 500 + 1000 * (j / columns), 400, count));
+        }
+        Point[] outline = {new Point(0, 0), new Point(size, 0), new Point(size, size), new Point(0, size)};
+        return new Area(outline, holes);
+    }
+
+    private static Point insidePoint(Random random, Area area, double minX, double minY, double maxX, double maxY) {
+        Point p;
+        do {
+            p = randomPoint(random, minX, minY, maxX, maxY);
+        } while (!isInside(area, p));
+        return p;
+    }
+
+    private static boolean isInside(Area area, Point p) {
+        if (!area.isPointInOutline(p) || isOnBorder(area.points(), p)) {
+            return false;
+        }
+        for (Area hole : area.holes()) {
+            if (hole.isPointInOutline(p)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Point randomPoint(Random random, Point[] polygon) {
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (Point p : polygon) {
+            minX = Math.min(minX, p.x());
+            minY = Math.min(minY, p.y());
+            maxX = Math.max(maxX, p.x());
+            maxY = Math.max(maxY, p.y());
+        }
+        return randomPoint(random, minX, minY, maxX, maxY);
+    }
+
+    private static Point randomPoint(Random random, double minX, double minY, double maxX, double maxY) {
+        return new Point(Math.round(minX + random.nextDouble() * (maxX - minX)),
+                Math.round(minY + random.nextDouble() * (maxY - minY)));
+    }
+
+    private static boolean isOnBorder(Point[] polygon, Point p) {
+        for (int i = 0, j = polygon.length - 1; i < polygon.length; j = i++) {
+            Point a = polygon[i];
+            Point b = polygon[j];
+            if (GeometryUtil.isCollinearPointOnSegment(a.x(), a.y(), b.x(), b.y(), p.x(), p.y())
+                    && GeometryUtil.orientation(a.x(), a.y(), b.x(), b.y(), p.x(), p.y()) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes the coordinates x0, y0, x1, y1, ... as int values if they are
+     * integral, otherwise as double values.
+     */
+    private static void writePoints(BinaryWriter writer, boolean integral, Point[] points) {
+        if (!integral) {
+            writer.writePoints(points);
+            return;
+        }
+        int[] coordinates = new int[points.length * 2];
+        for (int i = 0; i < points.length; i++) {
+            coordinates[i * 2] = (int) points[i].x();
+            coordinates[i * 2 + 1] = (int) points[i].y();
+        }
+        writer.writeInts(coordinates);
+    }
+
+    private static Point[] readPoints(BinaryReader reader, boolean integral) throws IOException {
+        if (!integral) {
+            return reader.readPoints();
+        }
+        int[] coordinates = reader.readInts();
+        if (coordinates.length % 2 != 0) {
+            throw new IOException("Odd number of coordinates.");
+        }
+        Point[] points = new Point[coordinates.length / 2];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = new Point(coordinates[i * 2], coordinates[i * 2 + 1]);
+        }
+        return points;
+    }
+}
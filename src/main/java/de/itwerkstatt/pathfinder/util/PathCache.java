@@ -0,0 +1,251 @@
+package de.itwerkstatt.pathfinder.util;
+
+import de.itwerkstatt.pathfinder.NavigationMesh;
+import de.itwerkstatt.pathfinder.entities.Point;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A bounded cache for calculated paths.<br>
+ * Start and end point are snapped to a grid with the given cell size, so all
+ * requests between the same two cells share one entry. A request from A to B
+ * is also answered by the reversed path of a cached request from B to A. The
+ * returned path always begins and ends at the requested points or, if they lie
+ * outside of the area, at their projections onto the border like in
+ * {@link NavigationMesh#findPath(Point, Point)}. Only the corners in between
+ * come from the cache. A cached path is only used if the requested points lie
+ * on the same side of the border as the cached ones and see the neighbouring
+ * corners of the path, otherwise the request counts as a miss. So the cell size should be smaller than the thinnest walls of the
+ * area to get many hits.<br>
+ * If the cache is full, the least recently used entries are removed. The
+ * cache can be limited by the number of entries and by the estimated memory of
+ * the paths.<br>
+ * Every entry belongs to a navigation mesh, which is compared by identity. If
+ * a request comes with another mesh, all entries are removed. So a cache
+ * shared by path finders of different areas never mixes up their paths, but
+ * only keeps the paths of the last one.<br>
+ * All methods are synchronized, so the cache can be shared between threads.
+ *
+ * @author dsust
+ */
+public final class PathCache {
+
+    /**
+     * Estimated memory of an entry without its points: map entry, key and
+     * value objects and the path array.
+     */
+    static final long ENTRY_BYTES = 160;
+    /**
+     * Estimated memory of a point including its reference in the path array.
+     */
+    static final long POINT_BYTES = 40;
+
+    private record Key(long startX, long startY, long endX, long endY) {
+
+        Key reverse() {
+            return new Key(endX, endY, startX, startY);
+        }
+    }
+
+    private record Entry(Point start, Point end, Point[] path) {
+
+    }
+
+    private final double cellSize;
+    private final int maxEntries;
+    private final long maxBytes;
+    //Access order: the first entry is the least recently used one
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private NavigationMesh mesh;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a cache which is only limited by the number of entries.
+     *
+     * @param cellSize size of the grid cells the points are snapped to
+     * @param maxEntries maximum number of entries
+     */
+    public PathCache(double cellSize, int maxEntries) {
+        this(cellSize, maxEntries, Long.MAX_VALUE);
+    }
+
+    /**
+     * Creates a cache which is limited by the number of entries and their
+     * estimated memory.
+     *
+     * @param cellSize size of the grid cells the points are snapped to
+     * @param maxEntries maximum number of entries
+     * @param maxBytes maximum estimated memory of all entries in bytes
+     * @throws IllegalArgumentException if a parameter is not positive
+     */
+    public PathCache(double cellSize, int maxEntries, long maxBytes) {
+        if (!(cellSize > 0) || maxEntries <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("Cell size and limits must be positive.");
+        }
+        this.cellSize = cellSize;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cached path from start to end or the reversed path from end
+     * to start.
+     *
+     * @param start
+     * @param end
+     * @param mesh the mesh the path is requested for
+     * @return the path or null if nothing usable is cached
+     */
+    public synchronized Point[] get(Point start, Point end, NavigationMesh mesh) {
+        checkMesh(mesh);
+        Key key = key(start, end);
+        Entry entry = entries.get(key);
+        Point[] path = null;
+        if (entry != null) {
+            path = adapt(entry.path(), entry.start(), entry.end(), start, end, mesh);
+        }
+        entry = path == null ? entries.get(key.reverse()) : null;
+        if (entry != null) {
+            path = adapt(reverse(entry.path()), entry.end(), entry.start(), start, end, mesh);
+        }
+        if (path != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return path;
+    }
+
+    /**
+     * Stores the path from start to end. Least recently used entries are
+     * removed if a limit is exceeded.
+     *
+     * @param start
+     * @param end
+     * @param path
+     * @param mesh the mesh the path was calculated with
+     */
+    public synchronized void put(Point start, Point end, Point[] path, NavigationMesh mesh) {
+        checkMesh(mesh);
+        Entry old = entries.put(key(start, end), new Entry(start, end, path.clone()));
+        if (old != null) {
+            bytes -= estimateBytes(old);
+        }
+        bytes += estimateBytes(path.length);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while ((entries.size() > maxEntries || bytes > maxBytes) && iterator.hasNext()) {
+            bytes -= estimateBytes(iterator.next());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes all entries. The counters are not reset.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the estimated memory of all entries.
+     *
+     * @return memory in bytes
+     */
+    public synchronized long getEstimatedBytes() {
+        return bytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    private void checkMesh(NavigationMesh navigationMesh) {
+        if (navigationMesh != mesh) {
+            clear();
+            mesh = navigationMesh;
+        }
+    }
+
+    private Key key(Point start, Point end) {
+        return new Key(cell(start.x()), cell(start.y()), cell(end.x()), cell(end.y()));
+    }
+
+    private long cell(double value) {
+        return (long) Math.floor(value / cellSize);
+    }
+
+    /**
+     * Replaces the cached start and end point by the requested ones. Requested
+     * points outside of the area are projected onto the border in the same
+     * way as by the search.
+     *
+     * @return the path or null if a requested point lies on the other side of
+     * the border than the cached one or does not see the next corner
+     */
+    private static Point[] adapt(Point[] path, Point cachedStart, Point cachedEnd, Point start, Point end,
+            NavigationMesh mesh) {
+        if (path.length < 2) {
+            //Nothing to check, so only used for exactly the same points
+            return start.equals(cachedStart) && end.equals(cachedEnd) ? path.clone() : null;
+        }
+        int last = path.length - 1;
+        boolean startInside = path[0].equals(cachedStart);
+        boolean endInside = path[last].equals(cachedEnd);
+        if (mesh.isPointInArea(start) != startInside || mesh.isPointInArea(end) != endInside) {
+            return null;
+        }
+        Point[] result = path.clone();
+        result[0] = startInside ? start : mesh.getArea().calculateDirectionalNearestPointToArea(start, end);
+        if (result[0] == null) {
+            return null;
+        }
+        result[last] = endInside ? end : mesh.getArea().calculateDirectionalNearestPointToArea(end, result[0]);
+        if (result[last] == null) {
+            return null;
+        }
+        if (!result[0].equals(path[0]) && !mesh.isLineOfSight(result[0], result[1])
+                || !result[last].equals(path[last]) && !mesh.isLineOfSight(result[last - 1], result[last])) {
+            return null;
+        }
+        return result;
+    }
+
+    private static Point[] reverse(Point[] path) {
+        Point[] reversed = new Point[path.length];
+        for (int i = 0; i < path.length; i++) {
+            reversed[i] = path[path.length - 1 - i];
+        }
+        return reversed;
+    }
+
+    private static long estimateBytes(Entry entry) {
+        return estimateBytes(entry.path().length);
+    }
+
+    private static long estimateBytes(int pathLength) {
+        return ENTRY_BYTES + pathLength * POINT_BYTES;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "PathCache[entries=" + entries.size() + ", bytes=" + bytes + ", hits=" + hits
+                + ", misses=" + misses + ", evictions=" + evictions + "]";
+    }
+}
@@ -0,0 +1,246 @@
+package de.itwerkstatt.pathfinder.util;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Holds the state of a single search on a node mesh.<br>
+ * The node mesh itself is shared between all searches and never modified.
+ * Everything a search writes (distances, parents and the temporary start and
+ * destination node with their edges) is stored in this context, so every
+ * search needs its own instance.<br>
+ * The nodes of the mesh have the indices 0 to n-1, the start node has the
+ * index n and the destination node the index n+1.
+ *
+ * @author dsust
+ */
+public class SearchContext {
+
+    private final CsrGraph nodeMesh;
+    private final int nodeCount;
+
+    //Edges of the temporary nodes, -1 if the mesh node is not connected
+    private final double[] startEdges;
+    private final double[] destinationEdges;
+    private final int[] startNeighbours;
+    private int startNeighbourCount;
+    private final int[] destinationNeighbours;
+    private int destinationNeighbourCount;
+
+    //Calculates h on first access, null if h is only set explicitly
+    private final IntToDoubleFunction heuristic;
+    private final double[] distanceFromStart; //g
+    private final double[] heuristicDistanceToGoal; //h
+    private final double[] totalDistance; //f
+    private final int[] parent;
+
+    //Statistics of the search
+    private int expandedNodes;
+    private int heapPushes;
+
+    /**
+     * Creates a new context for a search on the given node mesh.
+     *
+     * @param nodeMesh
+     */
+    public SearchContext(CsrGraph nodeMesh) {
+        this(nodeMesh, null);
+    }
+
+    /**
+     * Creates a new context for a search on the given node mesh. The
+     * heuristic distance of a node to the goal is calculated by the given
+     * function when it is needed for the first time, so only the nodes the
+     * search visits are evaluated.
+     *
+     * @param nodeMesh
+     * @param heuristic calculates h for a node index, including the start and
+     * destination node
+     */
+    public SearchContext(CsrGraph nodeMesh, IntToDoubleFunction heuristic) {
+        this.nodeMesh = nodeMesh;
+        this.heuristic = heuristic;
+        this.nodeCount = nodeMesh.getNodeCount();
+        this.startEdges = new double[nodeCount];
+        this.destinationEdges = new double[nodeCount];
+        Arrays.fill(startEdges, -1);
+        Arrays.fill(destinationEdges, -1);
+        this.startNeighbours = new int[nodeCount];
+        this.destinationNeighbours = new int[nodeCount];
+        this.distanceFromStart = new double[nodeCount + 2];
+        this.heuristicDistanceToGoal = new double[nodeCount + 2];
+        this.totalDistance = new double[nodeCount + 2];
+        this.parent = new int[nodeCount + 2];
+        Arrays.fill(distanceFromStart, Double.MAX_VALUE);
+        Arrays.fill(totalDistance, Double.MAX_VALUE);
+        Arrays.fill(parent, -1);
+        if (heuristic != null) {
+            Arrays.fill(heuristicDistanceToGoal, Double.NaN);
+        }
+    }
+
+    /**
+     * Connects the temporary start node with the given mesh node.
+     *
+     * @param node index of the mesh node
+     * @param distance
+     */
+    public void connectStart(int node, double distance) {
+        if (startEdges[node] < 0) {
+            startNeighbours[startNeighbourCount++] = node;
+        }
+        startEdges[node] = distance;
+    }
+
+    /**
+     * Connects the temporary destination node with the given mesh node.
+     *
+     * @param node index of the mesh node
+     * @param distance
+     */
+    public void connectDestination(int node, double distance) {
+        if (destinationEdges[node] < 0) {
+            destinationNeighbours[destinationNeighbourCount++] = node;
+        }
+        destinationEdges[node] = distance;
+    }
+
+    public int getStartIndex() {
+        return nodeCount;
+    }
+
+    public int getDestinationIndex() {
+        return nodeCount + 1;
+    }
+
+    /**
+     * Returns the number of direct neighbours of the given node, including the
+     * edges to the temporary start and destination node.
+     *
+     * @param node
+     * @return number of neighbours
+     */
+    public int getNeighbourCount(int node) {
+        if (node == nodeCount) {
+            return startNeighbourCount;
+        }
+        if (node == nodeCount + 1) {
+            return destinationNeighbourCount;
+        }
+        int count = nodeMesh.getDegree(node);
+        if (startEdges[node] >= 0) {
+            count++;
+        }
+        if (destinationEdges[node] >= 0) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the index of the i-th direct neighbour of the given node.
+     *
+     * @param node
+     * @param i
+     * @return index of the neighbour
+     */
+    public int getNeighbour(int node, int i) {
+        if (node == nodeCount) {
+            return startNeighbours[i];
+        }
+        if (node == nodeCount + 1) {
+            return destinationNeighbours[i];
+        }
+        int degree = nodeMesh.getDegree(node);
+        if (i < degree) {
+            return nodeMesh.getTarget(nodeMesh.getFirstEdge(node) + i);
+        }
+        if (i == degree && startEdges[node] >= 0) {
+            return nodeCount;
+        }
+        return nodeCount + 1;
+    }
+
+    /**
+     * Returns the distance to the i-th direct neighbour of the given node.
+     *
+     * @param node
+     * @param i
+     * @return distance to the neighbour
+     */
+    public double getNeighbourDistance(int node, int i) {
+        if (node == nodeCount) {
+            return startEdges[startNeighbours[i]];
+        }
+        if (node == nodeCount + 1) {
+            return destinationEdges[destinationNeighbours[i]];
+        }
+        int degree = nodeMesh.getDegree(node);
+        if (i < degree) {
+            return nodeMesh.getWeight(nodeMesh.getFirstEdge(node) + i);
+        }
+        if (i == degree && startEdges[node] >= 0) {
+            return startEdges[node];
+        }
+        return destinationEdges[node];
+    }
+
+    public double getDistanceFromStart(int node) {
+        return distanceFromStart[node];
+    }
+
+    public void setDistanceFromStart(int node, double distance) {
+        distanceFromStart[node] = distance;
+    }
+
+    public double getHeuristicDistanceToGoal(int node) {
+        double h = heuristicDistanceToGoal[node];
+        if (Double.isNaN(h)) {
+            h = heuristic.applyAsDouble(node);
+            heuristicDistanceToGoal[node] = h;
+        }
+        return h;
+    }
+
+    public void setHeuristicDistanceToGoal(int node, double distance) {
+        heuristicDistanceToGoal[node] = distance;
+    }
+
+    public double getTotalDistance(int node) {
+        return totalDistance[node];
+    }
+
+    public void setTotalDistance(int node, double distance) {
+        totalDistance[node] = distance;
+    }
+
+    public int getParent(int node) {
+        return parent[node];
+    }
+
+    public void setParent(int node, int parentNode) {
+        parent[node] = parentNode;
+    }
+
+    /**
+     * Counts a node taken from an open set to visit its neighbours.
+     */
+    public void countExpandedNode() {
+        expandedNodes++;
+    }
+
+    /**
+     * Counts an insert or update of a node in an open set.
+     */
+    public void countHeapPush() {
+        heapPushes++;
+    }
+
+    public int getExpandedNodes() {
+        return expandedNodes;
+    }
+
+    public int getHeapPushes() {
+        return heapPushes;
+    }
+}
@@ -0,0 +1,163 @@
+package de.itwerkstatt.pathfinder.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * The shortest paths between all pairs of nodes of an undirected graph.<br>
+ * Dijkstra's algorithm is run once from every node. The distances and the next
+ * node on the way (next hop) are stored in two arrays of n² entries, so a path
+ * can be read without any search. This is meant for graphs with up to some
+ * thousand nodes.
+ *
+ * @author dsust
+ */
+public final class ShortestPathTable {
+
+    private final int nodeCount;
+    //Entry i*n+j belongs to the way from node i to node j
+    private final double[] distances;
+    private final int[] nextHops;
+
+    private ShortestPathTable(int nodeCount) {
+        this(nodeCount, new double[nodeCount * nodeCount], new int[nodeCount * nodeCount]);
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        Arrays.fill(nextHops, -1);
+    }
+
+    private ShortestPathTable(int nodeCount, double[] distances, int[] nextHops) {
+        this.nodeCount = nodeCount;
+        this.distances = distances;
+        this.nextHops = nextHops;
+    }
+
+    /**
+     * Calculates the shortest paths between all nodes of the given undirected
+     * graph.
+     *
+     * @param graph
+     * @return the table
+     * @throws IllegalArgumentException if the graph has too many nodes for the
+     * table
+     */
+    public static ShortestPathTable of(CsrGraph graph) {
+        int n = graph.getNodeCount();
+        if ((long) n * n > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Graph with " + n + " nodes is too large for a shortest path table.");
+        }
+        ShortestPathTable table = new ShortestPathTable(n);
+        IndexedMinHeap openSet = new IndexedMinHeap(n);
+        for (int target = 0; target < n; target++) {
+            table.searchFrom(graph, target, openSet);
+        }
+        return table;
+    }
+
+    /**
+     * Dijkstra from the given node. As the graph is undirected, the parent of
+     * a node i in this search is the next hop of the way from i to the given
+     * node.
+     */
+    private void searchFrom(CsrGraph graph, int target, IndexedMinHeap openSet) {
+        distances[target * nodeCount + target] = 0;
+        nextHops[target * nodeCount + target] = target;
+        openSet.insertOrUpdate(target, 0);
+        while (!openSet.isEmpty()) {
+            int current = openSet.poll();
+            double distance = distances[current * nodeCount + target];
+            for (int edge = graph.getFirstEdge(current); edge < graph.getEndEdge(current); edge++) {
+                int neighbour = graph.getTarget(edge);
+                double tentative = distance + graph.getWeight(edge);
+                if (tentative < distances[neighbour * nodeCount + target]) {
+                    distances[neighbour * nodeCount + target] = tentative;
+                    nextHops[neighbour * nodeCount + target] = current;
+                    openSet.insertOrUpdate(neighbour, tentative);
+                }
+            }
+        }
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Returns the length of the shortest path between the two nodes.
+     *
+     * @param from
+     * @param to
+     * @return the length or infinity if there is no path
+     */
+    public double getDistance(int from, int to) {
+        return distances[from * nodeCount + to];
+    }
+
+    /**
+     * Returns the node which follows the given node on the shortest path to
+     * the destination.
+     *
+     * @param from
+     * @param to
+     * @return the next node, to itself if from equals to, or -1 if there is no
+     * path
+     */
+    public int getNextHop(int from, int to) {
+        return nextHops[from * nodeCount + to];
+    }
+
+    /**
+     * Reads the shortest path between the two nodes from the table.
+     *
+     * @param from
+     * @param to
+     * @return the indices of the nodes of the path, beginning with from and
+     * ending with to, or an empty array if there is no path
+     */
+    public int[] getPath(int from, int to) {
+        if (getNextHop(from, to) < 0) {
+            return new int[0];
+        }
+        int[] path = new int[nodeCount];
+        int length = 0;
+        int current = from;
+        path[length++] = current;
+        while (current != to) {
+            current = getNextHop(current, to);
+            path[length++] = current;
+        }
+        return Arrays.copyOf(path, length);
+    }
+
+    /**
+     * Writes the distances and next hops of the table.
+     *
+     * @param writer
+     */
+    public void write(BinaryWriter writer) {
+        writer.writeInt(nodeCount);
+        writer.writeDoubles(distances);
+        writer.writeInts(nextHops);
+    }
+
+    /**
+     * Reads a table written by {@link #write(BinaryWriter)}.
+     *
+     * @param reader
+     * @return the table
+     * @throws IOException if the data is invalid
+     */
+    public static ShortestPathTable read(BinaryReader reader) throws IOException {
+        int nodeCount = reader.readInt();
+        double[] distances = reader.readDoubles();
+        int[] nextHops = reader.readInts();
+        if (nodeCount < 0 || distances.length != (long) nodeCount * nodeCount || nextHops.length != distances.length) {
+            throw new IOException("Invalid shortest path table.");
+        }
+        for (int hop : nextHops) {
+            if (hop < -1 || hop >= nodeCount) {
+                throw new IOException("Invalid shortest path table.");
+            }
+        }
+        return new ShortestPathTable(nodeCount, distances, nextHops);
+    }
+}
@@ -60,7 +60,7 @@ public class TestGUI {
                     p.setStartAndEndpoint(points[0], points[1]);
                     Point[] path = p.findPath();
                     canvas.setPath(path);
-                    canvas.setNodes(p.getNodes());
+                    canvas.setNavigationMesh(p.getNavigationMesh());
                     populatePathPointList(path);
                 } else {
                     canvas.setPath(null);
@@ -76,7 +76,7 @@ public class TestGUI {
         try {
             Point[] path = p.findPath();
             canvas.setPath(path);
-            canvas.setNodes(p.getNodes());
+            canvas.setNavigationMesh(p.getNavigationMesh());
             populatePathPointList(path);
         } catch (IllegalArgumentException ignore) {
             //No start and endpoint available yet
@@ -0,0 +1,492 @@
+package de.itwerkstatt.pathfinder.util;
+
+import de.itwerkstatt.pathfinder.entities.Line;
+import de.itwerkstatt.pathfinder.entities.Point;
+import de.itwerkstatt.pathfinder.entities.Triangle;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Finds the triangle which contains a given point.<br>
+ * A uniform grid is laid over the bounding box of all triangles and every
+ * small triangle is registered in the cells it overlaps. A query only tests the
+ * triangles of the one cell the point lies in, so the costs do not depend on
+ * the total number of triangles. The cells are stored in compressed sparse row
+ * layout like in {@link EdgeGrid}.<br>
+ * Long and thin triangles, as created by fan triangulations, overlap far more
+ * cells than their share, so they are not registered. The cells they overlap
+ * only keep one of them as seed, and a query which finds no registered
+ * triangle walks from the seed along the line to the point through the
+ * neighbours of the triangles. Where the line leaves the triangles, the walk
+ * continues at the next border edge the line enters through, so the border
+ * edges are registered as well if there are long triangles. This way the grid
+ * needs a bounded number of entries per triangle.<br>
+ * The triangles must not overlap. Neighbours are found by equal points, edges
+ * which are only partly shared are handled like border edges.<br>
+ * The locator is immutable and can be used by several threads at the same
+ * time.
+ *
+ * @author dsust
+ */
+public final class TriangleLocator {
+
+    /**
+     * Triangles which overlap more cells are not registered, but found by
+     * walking from a seed.
+     */
+    static final int MAX_CELLS_PER_TRIANGLE = 16;
+    /**
+     * Tolerance of the position on the line where the walk enters the
+     * triangles again, for lines which leave and enter at the same vertex.
+     */
+    private static final double ENTRY_TOLERANCE = 1e-9;
+
+    private final Triangle[] triangles;
+    //Counterclockwise corners of the triangles, corner k of triangle t is at
+    //index 3*t+k. Edge 3*t+k runs from corner k to corner k+1.
+    private final double[] cornerX;
+    private final double[] cornerY;
+    //Triangle on the other side of every edge, -1 for border edges. Only
+    //filled if there are long triangles.
+    private final int[] neighbours;
+    private final double minX;
+    private final double minY;
+    private final double maxX;
+    private final double maxY;
+    private final GridLayout grid;
+    private final int[] cellOffsets;
+    private final int[] cellTriangles;
+    //A long triangle which overlaps the cell, -1 if there is none
+    private final int[] cellSeeds;
+    //Border edges of the cells, only filled if there are long triangles
+    private final int[] edgeOffsets;
+    private final int[] cellEdges;
+
+    /**
+     * Creates the locator for the given triangles. The number of cells is
+     * chosen in the order of the number of triangles.
+     *
+     * @param triangles
+     */
+    public TriangleLocator(Triangle... triangles) {
+        this.triangles = triangles.clone();
+        int n = triangles.length;
+        this.cornerX = new double[3 * n];
+        this.cornerY = new double[3 * n];
+        double x0 = Double.MAX_VALUE;
+        double y0 = Double.MAX_VALUE;
+        double x1 = -Double.MAX_VALUE;
+        double y1 = -Double.MAX_VALUE;
+        Point[] corners = new Point[3 * n];
+        for (int t = 0; t < n; t++) {
+            Triangle tri = triangles[t];
+            boolean clockwise = GeometryUtil.orientation(tri.p1().x(), tri.p1().y(),
+                    tri.p2().x(), tri.p2().y(), tri.p3().x(), tri.p3().y()) < 0;
+            corners[3 * t] = tri.p1();
+            corners[3 * t + 1] = clockwise ? tri.p3() : tri.p2();
+            corners[3 * t + 2] = clockwise ? tri.p2() : tri.p3();
+            for (int k = 3 * t; k < 3 * t + 3; k++) {
+                cornerX[k] = corners[k].x();
+                cornerY[k] = corners[k].y();
+                x0 = Math.min(x0, cornerX[k]);
+                y0 = Math.min(y0, cornerY[k]);
+                x1 = Math.max(x1, cornerX[k]);
+                y1 = Math.max(y1, cornerY[k]);
+            }
+        }
+        this.minX = x0;
+        this.minY = y0;
+        this.maxX = x1;
+        this.maxY = y1;
+        //About one cell per triangle
+        this.grid = new GridLayout(minX, minY, maxX, maxY, n);
+
+        //First pass sorts out the long triangles and counts the small ones per
+        //cell, second pass fills them in
+        int cellCount = grid.getCellCount();
+        this.cellSeeds = new int[cellCount];
+        Arrays.fill(cellSeeds, -1);
+        boolean[] small = new boolean[n];
+        boolean walks = false;
+        int[] counts = new int[cellCount + 1];
+        for (int t = 0; t < n; t++) {
+            int triangle = t;
+            int[] overlapped = new int[1];
+            small[t] = forEachCellOfTriangle(t, cell -> ++overlapped[0] <= MAX_CELLS_PER_TRIANGLE);
+            if (small[t]) {
+                forEachCellOfTriangle(t, cell -> {
+                    counts[cell + 1]++;
+                    return true;
+                });
+            } else {
+                walks = true;
+                forEachCellOfTriangle(t, cell -> {
+                    if (cellSeeds[cell] < 0) {
+                        cellSeeds[cell] = triangle;
+                    }
+                    return true;
+                });
+            }
+        }
+        for (int c = 0; c < cellCount; c++) {
+            counts[c + 1] += counts[c];
+        }
+        this.cellOffsets = counts.clone();
+        this.cellTriangles = new int[counts[cellCount]];
+        for (int t = 0; t < n; t++) {
+            if (small[t]) {
+                int triangle = t;
+                forEachCellOfTriangle(t, cell -> {
+                    cellTriangles[counts[cell]++] = triangle;
+                    return true;
+                });
+            }
+        }
+
+        //The same for the border edges, which like the neighbours are only
+        //needed by the walk
+        this.neighbours = walks ? calculateNeighbours(corners) : new int[0];
+        int[] edgeCounts = new int[cellCount + 1];
+        for (int e = 0; e < 3 * n && walks; e++) {
+            if (neighbours[e] < 0) {
+                forEachCellOfEdge(e, cell -> edgeCounts[cell + 1]++);
+            }
+        }
+        for (int c = 0; c < cellCount; c++) {
+            edgeCounts[c + 1] += edgeCounts[c];
+        }
+        this.edgeOffsets = edgeCounts.clone();
+        this.cellEdges = new int[edgeCounts[cellCount]];
+        for (int e = 0; e < 3 * n && walks; e++) {
+            if (neighbours[e] < 0) {
+                int edge = e;
+                forEachCellOfEdge(e, cell -> cellEdges[edgeCounts[cell]++] = edge);
+            }
+        }
+    }
+
+    /**
+     * Finds the neighbour over every edge by the same points in the opposite
+     * direction.
+     */
+    private static int[] calculateNeighbours(Point[] corners) {
+        int[] neighbours = new int[corners.length];
+        Arrays.fill(neighbours, -1);
+        Map<Line, Integer> edges = new HashMap<>();
+        for (int e = 0; e < corners.length; e++) {
+            Integer other = edges.remove(new Line(corners[next(e)], corners[e]));
+            if (other != null) {
+                neighbours[e] = other / 3;
+                neighbours[other] = e / 3;
+            } else {
+                edges.put(new Line(corners[e], corners[next(e)]), e);
+            }
+        }
+        return neighbours;
+    }
+
+    /**
+     * Returns the index of a triangle which contains the given point. Points
+     * on an edge count as inside, so if the point lies on an edge between two
+     * triangles one of them is returned.
+     *
+     * @param p
+     * @return index of the triangle or -1 if no triangle contains the point
+     */
+    public int locate(Point p) {
+        return locate(p.x(), p.y());
+    }
+
+    /**
+     * Returns the index of a triangle which contains the point (x/y).
+     *
+     * @param x
+     * @param y
+     * @return index of the triangle or -1 if no triangle contains the point
+     * @see #locate(Point)
+     */
+    public int locate(double x, double y) {
+        if (x < minX || x > maxX || y < minY || y > maxY) {
+            return -1;
+        }
+        int cell = grid.cell(x, y);
+        for (int i = cellOffsets[cell]; i < cellOffsets[cell + 1]; i++) {
+            if (triangles[cellTriangles[i]].isPointInTriangle(x, y)) {
+                return cellTriangles[i];
+            }
+        }
+        return cellSeeds[cell] < 0 ? -1 : walk(cellSeeds[cell], cell, x, y);
+    }
+
+    /**
+     * Walks from a point of the seed triangle in the cell along the line to
+     * the point.
+     * Corners on the line count as left of it, as if the line was moved by an
+     * infinitely small distance, so the line never passes exactly through a
+     * corner and every triangle has exactly one edge where the line leaves
+     * it: the edge from a corner right of the line to a corner left of it.
+     */
+    private int walk(int seed, int cell, double x, double y) {
+        double[] start = startPoint(seed, cell);
+        double qx = start[0];
+        double qy = start[1];
+        int t = seed;
+        //The walk moves forward along the line, so it ends after visiting every
+        //triangle at most once. More steps only happen for invalid input.
+        for (int steps = 0; steps <= triangles.length; steps++) {
+            if (triangles[t].isPointInTriangle(x, y)) {
+                return t;
+            }
+            int exit = -1;
+            for (int e = 3 * t; e < 3 * t + 3 && exit < 0; e++) {
+                if (!isLeft(qx, qy, x, y, e) && isLeft(qx, qy, x, y, next(e))) {
+                    exit = e;
+                }
+            }
+            if (exit < 0) {
+                break;
+            }
+            if (neighbours[exit] >= 0) {
+                t = neighbours[exit];
+                continue;
+            }
+            //The line leaves the triangles, the point is only inside if the
+            //line enters them again before it reaches the point
+            int entry = findEntry(qx, qy, x, y, crossing(qx, qy, x, y, exit));
+            if (entry < 0) {
+                return locateOnBorder(x, y);
+            }
+            t = entry / 3;
+        }
+        return locateLinear(x, y);
+    }
+
+    /**
+     * Returns a point inside the triangle and the cell: the average of the
+     * corners of the triangle clipped at the cell. If the triangle only
+     * touches the cell, its center is returned.
+     */
+    private double[] startPoint(int t, int cell) {
+        double[] xs = new double[7];
+        double[] ys = new double[7];
+        int count = 3;
+        for (int k = 0; k < 3; k++) {
+            xs[k] = cornerX[3 * t + k];
+            ys[k] = cornerY[3 * t + k];
+        }
+        double[] cellBounds = grid.cellBounds(cell);
+        //Clips at the left, right, lower and upper side of the cell
+        double[] bounds = {cellBounds[0], -cellBounds[1], cellBounds[2], -cellBounds[3]};
+        for (int side = 0; side < 4 && count > 0; side++) {
+            double[] clippedX = new double[7];
+            double[] clippedY = new double[7];
+            int clippedCount = 0;
+            for (int i = 0; i < count; i++) {
+                int j = (i + 1) % count;
+                double di = side(xs[i], ys[i], side, bounds[side]);
+                double dj = side(xs[j], ys[j], side, bounds[side]);
+                if (di >= 0) {
+                    clippedX[clippedCount] = xs[i];
+                    clippedY[clippedCount++] = ys[i];
+                }
+                if (di >= 0 != dj >= 0 && clippedCount < 7) {
+                    double f = di / (di - dj);
+                    clippedX[clippedCount] = xs[i] + f * (xs[j] - xs[i]);
+                    clippedY[clippedCount++] = ys[i] + f * (ys[j] - ys[i]);
+                }
+            }
+            xs = clippedX;
+            ys = clippedY;
+            count = clippedCount;
+        }
+        double sumX = 0;
+        double sumY = 0;
+        for (int i = 0; i < count; i++) {
+            sumX += xs[i];
+            sumY += ys[i];
+        }
+        if (count >= 3 && triangles[t].isPointInTriangle(sumX / count, sumY / count)) {
+            return new double[]{sumX / count, sumY / count};
+        }
+        return new double[]{centerX(t), centerY(t)};
+    }
+
+    /**
+     * Returns the distance of the point to the given side of a cell, positive
+     * inside of the cell.
+     */
+    private static double side(double x, double y, int side, double bound) {
+        return switch (side) {
+            case 0 -> x - bound;
+            case 1 -> -x - bound;
+            case 2 -> y - bound;
+            default -> -y - bound;
+        };
+    }
+
+    /**
+     * Returns the first border edge after the given position on the line from
+     * q to p where the line enters the triangles, or -1 if it does not enter
+     * them again before p.
+     */
+    private int findEntry(double qx, double qy, double px, double py, double after) {
+        double ax = qx + after * (px - qx);
+        double ay = qy + after * (py - qy);
+        int best = -1;
+        double bestPosition = Double.MAX_VALUE;
+        int columns = grid.getColumns();
+        int lastRow = grid.lastRow(ay, py);
+        for (int row = grid.firstRow(ay, py); row <= lastRow; row++) {
+            long columnRange = grid.columnRange(ax, ay, px, py, row);
+            int lastColumn = (int) columnRange;
+            for (int column = (int) (columnRange >>> 32); column <= lastColumn; column++) {
+                int cell = row * columns + column;
+                for (int i = edgeOffsets[cell]; i < edgeOffsets[cell + 1]; i++) {
+                    int e = cellEdges[i];
+                    //Entering edges run from the left to the right of the line
+                    if (!isLeft(qx, qy, px, py, e) || isLeft(qx, qy, px, py, next(e))
+                            || GeometryUtil.orientation(cornerX[e], cornerY[e],
+                                    cornerX[next(e)], cornerY[next(e)], px, py) < 0) {
+                        continue;
+                    }
+                    double position = crossing(qx, qy, px, py, e);
+                    if (position >= after - ENTRY_TOLERANCE && position <= 1 && position < bestPosition) {
+                        best = e;
+                        bestPosition = position;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the triangle of a border edge the point lies on, or -1 if there
+     * is none. The moved line can pass a point on the border on the outside,
+     * so the walk misses it.
+     */
+    private int locateOnBorder(double x, double y) {
+        int cell = grid.cell(x, y);
+        for (int i = edgeOffsets[cell]; i < edgeOffsets[cell + 1]; i++) {
+            int e = cellEdges[i];
+            double ux = cornerX[e];
+            double uy = cornerY[e];
+            double vx = cornerX[next(e)];
+            double vy = cornerY[next(e)];
+            if (GeometryUtil.orientation(ux, uy, vx, vy, x, y) == 0
+                    && GeometryUtil.isCollinearPointOnSegment(ux, uy, vx, vy, x, y)) {
+                return e / 3;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the position on the line from q to p where it crosses the line
+     * of the given edge, 0 at q and 1 at p.
+     */
+    private double crossing(double qx, double qy, double px, double py, int e) {
+        double ux = cornerX[e];
+        double uy = cornerY[e];
+        double vx = cornerX[next(e)];
+        double vy = cornerY[next(e)];
+        double dq = (vx - ux) * (qy - uy) - (vy - uy) * (qx - ux);
+        double dp = (vx - ux) * (py - uy) - (vy - uy) * (px - ux);
+        return dq == dp ? 0 : dq / (dq - dp);
+    }
+
+    private boolean isLeft(double qx, double qy, double px, double py, int corner) {
+        return GeometryUtil.orientation(qx, qy, px, py, cornerX[corner], cornerY[corner]) >= 0;
+    }
+
+    /**
+     * Tests all triangles, only used if the walk fails on invalid input.
+     */
+    private int locateLinear(double x, double y) {
+        for (int t = 0; t < triangles.length; t++) {
+            if (triangles[t].isPointInTriangle(x, y)) {
+                return t;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks if at least one triangle contains the given point.
+     *
+     * @param p
+     * @return true, if the point is inside of a triangle or on its edge
+     */
+    public boolean contains(Point p) {
+        return locate(p) >= 0;
+    }
+
+    /**
+     * Returns the number of entries of the grid: one seed per cell, and one
+     * entry per registered triangle or border edge and cell it overlaps.
+     */
+    int getEntryCount() {
+        return cellSeeds.length + cellTriangles.length + cellEdges.length;
+    }
+
+    private static int next(int corner) {
+        return corner % 3 == 2 ? corner - 2 : corner + 1;
+    }
+
+    private double centerX(int t) {
+        return (cornerX[3 * t] + cornerX[3 * t + 1] + cornerX[3 * t + 2]) / 3;
+    }
+
+    private double centerY(int t) {
+        return (cornerY[3 * t] + cornerY[3 * t + 1] + cornerY[3 * t + 2]) / 3;
+    }
+
+    private interface CellVisitor {
+
+        /**
+         * Returns false to stop the visit.
+         */
+        boolean visit(int cell);
+    }
+
+    /**
+     * Calls the visitor for every cell the triangle overlaps. The part of the
+     * triangle in a row is convex, so it covers the columns from the first to
+     * the last column of its edges in that row.
+     *
+     * @return false, if the visitor stopped the visit
+     */
+    private boolean forEachCellOfTriangle(int t, CellVisitor visitor) {
+        double y0 = Math.min(cornerY[3 * t], Math.min(cornerY[3 * t + 1], cornerY[3 * t + 2]));
+        double y1 = Math.max(cornerY[3 * t], Math.max(cornerY[3 * t + 1], cornerY[3 * t + 2]));
+        int columns = grid.getColumns();
+        int lastRow = grid.lastRow(y0, y1);
+        for (int row = grid.firstRow(y0, y1); row <= lastRow; row++) {
+            int firstColumn = columns;
+            int lastColumn = -1;
+            for (int e = 3 * t; e < 3 * t + 3; e++) {
+                double ay = cornerY[e];
+                double by = cornerY[next(e)];
+                if (grid.overlapsRow(ay, by, row)) {
+                    long columnRange = grid.columnRange(cornerX[e], ay, cornerX[next(e)], by, row);
+                    firstColumn = Math.min(firstColumn, (int) (columnRange >>> 32));
+                    lastColumn = Math.max(lastColumn, (int) columnRange);
+                }
+            }
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                if (!visitor.visit(row * columns + column)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calls the consumer for every cell the given edge passes through.
+     */
+    private void forEachCellOfEdge(int e, GridLayout.CellConsumer consumer) {
+        grid.forEachCell(cornerX[e], cornerY[e], cornerX[next(e)], cornerY[next(e)], consumer);
+    }
+}
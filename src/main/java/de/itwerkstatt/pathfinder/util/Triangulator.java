@@ -0,0 +1,778 @@
+package de.itwerkstatt.pathfinder.util;
+
+import de.itwerkstatt.pathfinder.entities.Area;
+import de.itwerkstatt.pathfinder.entities.Point;
+import de.itwerkstatt.pathfinder.entities.Triangle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Splits simple polygons into triangles.<br>
+ * Convex polygons are split into a fan of triangles around the first point.
+ * Concave polygons are first split into y-monotone pieces by a sweep line
+ * (O(n log n)), then every piece is triangulated in linear time. If this fails
+ * for a degenerated polygon, ear clipping (O(n²)) is used as fallback.<br>
+ * Polygons can contain holes. The sweep line handles them directly, for ear
+ * clipping every hole is connected to the outline by a bridge first.
+ *
+ * @author dsust
+ */
+public final class Triangulator {
+
+    private Triangulator() {
+    }
+
+    /**
+     * Triangulates the given simple polygon. The points can be in clockwise
+     * or counterclockwise order.
+     *
+     * @param points
+     * @return the triangles, which cover in sum the complete polygon
+     * @throws IllegalArgumentException if less than three points were passed
+     * or the polygon is not simple and cannot be triangulated
+     */
+    public static Triangle[] triangulate(Point... points) {
+        if (points.length < 3) {
+            throw new IllegalArgumentException("Polygon must be defined by at least three points.");
+        }
+        if (isConvex(points)) {
+            return triangulateFan(points);
+        }
+        Triangle[] triangles = triangulateMonotone(points);
+        if (triangles != null && coversPolygon(triangles, points, new Point[0][])) {
+            return triangles;
+        }
+        //Degenerated polygon, use the fallback
+        return triangulateEarClipping(points);
+    }
+
+    /**
+     * Triangulates the given area including its holes.
+     *
+     * @param area
+     * @return the triangles, which cover in sum the area without the holes
+     * @throws IllegalArgumentException if the area cannot be triangulated
+     */
+    public static Triangle[] triangulate(Area area) {
+        if (area.holes().length == 0) {
+            return triangulate(area.points());
+        }
+        Point[][] holes = Stream.of(area.holes()).map(Area::points).toArray(Point[][]::new);
+        Triangle[] triangles = triangulateMonotone(area.points(), holes);
+        if (triangles != null && coversPolygon(triangles, area.points(), holes)) {
+            return triangles;
+        }
+        //Degenerated polygon, use the fallback
+        return triangulateEarClipping(area.points(), holes);
+    }
+
+    /**
+     * Splits the polygon into triangles around its first point. This is only
+     * correct for convex polygons.
+     *
+     * @param points
+     * @return the triangles
+     */
+    public static Triangle[] triangulateFan(Point... points) {
+        Triangle[] triangles = new Triangle[points.length - 2];
+        Point p1 = points[0];
+        for (int i = 2; i < points.length; i++) {
+            triangles[i - 2] = new Triangle(p1, points[i - 1], points[i]);
+        }
+        return triangles;
+    }
+
+    /**
+     * Checks if all points of the polygon turn in the same direction.
+     *
+     * @param points
+     * @return true, if the polygon is convex
+     */
+    public static boolean isConvex(Point... points) {
+        boolean hasLeftTurn = false;
+        boolean hasRightTurn = false;
+        int n = points.length;
+        for (int i = 0; i < n; i++) {
+            Point p = points[(i + n - 1) % n];
+            Point v = points[i];
+            Point q = points[(i + 1) % n];
+            double o = GeometryUtil.orientation(p.x(), p.y(), v.x(), v.y(), q.x(), q.y());
+            hasLeftTurn |= o > 0;
+            hasRightTurn |= o < 0;
+        }
+        return !(hasLeftTurn && hasRightTurn);
+    }
+
+    /**
+     * Calculates twice the signed area of the polygon. The value is positive
+     * if the points are in counterclockwise order.
+     *
+     * @param points
+     * @return twice the signed area
+     */
+    public static double signedDoubleArea(Point... points) {
+        double doubleArea = 0;
+        for (int i = 0; i < points.length; i++) {
+            Point p1 = points[i];
+            Point p2 = points[(i + 1) % points.length];
+            doubleArea += p1.x() * p2.y() - p2.x() * p1.y();
+        }
+        return doubleArea;
+    }
+
+    /**
+     * Returns the points in counterclockwise order.
+     *
+     * @param points
+     * @return the points, reversed if they were in clockwise order
+     */
+    public static Point[] counterclockwise(Point... points) {
+        if (signedDoubleArea(points) >= 0) {
+            return points.clone();
+        }
+        Point[] ring = new Point[points.length];
+        for (int i = 0; i < points.length; i++) {
+            ring[i] = points[points.length - 1 - i];
+        }
+        return ring;
+    }
+
+    /**
+     * Returns the points in clockwise order.
+     *
+     * @param points
+     * @return the points, reversed if they were in counterclockwise order
+     */
+    public static Point[] clockwise(Point... points) {
+        Point[] ring = counterclockwise(points);
+        for (int i = 0; i < ring.length / 2; i++) {
+            Point tmp = ring[i];
+            ring[i] = ring[ring.length - 1 - i];
+            ring[ring.length - 1 - i] = tmp;
+        }
+        return ring;
+    }
+
+    /**
+     * Splits the polygon into y-monotone pieces and triangulates them.
+     *
+     * @param outline
+     * @param holes
+     * @return the triangles, or null if the polygon is too degenerated to be
+     * split into monotone pieces
+     */
+    public static Triangle[] triangulateMonotone(Point[] outline, Point[]... holes) {
+        Polygon polygon = new Polygon(outline, holes);
+        List<Triangle> triangles = new ArrayList<>();
+        try {
+            List<int[]> diagonals = new MonotonePartition(polygon).calculateDiagonals();
+            for (int[] piece : splitIntoPieces(polygon, diagonals)) {
+                triangulateMonotonePiece(polygon, piece, triangles);
+            }
+        } catch (DegeneratePolygonException e) {
+            return null;
+        }
+        return triangles.toArray(Triangle[]::new);
+    }
+
+    /**
+     * Thrown by the monotone partition if the sweep line finds no consistent
+     * status, e.g. for overlapping or collinear edges.
+     */
+    private static final class DegeneratePolygonException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        DegeneratePolygonException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    /**
+     * Vertices of the polygon with the indices of their neighbours. The
+     * outline is in counterclockwise and the holes are in clockwise order, so
+     * the interior always lies left of the edges.
+     */
+    private static final class Polygon {
+
+        final Point[] points;
+        final double[] x;
+        final double[] y;
+        final int[] next;
+        final int[] prev;
+        //Index of the first vertex of every ring, the outline is ring 0
+        final int[] ringStart;
+
+        Polygon(Point[] outline, Point[]... holes) {
+            Point[][] rings = new Point[holes.length + 1][];
+            rings[0] = counterclockwise(outline);
+            for (int h = 0; h < holes.length; h++) {
+                rings[h + 1] = clockwise(holes[h]);
+            }
+            int n = Stream.of(rings).mapToInt(r -> r.length).sum();
+            this.points = new Point[n];
+            this.x = new double[n];
+            this.y = new double[n];
+            this.next = new int[n];
+            this.prev = new int[n];
+            this.ringStart = new int[rings.length];
+            int offset = 0;
+            for (int r = 0; r < rings.length; r++) {
+                ringStart[r] = offset;
+                int length = rings[r].length;
+                for (int i = 0; i < length; i++) {
+                    points[offset + i] = rings[r][i];
+                    x[offset + i] = rings[r][i].x();
+                    y[offset + i] = rings[r][i].y();
+                    next[offset + i] = offset + (i + 1) % length;
+                    prev[offset + i] = offset + (i + length - 1) % length;
+                }
+                offset += length;
+            }
+        }
+
+        int size() {
+            return points.length;
+        }
+
+        /**
+         * Sweep order: higher y first, for the same y smaller x first.
+         */
+        boolean isAbove(int a, int b) {
+            return y[a] > y[b] || y[a] == y[b] && x[a] < x[b];
+        }
+
+        /**
+         * Interior angle of the vertex is less than 180 degrees.
+         */
+        boolean isConvex(int v) {
+            return GeometryUtil.orientation(x[prev[v]], y[prev[v]], x[v], y[v], x[next[v]], y[next[v]]) > 0;
+        }
+    }
+
+    /**
+     * Sweep line algorithm which calculates the diagonals that split the
+     * polygon into y-monotone pieces. The edge i leads from vertex i to its next
+     * vertex. Only edges with the interior of the polygon on their right side
+     * are kept in the status, ordered by their x value at the sweep line.
+     */
+    private static final class MonotonePartition {
+
+        private static final int PROBE = -1;
+
+        private final Polygon polygon;
+        private final int[] helper;
+        private final boolean[] isMerge;
+        private final TreeSet<Integer> status;
+        private final List<int[]> diagonals = new ArrayList<>();
+        private double sweepX;
+        private double sweepY;
+
+        MonotonePartition(Polygon polygon) {
+            this.polygon = polygon;
+            this.helper = new int[polygon.size()];
+            this.isMerge = new boolean[polygon.size()];
+            this.status = new TreeSet<>(this::compareEdges);
+        }
+
+        List<int[]> calculateDiagonals() {
+            Integer[] order = new Integer[polygon.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> a.equals(b) ? 0 : polygon.isAbove(a, b) ? -1 : 1);
+            for (int v : order) {
+                sweepX = polygon.x[v];
+                sweepY = polygon.y[v];
+                int prev = polygon.prev[v];
+                int next = polygon.next[v];
+                boolean prevBelow = polygon.isAbove(v, prev);
+                boolean nextBelow = polygon.isAbove(v, next);
+                if (prevBelow && nextBelow) {
+                    if (polygon.isConvex(v)) {
+                        handleStartVertex(v);
+                    } else {
+                        handleSplitVertex(v);
+                    }
+                } else if (!prevBelow && !nextBelow) {
+                    if (polygon.isConvex(v)) {
+                        handleEndVertex(v);
+                    } else {
+                        isMerge[v] = true;
+                        handleMergeVertex(v);
+                    }
+                } else {
+                    handleRegularVertex(v, !prevBelow);
+                }
+            }
+            return diagonals;
+        }
+
+        private void handleStartVertex(int v) {
+            status.add(v);
+            helper[v] = v;
+        }
+
+        private void handleEndVertex(int v) {
+            int e = polygon.prev[v];
+            if (isMerge[helper[e]]) {
+                diagonals.add(new int[]{v, helper[e]});
+            }
+            status.remove(e);
+        }
+
+        private void handleSplitVertex(int v) {
+            int left = findLeftEdge(v);
+            diagonals.add(new int[]{v, helper[left]});
+            helper[left] = v;
+            status.add(v);
+            helper[v] = v;
+        }
+
+        private void handleMergeVertex(int v) {
+            handleEndVertex(v);
+            connectToLeftEdge(v);
+        }
+
+        private void handleRegularVertex(int v, boolean interiorRight) {
+            if (interiorRight) {
+                handleEndVertex(v);
+                status.add(v);
+                helper[v] = v;
+            } else {
+                connectToLeftEdge(v);
+            }
+        }
+
+        private void connectToLeftEdge(int v) {
+            int left = findLeftEdge(v);
+            if (isMerge[helper[left]]) {
+                diagonals.add(new int[]{v, helper[left]});
+            }
+            helper[left] = v;
+        }
+
+        private int findLeftEdge(int v) {
+            Integer left = status.floor(PROBE);
+            if (left == null) {
+                throw new DegeneratePolygonException("No edge left of vertex " + v);
+            }
+            return left;
+        }
+
+        /**
+         * x value of the edge at the sweep line. Horizontal edges are only in
+         * the status while the sweep line is on them, they are treated as if
+         * they were at the current event point.
+         */
+        private double xAtSweepLine(int e) {
+            if (e == PROBE) {
+                return sweepX;
+            }
+            double x1 = polygon.x[e];
+            double y1 = polygon.y[e];
+            double x2 = polygon.x[polygon.next[e]];
+            double y2 = polygon.y[polygon.next[e]];
+            if (y1 == y2) {
+                return Math.max(Math.min(sweepX, Math.max(x1, x2)), Math.min(x1, x2));
+            }
+            return x1 + (sweepY - y1) * (x2 - x1) / (y2 - y1);
+        }
+
+        private int compareEdges(Integer a, Integer b) {
+            if (a.equals(b)) {
+                return 0;
+            }
+            int result = Double.compare(xAtSweepLine(a), xAtSweepLine(b));
+            if (result != 0) {
+                return result;
+            }
+            //The probe lies right of all edges through the same point
+            if (a == PROBE) {
+                return 1;
+            }
+            if (b == PROBE) {
+                return -1;
+            }
+            return Integer.compare(a, b);
+        }
+    }
+
+    /**
+     * Splits the polygon along the diagonals and returns the vertices of every
+     * piece in counterclockwise order.
+     */
+    private static List<int[]> splitIntoPieces(Polygon polygon, List<int[]> diagonals) {
+        int n = polygon.size();
+        //Outgoing half edges of every vertex: polygon edge and both directions of every diagonal
+        List<List<Integer>> outgoing = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            List<Integer> targets = new ArrayList<>();
+            targets.add(polygon.next[v]);
+            outgoing.add(targets);
+        }
+        for (int[] d : diagonals) {
+            outgoing.get(d[0]).add(d[1]);
+            outgoing.get(d[1]).add(d[0]);
+        }
+        //Reverse polygon edges are also needed to find the next half edge by angle
+        int[][] sorted = new int[n][];
+        for (int v = 0; v < n; v++) {
+            List<Integer> neighbours = new ArrayList<>(outgoing.get(v));
+            neighbours.add(polygon.prev[v]);
+            int vertex = v;
+            sorted[v] = neighbours.stream()
+                    .sorted((a, b) -> Double.compare(
+                    Math.atan2(polygon.y[a] - polygon.y[vertex], polygon.x[a] - polygon.x[vertex]),
+                    Math.atan2(polygon.y[b] - polygon.y[vertex], polygon.x[b] - polygon.x[vertex])))
+                    .mapToInt(Integer::intValue).toArray();
+        }
+        List<int[]> pieces = new ArrayList<>();
+        boolean[][] used = new boolean[n][];
+        for (int v = 0; v < n; v++) {
+            used[v] = new boolean[outgoing.get(v).size()];
+        }
+        for (int v = 0; v < n; v++) {
+            for (int i = 0; i < outgoing.get(v).size(); i++) {
+                if (used[v][i]) {
+                    continue;
+                }
+                List<Integer> piece = new ArrayList<>();
+                int from = v;
+                int to = outgoing.get(v).get(i);
+                used[v][i] = true;
+                piece.add(from);
+                while (to != v) {
+                    piece.add(to);
+                    //Next half edge: the neighbour before "from" in counterclockwise order
+                    int[] around = sorted[to];
+                    int index = indexOf(around, from);
+                    int nextVertex = around[(index + around.length - 1) % around.length];
+                    int outgoingIndex = outgoing.get(to).indexOf(nextVertex);
+                    if (outgoingIndex < 0 || used[to][outgoingIndex]) {
+                        throw new DegeneratePolygonException("Invalid monotone partition");
+                    }
+                    used[to][outgoingIndex] = true;
+                    from = to;
+                    to = nextVertex;
+                }
+                pieces.add(piece.stream().mapToInt(Integer::intValue).toArray());
+            }
+        }
+        return pieces;
+    }
+
+    private static int indexOf(int[] array, int value) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == value) {
+                return i;
+            }
+        }
+        throw new DegeneratePolygonException("Vertex " + value + " is no neighbour");
+    }
+
+    /**
+     * Triangulates a y-monotone piece with the stack algorithm.
+     *
+     * @param polygon
+     * @param piece indices of the vertices in counterclockwise order
+     * @param triangles the triangles are added to this list
+     */
+    private static void triangulateMonotonePiece(Polygon polygon, int[] piece, List<Triangle> triangles) {
+        int n = piece.length;
+        if (n < 3) {
+            throw new DegeneratePolygonException("Piece with " + n + " vertices");
+        }
+        if (n == 3) {
+            addTriangle(polygon, piece[0], piece[1], piece[2], triangles);
+            return;
+        }
+        //Find top and bottom vertex
+        int top = 0;
+        int bottom = 0;
+        for (int i = 1; i < n; i++) {
+            if (polygon.isAbove(piece[i], piece[top])) {
+                top = i;
+            }
+            if (polygon.isAbove(piece[bottom], piece[i])) {
+                bottom = i;
+            }
+        }
+        //Going counterclockwise from the top leads down the left chain
+        boolean[] isLeftChain = new boolean[n];
+        for (int i = top; i != bottom; i = (i + 1) % n) {
+            isLeftChain[i] = true;
+        }
+        //Merge both chains from top to bottom
+        int[] sorted = new int[n];
+        int left = top;
+        int right = (top + n - 1) % n;
+        sorted[0] = top;
+        for (int k = 1; k < n; k++) {
+            int nextLeft = (left + 1) % n;
+            if (right == bottom || nextLeft != bottom && polygon.isAbove(piece[nextLeft], piece[right])) {
+                sorted[k] = nextLeft;
+                left = nextLeft;
+            } else if (right != bottom || nextLeft == bottom) {
+                sorted[k] = right;
+                if (right == bottom) {
+                    left = nextLeft;
+                }
+                right = (right + n - 1) % n;
+            }
+        }
+
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(sorted[0]);
+        stack.push(sorted[1]);
+        for (int k = 2; k < n - 1; k++) {
+            int u = sorted[k];
+            if (isLeftChain[u] != isLeftChain[stack.peek()]) {
+                //Other chain: connect with all vertices on the stack
+                int previous = stack.pop();
+                int last = previous;
+                while (!stack.isEmpty()) {
+                    int s = stack.pop();
+                    addTriangle(polygon, piece[u], piece[last], piece[s], triangles);
+                    last = s;
+                }
+                stack.push(previous);
+                stack.push(u);
+            } else {
+                //Same chain: connect as long as the diagonals are inside
+                int last = stack.pop();
+                while (!stack.isEmpty() && isConvexCorner(polygon, piece, isLeftChain[u], stack.peek(), last, u)) {
+                    int s = stack.pop();
+                    addTriangle(polygon, piece[u], piece[last], piece[s], triangles);
+                    last = s;
+                }
+                stack.push(last);
+                stack.push(u);
+            }
+        }
+        int u = sorted[n - 1];
+        int last = stack.pop();
+        while (!stack.isEmpty()) {
+            int s = stack.pop();
+            addTriangle(polygon, piece[u], piece[last], piece[s], triangles);
+            last = s;
+        }
+    }
+
+    /**
+     * Checks if the chain vertex "middle" between "upper" and "lower" has an
+     * interior angle of less than 180 degrees.
+     */
+    private static boolean isConvexCorner(Polygon polygon, int[] piece, boolean leftChain, int upper, int middle, int lower) {
+        int a = piece[upper];
+        int b = piece[middle];
+        int c = piece[lower];
+        double o = GeometryUtil.orientation(polygon.x[a], polygon.y[a], polygon.x[b], polygon.y[b], polygon.x[c], polygon.y[c]);
+        //Left chain is walked downwards, right chain upwards in counterclockwise order
+        return leftChain ? o > 0 : o < 0;
+    }
+
+    private static void addTriangle(Polygon polygon, int a, int b, int c, List<Triangle> triangles) {
+        if (GeometryUtil.orientation(polygon.x[a], polygon.y[a], polygon.x[b], polygon.y[b], polygon.x[c], polygon.y[c]) != 0) {
+            triangles.add(new Triangle(polygon.points[a], polygon.points[b], polygon.points[c]));
+        }
+    }
+
+    /**
+     * Triangulates the polygon by cutting off ears: convex vertices whose
+     * triangle with their neighbours contains no other vertex. Holes are
+     * connected to the outline by bridges first, so the polygon becomes one
+     * ring. Vertices on a straight line with their neighbours are removed
+     * without a triangle.
+     *
+     * @param outline
+     * @param holes
+     * @return the triangles
+     * @throws IllegalArgumentException if the polygon cannot be triangulated
+     * because its edges cross each other
+     */
+    public static Triangle[] triangulateEarClipping(Point[] outline, Point[]... holes) {
+        Polygon polygon = new Polygon(outline, holes);
+        int[] ring = bridgeHoles(polygon);
+        //Linked list over the positions of the ring
+        int[] next = new int[ring.length];
+        int[] prev = new int[ring.length];
+        for (int i = 0; i < ring.length; i++) {
+            next[i] = (i + 1) % ring.length;
+            prev[i] = (i + ring.length - 1) % ring.length;
+        }
+        List<Triangle> triangles = new ArrayList<>();
+        int remaining = ring.length;
+        int v = 0;
+        int checkedWithoutEar = 0;
+        while (remaining > 3) {
+            int p = prev[v];
+            int n = next[v];
+            if (checkedWithoutEar > remaining) {
+                throw new IllegalArgumentException("Polygon has no ear, its edges cross each other.");
+            }
+            if (isEar(polygon, ring, next, p, v, n) || isStraight(polygon, ring[p], ring[v], ring[n])) {
+                addTriangle(polygon, ring[p], ring[v], ring[n], triangles);
+                next[p] = n;
+                prev[n] = p;
+                remaining--;
+                checkedWithoutEar = 0;
+            } else {
+                checkedWithoutEar++;
+            }
+            v = n;
+        }
+        addTriangle(polygon, ring[prev[v]], ring[v], ring[next[v]], triangles);
+        Triangle[] result = triangles.toArray(Triangle[]::new);
+        if (!coversPolygon(result, outline, holes)) {
+            throw new IllegalArgumentException("Polygon cannot be triangulated, its edges cross each other.");
+        }
+        return result;
+    }
+
+    /**
+     * Checks if the vertex b lies on a line with its neighbours, so it can be
+     * removed without changing the area of the polygon.
+     */
+    private static boolean isStraight(Polygon polygon, int a, int b, int c) {
+        return GeometryUtil.orientation(polygon.x[a], polygon.y[a], polygon.x[b], polygon.y[b], polygon.x[c], polygon.y[c]) == 0;
+    }
+
+    private static boolean isEar(Polygon polygon, int[] ring, int[] next, int p, int v, int n) {
+        double[] x = polygon.x;
+        double[] y = polygon.y;
+        int a = ring[p];
+        int b = ring[v];
+        int c = ring[n];
+        if (GeometryUtil.orientation(x[a], y[a], x[b], y[b], x[c], y[c]) <= 0) {
+            return false;
+        }
+        for (int k = next[n]; k != p; k = next[k]) {
+            int i = ring[k];
+            //Vertices on the border of the ear also block it, unless they are duplicates
+            if (GeometryUtil.orientation(x[a], y[a], x[b], y[b], x[i], y[i]) >= 0
+                    && GeometryUtil.orientation(x[b], y[b], x[c], y[c], x[i], y[i]) >= 0
+                    && GeometryUtil.orientation(x[c], y[c], x[a], y[a], x[i], y[i]) >= 0
+                    && !polygon.points[i].equals(polygon.points[a]) && !polygon.points[i].equals(polygon.points[b])
+                    && !polygon.points[i].equals(polygon.points[c])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Connects every hole with the outline and returns the vertices of the
+     * resulting ring. The holes are processed from right to left: the
+     * rightmost vertex of a hole is connected to the nearest vertex of the
+     * ring it can see, the bridge is passed in both directions.
+     */
+    private static int[] bridgeHoles(Polygon polygon) {
+        List<Integer> ring = new ArrayList<>();
+        int outlineEnd = polygon.ringStart.length > 1 ? polygon.ringStart[1] : polygon.size();
+        for (int v = 0; v < outlineEnd; v++) {
+            ring.add(v);
+        }
+        Integer[] holes = new Integer[polygon.ringStart.length - 1];
+        int[] rightmost = new int[polygon.ringStart.length];
+        for (int r = 1; r < polygon.ringStart.length; r++) {
+            holes[r - 1] = r;
+            int end = r + 1 < polygon.ringStart.length ? polygon.ringStart[r + 1] : polygon.size();
+            rightmost[r] = polygon.ringStart[r];
+            for (int v = polygon.ringStart[r]; v < end; v++) {
+                if (polygon.x[v] > polygon.x[rightmost[r]]) {
+                    rightmost[r] = v;
+                }
+            }
+        }
+        Arrays.sort(holes, (a, b) -> Double.compare(polygon.x[rightmost[b]], polygon.x[rightmost[a]]));
+        boolean[] bridged = new boolean[polygon.ringStart.length];
+        for (int hole : holes) {
+            int m = rightmost[hole];
+            int bestPosition = -1;
+            double bestDistance = Double.MAX_VALUE;
+            for (int position = 0; position < ring.size(); position++) {
+                int v = ring.get(position);
+                double distance = Math.hypot(polygon.x[v] - polygon.x[m], polygon.y[v] - polygon.y[m]);
+                if (distance < bestDistance && isBridge(polygon, ring, position, m, bridged)) {
+                    bestDistance = distance;
+                    bestPosition = position;
+                }
+            }
+            if (bestPosition < 0) {
+                throw new IllegalArgumentException("No bridge found for hole " + hole);
+            }
+            //Ring: ..., v, m, hole vertices, m, v, ...
+            List<Integer> inserted = new ArrayList<>();
+            int v = m;
+            do {
+                inserted.add(v);
+                v = polygon.next[v];
+            } while (v != m);
+            inserted.add(m);
+            inserted.add(ring.get(bestPosition));
+            ring.addAll(bestPosition + 1, inserted);
+            bridged[hole] = true;
+        }
+        return ring.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Checks if the segment between the vertex at the given position of the
+     * ring and the hole vertex m leaves both vertices into the interior and
+     * crosses no edge.
+     */
+    private static boolean isBridge(Polygon polygon, List<Integer> ring, int position, int m, boolean[] bridged) {
+        double[] x = polygon.x;
+        double[] y = polygon.y;
+        int v = ring.get(position);
+        int p = ring.get((position + ring.size() - 1) % ring.size());
+        int n = ring.get((position + 1) % ring.size());
+        if (!GeometryUtil.isInVertexCone(x[p], y[p], x[v], y[v], x[n], y[n], x[m], y[m])
+                || !GeometryUtil.isInVertexCone(x[polygon.prev[m]], y[polygon.prev[m]], x[m], y[m],
+                        x[polygon.next[m]], y[polygon.next[m]], x[v], y[v])) {
+            return false;
+        }
+        //Edges of the ring and of all holes which are not bridged yet
+        for (int i = 0; i < ring.size(); i++) {
+            int a = ring.get(i);
+            int b = ring.get((i + 1) % ring.size());
+            if (GeometryUtil.isProperCrossing(x[v], y[v], x[m], y[m], x[a], y[a], x[b], y[b])) {
+                return false;
+            }
+        }
+        for (int r = 1; r < polygon.ringStart.length; r++) {
+            if (bridged[r]) {
+                continue;
+            }
+            int end = r + 1 < polygon.ringStart.length ? polygon.ringStart[r + 1] : polygon.size();
+            for (int a = polygon.ringStart[r]; a < end; a++) {
+                int b = polygon.next[a];
+                if (GeometryUtil.isProperCrossing(x[v], y[v], x[m], y[m], x[a], y[a], x[b], y[b])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the triangles have in sum the same area as the polygon.
+     */
+    private static boolean coversPolygon(Triangle[] triangles, Point[] points, Point[][] holes) {
+        double polygonArea = Math.abs(signedDoubleArea(points)) / 2;
+        for (Point[] hole : holes) {
+            polygonArea -= Math.abs(signedDoubleArea(hole)) / 2;
+        }
+        double triangleArea = 0;
+        for (Triangle t : triangles) {
+            triangleArea += Math.abs(t.calculateArea());
+        }
+        return Math.abs(polygonArea - triangleArea) <= 1e-9 * Math.max(1, polygonArea);
+    }
+}
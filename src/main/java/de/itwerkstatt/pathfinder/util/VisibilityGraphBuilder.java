@@ -0,0 +1,371 @@
+package de.itwerkstatt.pathfinder.util;
+
+import de.itwerkstatt.pathfinder.entities.Point;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+/**
+ * Calculates the visibility graph of a set of nodes with Lee's rotational
+ * sweep.<br>
+ * The free space is given by closed rings (the outline and the holes of an
+ * area) with the interior left of every edge. For every node a ray is rotated
+ * once around it. All edges the ray currently hits are kept in a balanced tree,
+ * ordered by their distance along the ray. When the ray reaches a vertex, only
+ * the nearest edges have to be checked to decide whether the vertex is
+ * visible. This needs O(n log n) per node instead of O(n²) for testing every
+ * other node against every edge.<br>
+ * The result is the same as with the exact check of {@link EdgeGrid}: a
+ * segment is visible if it does not cross an edge and does not leave the free
+ * space at a vertex it touches. Segments along an edge count as visible.<br>
+ * If all coordinates are integral, the predicates are calculated with exact
+ * integer arithmetic, see {@link IntGeometryUtil}.
+ *
+ * @author dsust
+ */
+public final class VisibilityGraphBuilder {
+
+    private final double[] x;
+    private final double[] y;
+    //The edge i leads from vertex i to vertex next[i]
+    private final int[] next;
+    private final int[] prev;
+    //Integer coordinates (x and y of every vertex), null if not all are integral
+    private final int[] packed;
+    private final Map<Point, Integer> vertexIndices = new HashMap<>();
+
+    /**
+     * Creates the builder for the given rings. The interior has to lie left of
+     * every edge, so the outline has to be in counterclockwise and the holes
+     * in clockwise order.
+     *
+     * @param rings
+     */
+    public VisibilityGraphBuilder(Point[]... rings) {
+        int n = 0;
+        for (Point[] ring : rings) {
+            n += ring.length;
+        }
+        this.x = new double[n];
+        this.y = new double[n];
+        this.next = new int[n];
+        this.prev = new int[n];
+        int offset = 0;
+        for (Point[] ring : rings) {
+            for (int i = 0; i < ring.length; i++) {
+                x[offset + i] = ring[i].x();
+                y[offset + i] = ring[i].y();
+                next[offset + i] = offset + (i + 1) % ring.length;
+                prev[offset + i] = offset + (i + ring.length - 1) % ring.length;
+                vertexIndices.put(ring[i], offset + i);
+            }
+            offset += ring.length;
+        }
+        boolean integral = true;
+        for (Point[] ring : rings) {
+            integral &= IntGeometryUtil.isIntegral(ring);
+        }
+        this.packed = integral ? new int[n * 2] : null;
+        if (integral) {
+            for (int i = 0; i < n; i++) {
+                packed[i * 2] = (int) x[i];
+                packed[i * 2 + 1] = (int) y[i];
+            }
+        }
+    }
+
+    /**
+     * Sign of the orientation of the vertices a, b and c.
+     */
+    private int orientation(int a, int b, int c) {
+        if (packed != null) {
+            return Long.signum(IntGeometryUtil.orientation(packed[a * 2], packed[a * 2 + 1],
+                    packed[b * 2], packed[b * 2 + 1], packed[c * 2], packed[c * 2 + 1]));
+        }
+        return (int) Math.signum(GeometryUtil.orientation(x[a], y[a], x[b], y[b], x[c], y[c]));
+    }
+
+    /**
+     * Checks if the segments between the vertices a, b and c, d cross.
+     */
+    private boolean isProperCrossing(int a, int b, int c, int d) {
+        if (packed != null) {
+            return IntGeometryUtil.isProperCrossing(packed[a * 2], packed[a * 2 + 1], packed[b * 2], packed[b * 2 + 1],
+                    packed[c * 2], packed[c * 2 + 1], packed[d * 2], packed[d * 2 + 1]);
+        }
+        return GeometryUtil.isProperCrossing(x[a], y[a], x[b], y[b], x[c], y[c], x[d], y[d]);
+    }
+
+    /**
+     * Calculates the visibility graph of the given nodes. Every node has to be
+     * a vertex of the rings. The index of a node in the graph is its index in
+     * the given array, the weight of an edge is the distance of its nodes.
+     *
+     * @param nodes
+     * @return the visibility graph
+     * @throws IllegalArgumentException if a node is no vertex of the rings
+     */
+    public CsrGraph build(Point... nodes) {
+        int[] nodeOfVertex = new int[x.length];
+        Arrays.fill(nodeOfVertex, -1);
+        int[] vertexOfNode = new int[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            Integer vertex = vertexIndices.get(nodes[i]);
+            if (vertex == null) {
+                throw new IllegalArgumentException(nodes[i] + " is no vertex of the rings");
+            }
+            vertexOfNode[i] = vertex;
+            nodeOfVertex[vertex] = i;
+        }
+        int edgeCount = 0;
+        int[] from = new int[16];
+        int[] to = new int[16];
+        double[] weights = new double[16];
+        for (int i = 0; i < nodes.length; i++) {
+            for (int w : new Sweep(vertexOfNode[i], nodeOfVertex).visibleVertices()) {
+                int j = nodeOfVertex[w];
+                //Every pair only once
+                if (j > i) {
+                    if (edgeCount == from.length) {
+                        from = Arrays.copyOf(from, edgeCount * 2);
+                        to = Arrays.copyOf(to, edgeCount * 2);
+                        weights = Arrays.copyOf(weights, edgeCount * 2);
+                    }
+                    from[edgeCount] = i;
+                    to[edgeCount] = j;
+                    weights[edgeCount] = Math.hypot(x[w] - x[vertexOfNode[i]], y[w] - y[vertexOfNode[i]]);
+                    edgeCount++;
+                }
+            }
+        }
+        return CsrGraph.undirected(nodes.length, from, to, weights, edgeCount);
+    }
+
+    /**
+     * Finds all nodes which are visible from the given source. The source has
+     * to be a vertex of the rings, but does not have to be a node itself.
+     *
+     * @param source
+     * @param nodes
+     * @return the indices of the visible nodes in the given array
+     * @throws IllegalArgumentException if a point is no vertex of the rings
+     */
+    public int[] findVisibleNodes(Point source, Point... nodes) {
+        Integer vertex = vertexIndices.get(source);
+        if (vertex == null) {
+            throw new IllegalArgumentException(source + " is no vertex of the rings");
+        }
+        int[] nodeOfVertex = new int[x.length];
+        Arrays.fill(nodeOfVertex, -1);
+        for (int i = 0; i < nodes.length; i++) {
+            Integer nodeVertex = vertexIndices.get(nodes[i]);
+            if (nodeVertex == null) {
+                throw new IllegalArgumentException(nodes[i] + " is no vertex of the rings");
+            }
+            nodeOfVertex[nodeVertex] = i;
+        }
+        return IntStream.of(new Sweep(vertex, nodeOfVertex).visibleVertices()).map(w -> nodeOfVertex[w]).toArray();
+    }
+
+    /**
+     * One rotation of the ray around the vertex v.
+     */
+    private final class Sweep {
+
+        private final int v;
+        private final int[] nodeOfVertex;
+        private final TreeSet<Integer> status = new TreeSet<>(this::compareEdges);
+        //Vertices on the current ray up to the current one have the current stamp
+        private final int[] rayStamp = new int[x.length];
+        private int stamp;
+        //Direction of the current ray
+        private double dirX = 1;
+        private double dirY = 0;
+
+        Sweep(int v, int[] nodeOfVertex) {
+            this.v = v;
+            this.nodeOfVertex = nodeOfVertex;
+        }
+
+        int[] visibleVertices() {
+            //Edges which cross the first ray (direction positive x)
+            for (int e = 0; e < x.length; e++) {
+                int b = next[e];
+                if (e == v || b == v) {
+                    continue;
+                }
+                int o = orientation(e, b, v);
+                if (y[e] < y[v] && y[b] > y[v] && o > 0 || y[e] > y[v] && y[b] < y[v] && o < 0) {
+                    status.add(e);
+                }
+            }
+            Integer[] order = sortedByAngle();
+            int[] visible = new int[order.length];
+            int visibleCount = 0;
+            int groupStart = 0;
+            for (int k = 0; k < order.length; k++) {
+                int w = order[k];
+                if (k == 0 || !isSameDirection(order[k - 1], w)) {
+                    stamp++;
+                    groupStart = k;
+                }
+                dirX = x[w] - x[v];
+                dirY = y[w] - y[v];
+                rayStamp[w] = stamp;
+                if (nodeOfVertex[w] >= 0 && isVisible(w, order, groupStart, k)) {
+                    visible[visibleCount++] = w;
+                }
+                //Edges behind the ray are left first, then edges in front of it
+                //are entered. So all edges at w in the status lie on the same
+                //side of the ray, which the order of edges with a common vertex needs.
+                updateStatus(w, prev[w], prev[w], false);
+                updateStatus(w, w, next[w], false);
+                updateStatus(w, prev[w], prev[w], true);
+                updateStatus(w, w, next[w], true);
+            }
+            return Arrays.copyOf(visible, visibleCount);
+        }
+
+        private void updateStatus(int w, int edge, int other, boolean enter) {
+            if (other == v) {
+                return;
+            }
+            int o = orientation(v, w, other);
+            if (o < 0 && !enter) {
+                status.remove(edge);
+            } else if (o > 0 && enter) {
+                status.add(edge);
+            }
+        }
+
+        /**
+         * Checks the vertex w at position k of the order. The vertices from
+         * groupStart to k-1 lie on the segment from v to w.
+         */
+        private boolean isVisible(int w, Integer[] order, int groupStart, int k) {
+            if (!isInCone(v, w) || !isInCone(w, v)) {
+                return false;
+            }
+            //The segment must not leave the free space at the vertices it passes
+            for (int i = groupStart; i < k; i++) {
+                if (!isInCone(order[i], v) || !isInCone(order[i], w)) {
+                    return false;
+                }
+            }
+            //The nearest edge which does not touch the segment in a vertex decides
+            for (int e : status) {
+                if (rayStamp[e] == stamp || rayStamp[next[e]] == stamp) {
+                    continue;
+                }
+                return !isProperCrossing(v, w, e, next[e]);
+            }
+            return true;
+        }
+
+        /**
+         * Checks if the direction from vertex u to vertex t does not leave the
+         * free space at u.
+         */
+        private boolean isInCone(int u, int t) {
+            if (packed != null) {
+                return IntGeometryUtil.isInVertexCone(packed[prev[u] * 2], packed[prev[u] * 2 + 1], packed[u * 2], packed[u * 2 + 1],
+                        packed[next[u] * 2], packed[next[u] * 2 + 1], packed[t * 2], packed[t * 2 + 1]);
+            }
+            return GeometryUtil.isInVertexCone(x[prev[u]], y[prev[u]], x[u], y[u], x[next[u]], y[next[u]], x[t], y[t]);
+        }
+
+        /**
+         * All other vertices ordered counterclockwise by their angle around v,
+         * starting in direction positive x. Vertices in the same direction are
+         * ordered by their distance.
+         */
+        private Integer[] sortedByAngle() {
+            Integer[] order = new Integer[x.length];
+            int count = 0;
+            for (int w = 0; w < x.length; w++) {
+                if (x[w] != x[v] || y[w] != y[v]) {
+                    order[count++] = w;
+                }
+            }
+            order = Arrays.copyOf(order, count);
+            Arrays.sort(order, (a, b) -> {
+                int result = Integer.compare(half(a), half(b));
+                if (result != 0) {
+                    return result;
+                }
+                int o = orientation(v, a, b);
+                if (o != 0) {
+                    return o > 0 ? -1 : 1;
+                }
+                return Double.compare(distanceSquared(a), distanceSquared(b));
+            });
+            return order;
+        }
+
+        private boolean isSameDirection(int a, int b) {
+            return half(a) == half(b) && orientation(v, a, b) == 0;
+        }
+
+        /**
+         * 0 for angles in [0, 180) degrees, 1 for [180, 360).
+         */
+        private int half(int w) {
+            double dx = x[w] - x[v];
+            double dy = y[w] - y[v];
+            return dy > 0 || dy == 0 && dx > 0 ? 0 : 1;
+        }
+
+        private double distanceSquared(int w) {
+            double dx = x[w] - x[v];
+            double dy = y[w] - y[v];
+            return dx * dx + dy * dy;
+        }
+
+        /**
+         * Orders the edges by the distance of their intersection with the
+         * current ray. Edges with a common vertex are ordered by their position
+         * relative to each other, so the order does not depend on rounding.
+         */
+        private int compareEdges(Integer a, Integer b) {
+            if (a.equals(b)) {
+                return 0;
+            }
+            int shared = sharedVertex(a, b);
+            if (shared >= 0) {
+                int otherA = a == shared ? next[a] : a;
+                int otherB = b == shared ? next[b] : b;
+                int sideA = orientation(shared, otherB, otherA);
+                int sideV = orientation(shared, otherB, v);
+                if (sideA != 0 && sideV != 0) {
+                    //a is nearer if it lies on the same side of b as v
+                    return (sideA > 0) == (sideV > 0) ? -1 : 1;
+                }
+            }
+            int result = Double.compare(distanceOnRay(a), distanceOnRay(b));
+            return result != 0 ? result : Integer.compare(a, b);
+        }
+
+        private int sharedVertex(int a, int b) {
+            if (a == next[b]) {
+                return a;
+            }
+            if (next[a] == b) {
+                return b;
+            }
+            return -1;
+        }
+
+        /**
+         * Distance of the intersection of the edge with the current ray, in
+         * units of the length of the direction vector.
+         */
+        private double distanceOnRay(int e) {
+            int b = next[e];
+            double ex = x[b] - x[e];
+            double ey = y[b] - y[e];
+            return ((x[e] - x[v]) * ey - (y[e] - y[v]) * ex) / (dirX * ey - dirY * ex);
+        }
+    }
+}
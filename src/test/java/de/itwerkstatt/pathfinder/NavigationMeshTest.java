@@ -0,0 +1,367 @@
+package de.itwerkstatt.pathfinder;
+
+import de.itwerkstatt.pathfinder.entities.Area;
+import de.itwerkstatt.pathfinder.entities.Point;
+import de.itwerkstatt.pathfinder.entities.Triangle;
+import de.itwerkstatt.pathfinder.util.MapGenerator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author dsust
+ */
+public class NavigationMeshTest {
+
+    // (100,100)    (250,100)          (500,100)
+    //     o------o     o------------------o
+    //     |      |     |     (400,200)    |
+    //     |      |     |    o----o        |
+    //     |   s  |     | e  |    |        |
+    //     |      |     o----o    |        |
+    //     |      |               |        |
+    //     |      o---------------o        |
+    //     |  (200,400)       (400,400)    |
+    //     o-------------------------------o
+    // (100,500)                       (500,500)
+    private static NavigationMesh createMesh() {
+        return createMesh(NavigationMesh.Engine.VISIBILITY_GRAPH);
+    }
+
+    private static NavigationMesh createMesh(NavigationMesh.Engine engine) {
+        return new NavigationMesh(new Area(
+                new Point(100, 100),
+                new Point(200, 100),
+                new Point(200, 400),
+                new Point(400, 400),
+                new Point(400, 200),
+                new Point(350, 200),
+                new Point(350, 350),
+                new Point(250, 350),
+                new Point(250, 100),
+                new Point(500, 100),
+                new Point(500, 500),
+                new Point(100, 500)
+        ), engine,
+                new Triangle(new Point(100, 100), new Point(200, 100), new Point(200, 400)),
+                new Triangle(new Point(100, 100), new Point(200, 400), new Point(100, 500)),
+                new Triangle(new Point(100, 500), new Point(200, 400), new Point(400, 400)),
+                new Triangle(new Point(100, 500), new Point(400, 400), new Point(500, 500)),
+                new Triangle(new Point(500, 500), new Point(400, 400), new Point(400, 200)),
+                new Triangle(new Point(500, 500), new Point(400, 200), new Point(500, 100)),
+                new Triangle(new Point(500, 100), new Point(400, 200), new Point(350, 200)),
+                new Triangle(new Point(500, 100), new Point(350, 200), new Point(250, 100)),
+                new Triangle(new Point(250, 100), new Point(350, 200), new Point(350, 350)),
+                new Triangle(new Point(250, 100), new Point(350, 350), new Point(250, 350))
+        );
+    }
+
+    @Test
+    public void testConcurrentFindPath() {
+        NavigationMesh mesh = createMesh();
+        Point[] expectedPath = new Point[]{
+            new Point(150, 150), new Point(200, 400), new Point(400, 400), new Point(400, 200), new Point(350, 200), new Point(300, 300)
+        };
+        Point[] expectedDirectPath = new Point[]{
+            new Point(150, 150), new Point(150, 450)
+        };
+        List<Point[]> results = IntStream.range(0, 1000).parallel()
+                .mapToObj(i -> i % 2 == 0
+                ? mesh.findPath(new Point(150, 150), new Point(300, 300))
+                : mesh.findPath(new Point(150, 150), new Point(150, 450)))
+                .toList();
+        for (int i = 0; i < results.size(); i++) {
+            assertArrayEquals(i % 2 == 0 ? expectedPath : expectedDirectPath, results.get(i), "Error in query #" + (i + 1));
+        }
+    }
+
+    @Test
+    public void testTriangleCorridorEngine() {
+        NavigationMesh mesh = createMesh(NavigationMesh.Engine.TRIANGLE_CORRIDOR);
+        assertArrayEquals(new Point[]{
+            new Point(150, 150), new Point(200, 400), new Point(400, 400), new Point(400, 200), new Point(350, 200), new Point(300, 300)
+        }, mesh.findPath(new Point(150, 150), new Point(300, 300)));
+        assertArrayEquals(new Point[]{new Point(150, 150), new Point(150, 450)}, mesh.findPath(new Point(150, 150), new Point(150, 450)));
+        assertEquals(0, mesh.findPath(new Point(0, 0), new Point(50, 600)).length);
+
+        //Random star shaped areas: the corridor path can not be shorter than the shortest path
+        Random random = new Random(9);
+        for (int caseNumber = 0; caseNumber < 200; caseNumber++) {
+            Area area = randomStar(random, 10, 500);
+            NavigationMesh visibilityGraph = new NavigationMesh(area);
+            NavigationMesh corridor = new NavigationMesh(area, NavigationMesh.Engine.TRIANGLE_CORRIDOR);
+            Point start = randomPointInArea(visibilityGraph, random);
+            Point end = randomPointInArea(visibilityGraph, random);
+            String caseName = "Test case #" + (caseNumber + 1) + ": " + start + " -> " + end;
+            Point[] shortestPath = visibilityGraph.findPath(start, end);
+            Point[] corridorPath = corridor.findPath(start, end);
+            assertEquals(start, corridorPath[0], caseName);
+            assertEquals(end, corridorPath[corridorPath.length - 1], caseName);
+            assertTrue(length(corridorPath) >= length(shortestPath) - 1e-6, caseName);
+            for (int i = 1; i < corridorPath.length; i++) {
+                Point mid = new Point((corridorPath[i - 1].x() + corridorPath[i].x()) / 2, (corridorPath[i - 1].y() + corridorPath[i].y()) / 2);
+                assertTrue(corridor.isPointInArea(mid), caseName);
+            }
+        }
+    }
+
+    @Test
+    public void testShortestPathTable() {
+        NavigationMesh mesh = createMesh().withShortestPathTable();
+        assertTrue(mesh.hasShortestPathTable());
+        assertArrayEquals(new Point[]{
+            new Point(150, 150), new Point(200, 400), new Point(400, 400), new Point(400, 200), new Point(350, 200), new Point(300, 300)
+        }, mesh.findPath(new Point(150, 150), new Point(300, 300)));
+        assertThrows(IllegalStateException.class, () -> createMesh(NavigationMesh.Engine.TRIANGLE_CORRIDOR).withShortestPathTable());
+
+        //Random star shaped areas: the table must find paths as short as A*
+        Random random = new Random(14);
+        for (int caseNumber = 0; caseNumber < 100; caseNumber++) {
+            NavigationMesh aStar = new NavigationMesh(randomStar(random, 10, 500));
+            NavigationMesh table = aStar.withShortestPathTable();
+            Point start = randomPointInArea(aStar, random);
+            Point end = randomPointInArea(aStar, random);
+            String caseName = "Test case #" + (caseNumber + 1) + ": " + start + " -> " + end;
+            Point[] tablePath = table.findPath(start, end);
+            assertEquals(length(aStar.findPath(start, end)), length(tablePath), 1e-6, caseName);
+            assertEquals(start, tablePath[0], caseName);
+            assertEquals(end, tablePath[tablePath.length - 1], caseName);
+        }
+
+        //Obstacles keep the table up to date
+        Area obstacle = new Area(new Point(420, 420), new Point(480, 420), new Point(480, 480), new Point(420, 480));
+        NavigationMesh withObstacle = mesh.withObstacle(obstacle);
+        assertTrue(withObstacle.hasShortestPathTable());
+        assertEquals(length(new NavigationMesh(withObstacle.getArea()).findPath(new Point(150, 150), new Point(300, 300))),
+                length(withObstacle.findPath(new Point(150, 150), new Point(300, 300))), 1e-6);
+    }
+
+    @Test
+    public void testSaveAndLoad(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("mesh.bin");
+        MapGenerator generator = new MapGenerator(25);
+        Area area = generator.createArea(MapGenerator.Shape.HOLES, 200);
+        MapGenerator.Query[] queries = generator.createQueries(area, 50);
+        NavigationMesh[] meshes = {
+            new NavigationMesh(area), new NavigationMesh(area).withShortestPathTable(),
+            new NavigationMesh(area, NavigationMesh.Engine.TRIANGLE_CORRIDOR)
+        };
+        for (NavigationMesh mesh : meshes) {
+            mesh.save(file);
+            NavigationMesh loaded = NavigationMesh.load(file);
+            String meshName = mesh.getEngine() + (mesh.hasShortestPathTable() ? " with table" : "");
+            assertEquals(mesh.getEngine(), loaded.getEngine(), meshName);
+            assertEquals(mesh.hasShortestPathTable(), loaded.hasShortestPathTable(), meshName);
+            assertEquals(mesh.getVertexCount(), loaded.getVertexCount(), meshName);
+            assertArrayEquals(mesh.getAreaTriangles(), loaded.getAreaTriangles(), meshName);
+            for (int i = 0; i < queries.length; i++) {
+                MapGenerator.Query query = queries[i];
+                String caseName = "Test case #" + (i + 1) + " " + meshName + ": " + query;
+                assertArrayEquals(mesh.findPath(query.start(), query.end()), loaded.findPath(query.start(), query.end()), caseName);
+            }
+            PathFinder pathFinder = new PathFinder(loaded);
+            pathFinder.setStartAndEndpoint(queries[0].start(), queries[0].end());
+            assertArrayEquals(mesh.findPath(queries[0].start(), queries[0].end()), pathFinder.findPath(), meshName);
+        }
+
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> NavigationMesh.load(file));
+        meshes[0].save(file);
+        byte[] truncated = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(truncated, truncated.length / 2));
+        assertThrows(IOException.class, () -> NavigationMesh.load(file));
+    }
+
+    @Test
+    public void testBidirectionalSearch() {
+        Point[] expectedPath = new Point[]{
+            new Point(150, 150), new Point(200, 400), new Point(400, 400), new Point(400, 200), new Point(350, 200), new Point(300, 300)
+        };
+        for (NavigationMesh.Engine engine : NavigationMesh.Engine.values()) {
+            assertArrayEquals(expectedPath, createMesh(engine).findPath(
+                    new Point(150, 150), new Point(300, 300), NavigationMesh.Search.BIDIRECTIONAL_A_STAR), engine.name());
+        }
+
+        //Random star shaped areas with holes: both searches must find paths of the same length
+        Random random = new Random(16);
+        for (int caseNumber = 0; caseNumber < 100; caseNumber++) {
+            Point[] points = randomStar(random, 300, 500).points();
+            Area hole = new Area(new Point(400, 350 + random.nextInt(100)), new Point(600, 400),
+                    new Point(450 + random.nextInt(100), 600), new Point(420, 500));
+            Area area = new Area(points, hole);
+            for (NavigationMesh.Engine engine : NavigationMesh.Engine.values()) {
+                NavigationMesh mesh = new NavigationMesh(area, engine);
+                Point start = randomPointInArea(mesh, random);
+                Point end = randomPointInArea(mesh, random);
+                String caseName = "Test case #" + (caseNumber + 1) + " " + engine + ": " + start + " -> " + end;
+                Point[] path = mesh.findPath(start, end, NavigationMesh.Search.BIDIRECTIONAL_A_STAR);
+                assertEquals(length(mesh.findPath(start, end)), length(path), 1e-6, caseName);
+                assertEquals(start, path[0], caseName);
+                assertEquals(end, path[path.length - 1], caseName);
+            }
+        }
+    }
+
+    @Test
+    public void testDistanceField() {
+        NavigationMesh mesh = createMesh();
+        DistanceField field = mesh.createDistanceField(new Point(300, 300));
+        assertArrayEquals(new Point[]{
+            new Point(150, 150), new Point(200, 400), new Point(400, 400), new Point(400, 200), new Point(350, 200), new Point(300, 300)
+        }, field.findPath(new Point(150, 150)));
+        assertArrayEquals(new Point[]{new Point(300, 150), new Point(300, 300)}, field.findPath(new Point(300, 150)));
+        assertThrows(IllegalArgumentException.class, () -> mesh.createDistanceField(new Point(0, 0)));
+        assertThrows(IllegalStateException.class,
+                () -> createMesh(NavigationMesh.Engine.TRIANGLE_CORRIDOR).createDistanceField(new Point(300, 300)));
+
+        //Random star shaped areas: the field must give the same paths as single searches
+        Random random = new Random(17);
+        for (int caseNumber = 0; caseNumber < 50; caseNumber++) {
+            NavigationMesh starMesh = new NavigationMesh(randomStar(random, 10, 500));
+            Point goal = randomPointInArea(starMesh, random);
+            DistanceField starField = starMesh.createDistanceField(goal);
+            for (int agent = 0; agent < 10; agent++) {
+                Point start = randomPointInArea(starMesh, random);
+                String caseName = "Test case #" + (caseNumber + 1) + ": " + start + " -> " + goal;
+                double expected = length(starMesh.findPath(start, goal));
+                assertEquals(expected, length(starField.findPath(start)), 1e-6, caseName);
+                assertEquals(expected, starField.getDistance(start), 1e-6, caseName);
+            }
+        }
+    }
+
+    /**
+     * Creates a star shaped area around (500/500) with 5 to 44 points.
+     */
+    private static Area randomStar(Random random, int minRadius, int maxRadius) {
+        return new Area(randomStar(random, 500, 500, minRadius, maxRadius, 5 + random.nextInt(40)));
+    }
+
+    private static Point[] randomStar(Random random, double centerX, double centerY, int minRadius, int maxRadius, int n) {
+        Point[] points = new Point[n];
+        for (int j = 0; j < n; j++) {
+            double angle = 2 * Math.PI * j / n;
+            double radius = minRadius + random.nextInt(maxRadius - minRadius);
+            points[j] = new Point(Math.round(centerX + radius * Math.cos(angle)), Math.round(centerY + radius * Math.sin(angle)));
+        }
+        return points;
+    }
+
+    private static Point randomPointInArea(NavigationMesh mesh, Random random) {
+        Point p;
+        do {
+            p = new Point(random.nextInt(1000), random.nextInt(1000));
+        } while (!mesh.isPointInArea(p));
+        return p;
+    }
+
+    private static double length(Point[] path) {
+        double length = 0;
+        for (int i = 1; i < path.length; i++) {
+            length += path[i - 1].distanceTo(path[i]);
+        }
+        return length;
+    }
+
+    @Test
+    public void testFindPathAroundHole() {
+        // (0,0)                       (600,0)
+        //   o---------------------------o
+        //   |                           |
+        //   |     (200,100)  (400,100)  |
+        //   |         o--------o        |
+        //   |  s      |        |     e  |
+        //   |         o--------o        |
+        //   |     (200,400)  (400,400)  |
+        //   |                           |
+        //   o---------------------------o
+        // (0,600)                     (600,600)
+        Area area = new Area(new Point[]{new Point(0, 0), new Point(600, 0), new Point(600, 600), new Point(0, 600)},
+                new Area(new Point(200, 100), new Point(400, 100), new Point(400, 400), new Point(200, 400)));
+        Point[] expectedPath = new Point[]{new Point(100, 200), new Point(200, 100), new Point(400, 100), new Point(500, 200)};
+        for (NavigationMesh.Engine engine : NavigationMesh.Engine.values()) {
+            NavigationMesh mesh = new NavigationMesh(area, engine);
+            assertFalse(mesh.isPointInArea(new Point(300, 300)), engine.name());
+            assertArrayEquals(expectedPath, mesh.findPath(new Point(100, 200), new Point(500, 200)), engine.name());
+        }
+        //Start inside of the hole: the path starts on the border of the hole
+        NavigationMesh mesh = new NavigationMesh(area);
+        assertArrayEquals(new Point[]{new Point(300, 400), new Point(300, 500)}, mesh.findPath(new Point(300, 300), new Point(300, 500)));
+        assertEquals(4, mesh.getNodePoints().length);
+    }
+
+    @Test
+    public void testObstacleInsertionAndRemoval() {
+        Random random = new Random(13);
+        Point[] square = {new Point(0, 0), new Point(1000, 0), new Point(1000, 1000), new Point(0, 1000)};
+        //Star shaped obstacles in the cells of a 4x4 grid
+        List<Area> obstacles = new ArrayList<>();
+        for (int cell = 0; cell < 16; cell++) {
+            obstacles.add(new Area(randomStar(random, 125 + 250 * (cell % 4), 125 + 250 * (cell / 4), 20, 100, 3 + random.nextInt(6))));
+        }
+        NavigationMesh mesh = new NavigationMesh(new Area(square));
+        List<Area> holes = new ArrayList<>();
+        for (int caseNumber = 0; caseNumber < 40; caseNumber++) {
+            String caseName = "Test case #" + (caseNumber + 1);
+            System.out.println(caseName);
+            Area obstacle = obstacles.get(random.nextInt(obstacles.size()));
+            if (holes.contains(obstacle)) {
+                holes.remove(obstacle);
+                mesh = mesh.withoutObstacle(obstacle);
+            } else {
+                holes.add(obstacle);
+                mesh = mesh.withObstacle(obstacle);
+            }
+            NavigationMesh expected = new NavigationMesh(new Area(square, holes.toArray(Area[]::new)));
+            assertArrayEquals(expected.getNodePoints(), mesh.getNodePoints(), caseName);
+            for (int node = 0; node < expected.getNodePoints().length; node++) {
+                assertArrayEquals(IntStream.of(expected.getNeighbours(node)).sorted().toArray(),
+                        IntStream.of(mesh.getNeighbours(node)).sorted().toArray(), caseName + ", node " + node);
+            }
+            Point start = randomPointInArea(expected, random);
+            Point end = randomPointInArea(expected, random);
+            assertEquals(length(expected.findPath(start, end)), length(mesh.findPath(start, end)), 1e-9, caseName);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new NavigationMesh(new Area(square)).withoutObstacle(obstacles.get(0)));
+
+        //Obstacles which do not lie inside of the area without touching it
+        NavigationMesh withHole = new NavigationMesh(new Area(square)).withObstacle(obstacles.get(0));
+        Area[] invalidObstacles = {
+            //Outside
+            new Area(new Point(1100, 100), new Point(1200, 100), new Point(1200, 200)),
+            //Crosses the outline
+            new Area(new Point(900, 500), new Point(1100, 500), new Point(1000, 600)),
+            //Touches the outline
+            new Area(new Point(900, 500), new Point(1000, 500), new Point(900, 600)),
+            //Same as the hole
+            obstacles.get(0),
+            //Contains the hole
+            new Area(new Point(10, 10), new Point(240, 10), new Point(240, 240), new Point(10, 240))};
+        for (int caseNumber = 0; caseNumber < invalidObstacles.length; caseNumber++) {
+            Area obstacle = invalidObstacles[caseNumber];
+            assertThrows(IllegalArgumentException.class, () -> withHole.withObstacle(obstacle), "Test case #" + (caseNumber + 1));
+        }
+    }
+
+    @Test
+    public void testFindPathWithoutContactToArea() {
+        NavigationMesh mesh = createMesh();
+        assertEquals(0, mesh.findPath(new Point(0, 0), new Point(50, 600)).length);
+    }
+
+    @Test
+    public void testFindPathWithNullPoints() {
+        NavigationMesh mesh = createMesh();
+        assertThrows(IllegalArgumentException.class, () -> mesh.findPath(null, new Point(150, 150)));
+        assertThrows(IllegalArgumentException.class, () -> mesh.findPath(new Point(150, 150), null));
+    }
+}
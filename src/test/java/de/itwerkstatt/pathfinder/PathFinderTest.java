@@ -1,9 +1,23 @@
 package de.itwerkstatt.pathfinder;
 
 import de.itwerkstatt.pathfinder.entities.Area;
+import de.itwerkstatt.pathfinder.entities.PathRequest;
 import de.itwerkstatt.pathfinder.entities.Point;
 import de.itwerkstatt.pathfinder.entities.Triangle;
+import de.itwerkstatt.pathfinder.util.PathCache;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -16,6 +30,16 @@ public class PathFinderTest {
 
     }
 
+    /**
+     * Creates a path finder for the room of the GUITest.
+     */
+    private static PathFinder createPathFinder() {
+        return new PathFinder(new Area(
+                new Point(100, 100), new Point(200, 100), new Point(200, 400), new Point(400, 400),
+                new Point(400, 200), new Point(350, 200), new Point(350, 350), new Point(250, 350),
+                new Point(250, 100), new Point(500, 100), new Point(500, 500), new Point(100, 500)));
+    }
+
     @Test
     public void testAreaTriangleCreation() {
         TriangleCreationTestcase[] testcases = new TriangleCreationTestcase[]{
@@ -301,4 +325,128 @@ public class PathFinderTest {
         }
     }
 
+    @Test
+    public void testFindPaths() {
+        PathFinder p = createPathFinder();
+        Random random = new Random(14);
+        List<PathRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            requests.add(new PathRequest(
+                    new Point(random.nextInt(600), random.nextInt(600)), new Point(random.nextInt(600), random.nextInt(600))));
+        }
+        List<Point[]> expected = new ArrayList<>();
+        for (PathRequest request : requests) {
+            p.setStartAndEndpoint(request.start(), request.end());
+            expected.add(p.findPath());
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<List<Point[]>> results = List.of(
+                    p.findPaths(requests),
+                    p.findPaths(requests, pool),
+                    p.findPaths(requests.stream().parallel()).toList());
+            for (List<Point[]> result : results) {
+                assertEquals(expected.size(), result.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertArrayEquals(expected.get(i), result.get(i), "Error in request #" + (i + 1));
+                }
+            }
+
+            //Batches use the cache and inform the listeners
+            MetricsRegistry registry = new MetricsRegistry();
+            p.addListener(registry);
+            p.setPathCache(new PathCache(1, 1000));
+            p.findPaths(requests, pool);
+            List<Point[]> cached = p.findPaths(requests, pool);
+            for (int i = 0; i < expected.size(); i++) {
+                assertArrayEquals(expected.get(i), cached.get(i), "Error in cached request #" + (i + 1));
+            }
+            assertEquals(2 * requests.size(), registry.getSearchCount());
+            assertTrue(p.getPathCache().getHits() >= requests.size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testListenerAndMetrics() {
+        PathFinder p = createPathFinder();
+        List<SearchStatistics> statistics = new ArrayList<>();
+        MetricsRegistry registry = new MetricsRegistry();
+        p.addListener((start, end, path, s) -> statistics.add(s));
+        p.addListener(registry);
+
+        //First search compiles the mesh and has to search around the walls
+        p.setStartAndEndpoint(new Point(150, 200), new Point(300, 300));
+        Point[] path = p.findPath();
+        SearchStatistics first = statistics.get(0);
+        assertTrue(first.meshBuildNanos() > 0);
+        assertTrue(first.searchNanos() > 0);
+        assertTrue(first.reconstructionNanos() > 0);
+        assertFalse(first.directLine());
+        assertTrue(first.expandedNodes() > 0);
+        assertTrue(first.heapPushes() >= first.expandedNodes());
+        assertTrue(first.intersectionTests() > 1);
+        assertEquals(path.length, first.pathLength());
+        assertTrue(first.totalNanos() >= first.meshBuildNanos() + first.searchNanos());
+
+        //Direct line from outside of the area, the mesh is reused
+        p.setStartAndEndpoint(new Point(50, 450), new Point(300, 450));
+        p.findPath();
+        SearchStatistics second = statistics.get(1);
+        assertEquals(0, second.meshBuildNanos());
+        assertTrue(second.projectionNanos() > 0);
+        assertTrue(second.directLine());
+        assertEquals(0, second.expandedNodes());
+        assertEquals(1, second.intersectionTests());
+
+        p.setPathCache(new PathCache(1, 10));
+        p.findPath();
+        p.findPath();
+        assertTrue(statistics.get(3).cacheHit());
+
+        assertEquals(4, registry.getSearchCount());
+        assertEquals(2, registry.getDirectLineCount());
+        assertEquals(1, registry.getCacheHitCount());
+        assertEquals(first.expandedNodes(), registry.getExpandedNodes());
+        assertEquals(4, registry.getTotalLatency().getCount());
+        assertEquals(1, registry.getLatency(SearchStatistics.Phase.MESH_BUILD).getCount());
+
+        //Without listeners nothing is reported
+        p.removeListener(registry);
+        p.findPath();
+        assertEquals(4, registry.getSearchCount());
+        assertEquals(5, statistics.size());
+    }
+
+    @Test
+    public void testFlightRecorderEvents(@TempDir Path directory) throws IOException {
+        PathFinder p = createPathFinder();
+        //Without statistics and recording no event is created
+        SearchStatistics.Recorder recorder = SearchStatistics.Recorder.DISABLED;
+        assertSame(SearchStatistics.Recorder.DISABLED_EVENT, recorder.start(SearchStatistics.Phase.SEARCH));
+        Path file = directory.resolve("pathfinder.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("de.itwerkstatt.pathfinder.Phase");
+            recording.start();
+            assertNotSame(SearchStatistics.Recorder.DISABLED_EVENT, recorder.start(SearchStatistics.Phase.SEARCH));
+            //From outside of the area around the walls
+            p.setStartAndEndpoint(new Point(50, 200), new Point(300, 300));
+            Point[] path = p.findPath();
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            Set<String> phases = new HashSet<>();
+            for (RecordedEvent event : events) {
+                phases.add(event.getString("phase"));
+                assertEquals(12, event.getInt("vertexCount"));
+                if (event.getString("phase").equals("RECONSTRUCTION")) {
+                    assertEquals(path.length, event.getInt("pathLength"));
+                    assertTrue(event.getInt("expandedNodes") > 0);
+                }
+            }
+            assertEquals(Set.of("MESH_BUILD", "CONTAINMENT", "PROJECTION", "LINE_OF_SIGHT", "SEARCH", "RECONSTRUCTION"), phases);
+        }
+    }
 }
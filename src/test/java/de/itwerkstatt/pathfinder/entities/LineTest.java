@@ -343,6 +343,18 @@ public class LineTest {
             new Line(new Point(1, 1), new Point(1, 5)),
             new Line(new Point(1, 5), new Point(4, 1)),
             false
+            ),
+            //Case 15
+            //     o
+            //    /
+            //   /   o
+            //  /     \
+            // o       o
+            new IntersectTestcase(
+            "Both lines has gradients, lines would only intersect if the other one was longer",
+            new Line(new Point(1, 1), new Point(5, 10)),
+            new Line(new Point(10, 1), new Point(8, 3)),
+            false
             )
         };
 
@@ -0,0 +1,38 @@
+package de.itwerkstatt.pathfinder.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author dsust
+ */
+public class CsrGraphTest {
+
+    @Test
+    public void testUndirected() {
+        // 0 --1.0-- 1 --2.0-- 2     3
+        //  \                 /
+        //   -------4.0-------
+        CsrGraph g = CsrGraph.undirected(4,
+                new int[]{0, 1, 2},
+                new int[]{1, 2, 0},
+                new double[]{1.0, 2.0, 4.0}, 3);
+        assertEquals(4, g.getNodeCount());
+        assertEquals(6, g.getEdgeCount());
+        assertEquals(2, g.getDegree(0));
+        assertEquals(2, g.getDegree(1));
+        assertEquals(2, g.getDegree(2));
+        assertEquals(0, g.getDegree(3));
+
+        //Edges of a node keep the order in which they were passed
+        assertEquals(1, g.getTarget(g.getFirstEdge(0)));
+        assertEquals(1.0, g.getWeight(g.getFirstEdge(0)));
+        assertEquals(2, g.getTarget(g.getFirstEdge(0) + 1));
+        assertEquals(4.0, g.getWeight(g.getFirstEdge(0) + 1));
+        assertEquals(0, g.getTarget(g.getFirstEdge(1)));
+        assertEquals(2, g.getTarget(g.getFirstEdge(1) + 1));
+        assertEquals(2.0, g.getWeight(g.getFirstEdge(1) + 1));
+        assertEquals(g.getFirstEdge(3), g.getEndEdge(3));
+    }
+}
@@ -0,0 +1,104 @@
+package de.itwerkstatt.pathfinder.util;
+
+import de.itwerkstatt.pathfinder.entities.Line;
+import de.itwerkstatt.pathfinder.entities.Point;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author dsust
+ */
+public class EdgeGridTest {
+
+    @Test
+    public void testIntersectsAnyEdge() {
+        //Star shaped polygon with 200 points around (500/500)
+        Random random = new Random(7);
+        int n = 200;
+        Point[] points = new Point[n];
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * i / n;
+            double radius = 200 + random.nextInt(300);
+            points[i] = new Point(Math.round(500 + radius * Math.cos(angle)), Math.round(500 + radius * Math.sin(angle)));
+        }
+        Line[] edges = new Line[n];
+        for (int i = 0; i < n; i++) {
+            edges[i] = new Line(points[i], points[(i + 1) % n]);
+        }
+        EdgeGrid grid = new EdgeGrid(edges);
+        assertTrue(grid.getColumns() * grid.getRows() > 1);
+
+        for (int caseNumber = 0; caseNumber < 2000; caseNumber++) {
+            Line segment;
+            if (caseNumber % 4 == 0) {
+                //Segments between points of the polygon
+                segment = new Line(points[random.nextInt(n)], points[random.nextInt(n)]);
+            } else if (caseNumber % 4 == 1) {
+                //Horizontal segments
+                double y = random.nextInt(1000);
+                segment = new Line(new Point(random.nextInt(1000), y), new Point(random.nextInt(1000), y));
+            } else {
+                segment = new Line(
+                        new Point(random.nextInt(1000), random.nextInt(1000)),
+                        new Point(random.nextInt(1000), random.nextInt(1000)));
+            }
+            boolean expected = Stream.of(edges).anyMatch(l -> l.doIntersect(segment));
+            assertEquals(expected, grid.intersectsAnyEdge(segment), "Error in test case #" + (caseNumber + 1) + ": " + segment);
+        }
+    }
+
+    record CrossesBorderTestcase(String description, Point a, Point b, boolean expectedResult) {
+
+    }
+
+    @Test
+    public void testCrossesBorder() {
+        // (0/30) (10/30)  (20/30) (30/30)
+        //     o-----o       o-----o
+        //     |     |       |     |
+        //     |     |       |     |
+        //     |     o-------o     |
+        //     |  (10/10)  (20/10) |
+        //     o-------------------o
+        //   (0/0)              (30/0)
+        Point[] points = new Point[]{
+            new Point(0, 0), new Point(30, 0), new Point(30, 30), new Point(20, 30),
+            new Point(20, 10), new Point(10, 10), new Point(10, 30), new Point(0, 30)
+        };
+        CrossesBorderTestcase[] testcases = new CrossesBorderTestcase[]{
+            new CrossesBorderTestcase("Along an edge", new Point(10, 10), new Point(20, 10), false),
+            new CrossesBorderTestcase("Between two vertices through the notch", new Point(10, 30), new Point(20, 30), true),
+            new CrossesBorderTestcase("Through a concave vertex into the notch", new Point(5, 5), new Point(25, 25), true),
+            new CrossesBorderTestcase("Through a concave vertex, staying inside", new Point(5, 15), new Point(15, 5), false),
+            new CrossesBorderTestcase("Inside without touching the border", new Point(5, 5), new Point(25, 5), false),
+            new CrossesBorderTestcase("Crossing two edges", new Point(5, 20), new Point(25, 20), true),
+            new CrossesBorderTestcase("From a vertex into the area", new Point(10, 30), new Point(5, 5), false),
+            new CrossesBorderTestcase("From a vertex out of the area", new Point(10, 30), new Point(15, 20), true)
+        };
+        //Integer mode and, scaled by an exact factor, floating point mode
+        for (double scale : new double[]{1, 0.25}) {
+            Line[] edges = new Line[points.length];
+            for (int i = 0; i < points.length; i++) {
+                edges[i] = new Line(scale(points[i], scale), scale(points[(i + 1) % points.length], scale));
+            }
+            EdgeGrid grid = new EdgeGrid(edges);
+            assertEquals(scale == 1, grid.isIntegral());
+            for (int caseNumber = 0; caseNumber < testcases.length; caseNumber++) {
+                CrossesBorderTestcase testcase = testcases[caseNumber];
+                String caseName = "Test case #" + (caseNumber + 1) + " (scale " + scale + "): " + testcase.description;
+                System.out.println(caseName);
+                Point a = scale(testcase.a, scale);
+                Point b = scale(testcase.b, scale);
+                assertEquals(testcase.expectedResult, grid.crossesBorder(a.x(), a.y(), b.x(), b.y()), "Error in " + caseName);
+                assertEquals(testcase.expectedResult, grid.crossesBorder(b.x(), b.y(), a.x(), a.y()), "Error in " + caseName + " (inverted)");
+            }
+        }
+    }
+
+    private static Point scale(Point p, double scale) {
+        return new Point(p.x() * scale, p.y() * scale);
+    }
+}
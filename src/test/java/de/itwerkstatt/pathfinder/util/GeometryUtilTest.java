@@ -0,0 +1,76 @@
+package de.itwerkstatt.pathfinder.util;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author dsust
+ */
+public class GeometryUtilTest {
+
+    @Test
+    public void testOrientationNearlyCollinear() {
+        //Points near the line y = x with offsets of a few ulps, where the
+        //plain floating point formula often returns the wrong sign
+        Random random = new Random(19);
+        for (int caseNumber = 0; caseNumber < 10000; caseNumber++) {
+            double ax = 0.5 + Math.ulp(0.5) * random.nextInt(256);
+            double ay = 0.5 + Math.ulp(0.5) * random.nextInt(256);
+            double bx = 12;
+            double by = 12;
+            double cx = 24;
+            double cy = 24 + Math.ulp(24.0) * (random.nextInt(5) - 2);
+            String caseName = "Test case #" + (caseNumber + 1);
+            assertEquals(exactSign(ax, ay, bx, by, cx, cy), (int) Math.signum(GeometryUtil.orientation(ax, ay, bx, by, cx, cy)), caseName);
+            //The order of the points changes the sign consistently
+            assertEquals(-(int) Math.signum(GeometryUtil.orientation(ax, ay, bx, by, cx, cy)),
+                    (int) Math.signum(GeometryUtil.orientation(bx, by, ax, ay, cx, cy)), caseName);
+        }
+    }
+
+    @Test
+    public void testOrientationRandom() {
+        Random random = new Random(20);
+        for (int caseNumber = 0; caseNumber < 10000; caseNumber++) {
+            double[] v = new double[6];
+            for (int i = 0; i < v.length; i++) {
+                v[i] = random.nextInt(2000) - 1000 + random.nextDouble();
+            }
+            double fast = (v[2] - v[0]) * (v[5] - v[1]) - (v[3] - v[1]) * (v[4] - v[0]);
+            double robust = GeometryUtil.orientation(v[0], v[1], v[2], v[3], v[4], v[5]);
+            //Clear cases keep the floating point value
+            assertEquals(fast, robust, "Test case #" + (caseNumber + 1));
+        }
+        assertEquals(0, GeometryUtil.orientation(0, 0, 1, 1, 3, 3));
+        assertTrue(GeometryUtil.orientation(0, 0, 1, 0, 0, 1) > 0);
+    }
+
+    @Test
+    public void testProperCrossingNearlyCollinear() {
+        //The segment ends exactly on the other one, so they only touch
+        double ax = 0.1;
+        double ay = 0.3;
+        double bx = 0.7;
+        double by = 0.9;
+        double t = 0.5;
+        double mx = ax + t * (bx - ax);
+        double my = ay + t * (by - ay);
+        int side = exactSign(ax, ay, bx, by, mx, my);
+        assertEquals(side, (int) Math.signum(GeometryUtil.orientation(ax, ay, bx, by, mx, my)));
+        if (side == 0) {
+            assertFalse(GeometryUtil.isProperCrossing(ax, ay, bx, by, mx, my, mx + 1, my - 1));
+        } else {
+            //The end point lies slightly beside the segment, so the result follows the exact side
+            assertEquals(side < 0, GeometryUtil.isProperCrossing(ax, ay, bx, by, mx, my, mx - 1, my + 1));
+        }
+    }
+
+    private static int exactSign(double ax, double ay, double bx, double by, double cx, double cy) {
+        BigDecimal left = new BigDecimal(bx).subtract(new BigDecimal(ax)).multiply(new BigDecimal(cy).subtract(new BigDecimal(ay)));
+        BigDecimal right = new BigDecimal(by).subtract(new BigDecimal(ay)).multiply(new BigDecimal(cx).subtract(new BigDecimal(ax)));
+        return left.subtract(right).signum();
+    }
+}
@@ -0,0 +1,72 @@
+package de.itwerkstatt.pathfinder.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author dsust
+ */
+public class IndexedMinHeapTest {
+
+    @Test
+    public void testPollOrder() {
+        IndexedMinHeap heap = new IndexedMinHeap(5);
+        heap.insertOrUpdate(0, 5.0);
+        heap.insertOrUpdate(1, 3.0);
+        heap.insertOrUpdate(2, 4.0);
+        heap.insertOrUpdate(3, 1.0);
+        assertTrue(heap.contains(2));
+        assertFalse(heap.contains(4));
+        assertEquals(3, heap.poll());
+        assertFalse(heap.contains(3));
+        assertEquals(1, heap.poll());
+        assertEquals(2, heap.poll());
+        assertEquals(0, heap.poll());
+        assertTrue(heap.isEmpty());
+        assertThrows(NoSuchElementException.class, heap::poll);
+    }
+
+    @Test
+    public void testDecreaseKey() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.insertOrUpdate(0, 1.0);
+        heap.insertOrUpdate(1, 2.0);
+        heap.insertOrUpdate(2, 3.0);
+        heap.decreaseKey(2, 0.5);
+        assertEquals(2, heap.peek());
+        assertEquals(0.5, heap.peekKey());
+        assertThrows(IllegalArgumentException.class, () -> heap.decreaseKey(1, 5.0));
+        assertThrows(NoSuchElementException.class, () -> heap.decreaseKey(3, 0.0));
+        //Increasing a key moves the node down
+        heap.insertOrUpdate(2, 10.0);
+        assertEquals(0, heap.poll());
+        assertEquals(1, heap.poll());
+        assertEquals(2, heap.poll());
+    }
+
+    @Test
+    public void testRandomKeys() {
+        Random random = new Random(42);
+        int n = 1000;
+        IndexedMinHeap heap = new IndexedMinHeap(n);
+        double[] keys = new double[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = random.nextDouble() * 100;
+            heap.insertOrUpdate(i, keys[i]);
+        }
+        for (int i = 0; i < n; i += 3) {
+            keys[i] = keys[i] / 2;
+            heap.decreaseKey(i, keys[i]);
+        }
+        double[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < n; i++) {
+            int node = heap.poll();
+            assertEquals(sorted[i], keys[node]);
+        }
+    }
+}
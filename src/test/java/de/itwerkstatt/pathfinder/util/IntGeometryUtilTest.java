@@ -0,0 +1,40 @@
+package de.itwerkstatt.pathfinder.util;
+
+import de.itwerkstatt.pathfinder.entities.Point;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author dsust
+ */
+public class IntGeometryUtilTest {
+
+    @Test
+    public void testSameResultsAsFloatingPoint() {
+        Random random = new Random(21);
+        for (int caseNumber = 0; caseNumber < 10000; caseNumber++) {
+            //Small coordinates with many collinear cases and large ones near the limit
+            int range = caseNumber % 2 == 0 ? 10 : IntGeometryUtil.MAX_COORDINATE;
+            int[] v = new int[8];
+            for (int i = 0; i < v.length; i++) {
+                v[i] = random.nextInt(range) * (random.nextBoolean() ? 1 : -1);
+            }
+            String caseName = "Test case #" + (caseNumber + 1);
+            assertEquals((int) Math.signum(GeometryUtil.orientation(v[0], v[1], v[2], v[3], v[4], v[5])),
+                    Long.signum(IntGeometryUtil.orientation(v[0], v[1], v[2], v[3], v[4], v[5])), caseName);
+            assertEquals(GeometryUtil.isProperCrossing(v[0], v[1], v[2], v[3], v[4], v[5], v[6], v[7]),
+                    IntGeometryUtil.isProperCrossing(v[0], v[1], v[2], v[3], v[4], v[5], v[6], v[7]), caseName);
+            assertEquals(GeometryUtil.isInVertexCone(v[0], v[1], v[2], v[3], v[4], v[5], v[6], v[7]),
+                    IntGeometryUtil.isInVertexCone(v[0], v[1], v[2], v[3], v[4], v[5], v[6], v[7]), caseName);
+        }
+    }
+
+    @Test
+    public void testIsIntegral() {
+        assertTrue(IntGeometryUtil.isIntegral(new Point(100, -200), new Point(0, IntGeometryUtil.MAX_COORDINATE)));
+        assertFalse(IntGeometryUtil.isIntegral(new Point(100.5, 200)));
+        assertFalse(IntGeometryUtil.isIntegral(new Point(0, 2.0 * IntGeometryUtil.MAX_COORDINATE)));
+    }
+}
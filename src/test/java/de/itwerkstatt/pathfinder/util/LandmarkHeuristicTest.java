@@ -0,0 +1,53 @@
+package de.itwerkstatt.pathfinder.util;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author dsust
+ */
+public class LandmarkHeuristicTest {
+
+    @Test
+    public void testLowerBound() {
+        Random random = new Random(15);
+        for (int caseNumber = 0; caseNumber < 50; caseNumber++) {
+            String caseName = "Test case #" + (caseNumber + 1);
+            System.out.println(caseName);
+            //Random sparse graph, possibly with several components
+            int n = 2 + random.nextInt(60);
+            int edgeCount = random.nextInt(2 * n);
+            int[] from = new int[edgeCount];
+            int[] to = new int[edgeCount];
+            double[] weights = new double[edgeCount];
+            for (int i = 0; i < edgeCount; i++) {
+                from[i] = random.nextInt(n);
+                to[i] = random.nextInt(n);
+                weights[i] = 1 + random.nextInt(100);
+            }
+            CsrGraph graph = CsrGraph.undirected(n, from, to, weights, edgeCount);
+            LandmarkHeuristic heuristic = new LandmarkHeuristic(graph, 4);
+            ShortestPathTable table = ShortestPathTable.of(graph);
+            assertEquals(Math.min(4, n), heuristic.getLandmarks().length, caseName);
+            for (int goal = 0; goal < n; goal++) {
+                double[] toGoal = heuristic.distancesToGoal(new int[]{goal}, new double[]{0}, 1);
+                for (int v = 0; v < n; v++) {
+                    double bound = heuristic.lowerBound(v, toGoal);
+                    double distance = table.getDistance(v, goal);
+                    assertTrue(bound <= distance, caseName + ": " + v + " -> " + goal);
+                    if (distance == Double.POSITIVE_INFINITY) {
+                        continue;
+                    }
+                    //Exact for the landmarks themselves
+                    for (int landmark : heuristic.getLandmarks()) {
+                        if (landmark == v) {
+                            assertEquals(distance, bound, 1e-9, caseName);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
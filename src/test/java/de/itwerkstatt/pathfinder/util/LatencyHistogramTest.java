@@ -0,0 +1,47 @@
+package de.itwerkstatt.pathfinder.util;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author dsust
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        int previous = -1;
+        for (long value : new long[]{0, 1, 15, 16, 17, 31, 32, 33, 1000, 123456789, Long.MAX_VALUE}) {
+            int bucket = LatencyHistogram.bucket(value);
+            assertTrue(bucket >= previous && bucket < LatencyHistogram.BUCKET_COUNT, "Value " + value);
+            assertTrue(LatencyHistogram.upperBound(bucket) >= value, "Value " + value);
+            //Relative error of at most 1/16
+            assertTrue(LatencyHistogram.upperBound(bucket) - value <= value / 16, "Value " + value);
+            previous = bucket;
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBound(LatencyHistogram.BUCKET_COUNT - 1));
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        Random random = new Random(3);
+        for (int i = 0; i < 10000; i++) {
+            histogram.record(1000 + random.nextInt(1000));
+        }
+        histogram.record(1_000_000);
+        assertEquals(10001, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+        long median = histogram.getValueAtPercentile(50);
+        assertTrue(median >= 1500 - 100 && median <= 1500 + 100, "Median " + median);
+        assertTrue(histogram.getValueAtPercentile(99) < 2000 + 2000 / 16);
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean());
+    }
+}
@@ -0,0 +1,167 @@
+package de.itwerkstatt.pathfinder.util;
+
+import de.itwerkstatt.pathfinder.NavigationMesh;
+import de.itwerkstatt.pathfinder.entities.Area;
+import de.itwerkstatt.pathfinder.entities.Line;
+import de.itwerkstatt.pathfinder.entities.Point;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author dsust
+ */
+public class MapGeneratorTest {
+
+    @Test
+    public void testAreas() {
+        int caseNumber = 0;
+        for (MapGenerator.Shape shape : MapGenerator.Shape.values()) {
+            int min = shape.getMinVertexCount();
+            for (int vertexCount : new int[]{min, min + 1, min + 2, min + 3, 50, 501}) {
+                String caseName = "Test case #" + (++caseNumber) + " " + shape + " " + vertexCount;
+                System.out.println(caseName);
+                Area area = new MapGenerator(7).createArea(shape, vertexCount);
+                List<Point[]> polygons = polygons(area);
+                assertEquals(vertexCount, polygons.stream().mapToInt(p -> p.length).sum(), caseName);
+                //Same seed, same area
+                List<Point[]> again = polygons(new MapGenerator(7).createArea(shape, vertexCount));
+                for (int i = 0; i < polygons.size(); i++) {
+                    assertArrayEquals(polygons.get(i), again.get(i), caseName);
+                }
+                assertSimple(polygons, caseName);
+                double expectedArea = Math.abs(Triangulator.signedDoubleArea(area.points())) / 2;
+                for (Area hole : area.holes()) {
+                    expectedArea -= Math.abs(Triangulator.signedDoubleArea(hole.points())) / 2;
+                }
+                double triangleArea = Arrays.stream(Triangulator.triangulate(area)).mapToDouble(t -> Math.abs(t.calculateArea())).sum();
+                assertEquals(expectedArea, triangleArea, 1e-6 * expectedArea, caseName);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new MapGenerator(7).createArea(MapGenerator.Shape.SPIRAL, 15));
+    }
+
+    @Test
+    public void testQueries() {
+        for (MapGenerator.Shape shape : MapGenerator.Shape.values()) {
+            System.out.println("Test case " + shape);
+            MapGenerator.Workload workload = new MapGenerator(3).createWorkload(shape, 200, 100);
+            NavigationMesh mesh = new NavigationMesh(workload.area(), NavigationMesh.Engine.TRIANGLE_CORRIDOR);
+            for (MapGenerator.Query query : workload.queries()) {
+                switch (query.kind()) {
+                    case IN_AREA -> {
+                        assertTrue(mesh.isPointInArea(query.start()), query.toString());
+                        assertTrue(mesh.isPointInArea(query.end()), query.toString());
+                    }
+                    case OUT_OF_AREA -> {
+                        assertFalse(mesh.isPointInArea(query.start()), query.toString());
+                        assertTrue(mesh.isPointInArea(query.end()), query.toString());
+                    }
+                    case IN_HOLE -> {
+                        assertTrue(workload.area().holes().length > 0);
+                        assertTrue(mesh.isPointInArea(query.start()), query.toString());
+                        assertFalse(mesh.isPointInArea(query.end()), query.toString());
+                    }
+                }
+                //Points moved to the border can be empty paths, but must not fail
+                Point[] path = mesh.findPath(query.start(), query.end());
+                if (query.kind() == MapGenerator.QueryKind.IN_AREA) {
+                    assertTrue(path.length >= 2, query.toString());
+                    assertEquals(query.start(), path[0]);
+                    assertEquals(query.end(), path[path.length - 1]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        MapGenerator.Workload workload = new MapGenerator(5).createWorkload(MapGenerator.Shape.HOLES, 100, 50);
+        assertWorkloadEquals(workload, writeAndRead(workload));
+
+        //Coordinates which are no integers
+        MapGenerator.Query query = new MapGenerator.Query(new Point(0.5, 0.5), new Point(1.25, 2), MapGenerator.QueryKind.IN_AREA);
+        MapGenerator.Workload doubles = new MapGenerator.Workload(
+                new Area(new Point(0, 0), new Point(3.5, 0), new Point(0, 3.5)), new MapGenerator.Query[]{query});
+        assertWorkloadEquals(doubles, writeAndRead(doubles));
+
+        assertThrows(IOException.class, () -> MapGenerator.read(new ByteArrayInputStream(new byte[]{1, 2, 3, 4})));
+        //Corrupt number of holes
+        assertThrows(IOException.class, () -> read(new int[]{0, 0, 1, 0, 0, 1}, Integer.MAX_VALUE));
+        //Outline with two points
+        assertThrows(IOException.class, () -> read(new int[]{0, 0, 1, 1}, 0));
+    }
+
+    private static MapGenerator.Workload read(int[] outline, int holeCount) throws IOException {
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeInt(0x5046574C);
+        writer.writeInt(2);
+        writer.writeInt(1);
+        writer.writeInts(outline);
+        writer.writeInt(holeCount);
+        writer.writeInts(new int[0]);
+        writer.writeInts(new int[0]);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeTo(out);
+        return MapGenerator.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private static MapGenerator.Workload writeAndRead(MapGenerator.Workload workload) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MapGenerator.write(workload, out);
+        return MapGenerator.read(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private static void assertWorkloadEquals(MapGenerator.Workload expected, MapGenerator.Workload actual) {
+        List<Point[]> expectedPolygons = polygons(expected.area());
+        List<Point[]> actualPolygons = polygons(actual.area());
+        assertEquals(expectedPolygons.size(), actualPolygons.size());
+        for (int i = 0; i < expectedPolygons.size(); i++) {
+            assertArrayEquals(expectedPolygons.get(i), actualPolygons.get(i));
+        }
+        assertArrayEquals(expected.queries(), actual.queries());
+    }
+
+    private static List<Point[]> polygons(Area area) {
+        List<Point[]> polygons = new ArrayList<>();
+        polygons.add(area.points());
+        for (Area hole : area.holes()) {
+            polygons.add(hole.points());
+        }
+        return polygons;
+    }
+
+    /**
+     * No two edges cross each other and no point touches an edge other than
+     * its own ones.
+     */
+    private static void assertSimple(List<Point[]> polygons, String caseName) {
+        List<Line> edges = new ArrayList<>();
+        for (Point[] polygon : polygons) {
+            for (int i = 0; i < polygon.length; i++) {
+                edges.add(new Line(polygon[i], polygon[(i + 1) % polygon.length]));
+            }
+        }
+        for (Line e : edges) {
+            Point a = e.p1();
+            Point b = e.p2();
+            assertNotEquals(a, b, caseName);
+            for (Line f : edges) {
+                Point c = f.p1();
+                Point d = f.p2();
+                assertFalse(GeometryUtil.isProperCrossing(a.x(), a.y(), b.x(), b.y(), c.x(), c.y(), d.x(), d.y()), caseName + ": " + a + b + c + d);
+                if (!c.equals(a) && !c.equals(b)) {
+                    boolean onEdge = GeometryUtil.orientation(a.x(), a.y(), b.x(), b.y(), c.x(), c.y()) == 0
+                            && GeometryUtil.isCollinearPointOnSegment(a.x(), a.y(), b.x(), b.y(), c.x(), c.y());
+                    assertFalse(onEdge, caseName + ": " + c + " on " + a + b);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package de.itwerkstatt.pathfinder.util;
+
+import de.itwerkstatt.pathfinder.NavigationMesh;
+import de.itwerkstatt.pathfinder.PathFinder;
+import de.itwerkstatt.pathfinder.entities.Area;
+import de.itwerkstatt.pathfinder.entities.Point;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author dsust
+ */
+public class PathCacheTest {
+
+    private static final NavigationMesh SQUARE = new NavigationMesh(new Area(
+            new Point(0, 0), new Point(1000, 0), new Point(1000, 1000), new Point(0, 1000)));
+
+    @Test
+    public void testQuantizedAndReverseHits() {
+        PathCache cache = new PathCache(10, 100);
+        Point a = new Point(101, 102);
+        Point b = new Point(301, 302);
+        Point corner = new Point(200, 150);
+        assertNull(cache.get(a, b, SQUARE));
+        cache.put(a, b, new Point[]{a, corner, b}, SQUARE);
+
+        //Same cells, so the corners are reused with the requested end points
+        Point a2 = new Point(109, 105);
+        Point b2 = new Point(300, 309);
+        assertArrayEquals(new Point[]{a2, corner, b2}, cache.get(a2, b2, SQUARE));
+        //Reverse direction
+        assertArrayEquals(new Point[]{b2, corner, a2}, cache.get(b2, a2, SQUARE));
+        //Other cell
+        assertNull(cache.get(new Point(111, 102), b, SQUARE));
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testEviction() {
+        PathCache cache = new PathCache(1, 2);
+        Point[] points = {new Point(0, 0), new Point(10, 0), new Point(20, 0), new Point(30, 0)};
+        cache.put(points[0], points[1], new Point[]{points[0], points[1]}, SQUARE);
+        cache.put(points[0], points[2], new Point[]{points[0], points[2]}, SQUARE);
+        //Use the first entry, so the second one is the least recently used
+        assertNotNull(cache.get(points[0], points[1], SQUARE));
+        cache.put(points[0], points[3], new Point[]{points[0], points[3]}, SQUARE);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNotNull(cache.get(points[0], points[1], SQUARE));
+        assertNull(cache.get(points[0], points[2], SQUARE));
+        assertNotNull(cache.get(points[0], points[3], SQUARE));
+
+        //Memory limit for two entries with two points
+        long limit = 2 * (PathCache.ENTRY_BYTES + 2 * PathCache.POINT_BYTES);
+        PathCache memoryCache = new PathCache(1, 100, limit);
+        memoryCache.put(points[0], points[1], new Point[]{points[0], points[1]}, SQUARE);
+        memoryCache.put(points[0], points[2], new Point[]{points[0], points[2]}, SQUARE);
+        assertEquals(limit, memoryCache.getEstimatedBytes());
+        memoryCache.put(points[0], points[3], new Point[]{points[0], points[1], points[2], points[3]}, SQUARE);
+        assertEquals(1, memoryCache.size());
+        assertEquals(2, memoryCache.getEvictions());
+    }
+
+    @Test
+    public void testOtherMesh() {
+        PathCache cache = new PathCache(10, 100);
+        Point a = new Point(0, 0);
+        Point b = new Point(100, 0);
+        cache.put(a, b, new Point[]{a, b}, SQUARE);
+        assertNotNull(cache.get(a, b, SQUARE));
+        assertNull(cache.get(a, b, new NavigationMesh(SQUARE.getArea())));
+        assertEquals(0, cache.size());
+        assertThrows(IllegalArgumentException.class, () -> new PathCache(0, 10));
+
+        //Two path finders of different areas share one cache
+        PathFinder open = new PathFinder(SQUARE.getArea());
+        PathFinder walled = new PathFinder(new Area(SQUARE.getArea().points(), new Area(
+                new Point(400, 100), new Point(600, 100), new Point(600, 900), new Point(400, 900))));
+        open.setPathCache(cache);
+        walled.setPathCache(cache);
+        Point start = new Point(100, 500);
+        Point end = new Point(900, 500);
+        open.setStartAndEndpoint(start, end);
+        walled.setStartAndEndpoint(start, end);
+        for (int caseNumber = 0; caseNumber < 4; caseNumber++) {
+            String caseName = "Test case #" + (caseNumber + 1);
+            assertEquals(2, open.findPath().length, caseName);
+            assertEquals(4, walled.findPath().length, caseName);
+        }
+    }
+
+    @Test
+    public void testInvalidatedHits() {
+        //Thin wall from (480/100) to (520/900), both points of a request lie
+        //in the same cells but on different sides of the wall
+        NavigationMesh mesh = new NavigationMesh(new Area(SQUARE.getArea().points(), new Area(
+                new Point(480, 100), new Point(520, 100), new Point(520, 900), new Point(480, 900))));
+        PathCache cache = new PathCache(300, 100);
+        Point left = new Point(450, 500);
+        Point right = new Point(550, 500);
+        Point end = new Point(100, 500);
+        cache.put(left, end, new Point[]{left, end}, mesh);
+        assertNotNull(cache.get(new Point(460, 520), end, mesh));
+        assertNull(cache.get(right, end, mesh));
+
+        //Inside and outside of the area
+        Point inside = new Point(990, 500);
+        Point outside = new Point(1010, 500);
+        cache.put(inside, end, new Point[]{inside, new Point(500, 950), end}, mesh);
+        assertNull(cache.get(outside, end, mesh));
+        Point border = new Point(1000, 550);
+        cache.put(outside, new Point(1010, 550), new Point[]{new Point(1000, 500), border}, mesh);
+        assertNull(cache.get(new Point(990, 510), border, mesh));
+
+        //No path is only reused for the same points
+        Point hole = new Point(500, 500);
+        cache.put(hole, end, new Point[0], mesh);
+        assertEquals(0, cache.get(hole, end, mesh).length);
+        assertNull(cache.get(new Point(505, 505), end, mesh));
+    }
+
+    @Test
+    public void testOutsidePoints() {
+        Area area = new Area(
+                new Point(100, 100), new Point(200, 100), new Point(200, 400), new Point(400, 400),
+                new Point(400, 200), new Point(350, 200), new Point(350, 350), new Point(250, 350),
+                new Point(250, 100), new Point(500, 100), new Point(500, 500), new Point(100, 500));
+        PathFinder cached = new PathFinder(area);
+        cached.setPathCache(new PathCache(100, 100));
+        PathFinder fresh = new PathFinder(area);
+        //Both starts lie outside of the area in the same cell, the second one
+        //is projected onto another point of the border
+        Point end = new Point(300, 300);
+        Point[] starts = {new Point(10, 110), new Point(10, 190)};
+        for (int caseNumber = 0; caseNumber < starts.length; caseNumber++) {
+            cached.setStartAndEndpoint(starts[caseNumber], end);
+            fresh.setStartAndEndpoint(starts[caseNumber], end);
+            assertArrayEquals(fresh.findPath(), cached.findPath(), "Test case #" + (caseNumber + 1));
+        }
+        assertEquals(1, cached.getPathCache().getHits());
+    }
+
+    @Test
+    public void testPathFinderWithCache() {
+        PathFinder pathFinder = new PathFinder(new Area(
+                new Point(0, 0), new Point(1000, 0), new Point(1000, 1000), new Point(0, 1000)));
+        PathCache cache = new PathCache(5, 100);
+        pathFinder.setPathCache(cache);
+        Point start = new Point(100, 500);
+        Point end = new Point(900, 500);
+        pathFinder.setStartAndEndpoint(start, end);
+        assertArrayEquals(new Point[]{start, end}, pathFinder.findPath());
+        assertArrayEquals(new Point[]{start, end}, pathFinder.findPath());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        //The obstacle changes the geometry, so the cached path must not be used
+        pathFinder.addObstacle(new Area(new Point(400, 400), new Point(600, 400), new Point(600, 600), new Point(400, 600)));
+        Point[] path = pathFinder.findPath();
+        assertEquals(4, path.length);
+        assertEquals(2, cache.getMisses());
+        pathFinder.setStartAndEndpoint(end, start);
+        Point[] reverse = pathFinder.findPath();
+        assertEquals(2, cache.getHits());
+        for (int i = 0; i < path.length; i++) {
+            assertEquals(path[i], reverse[path.length - 1 - i]);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package de.itwerkstatt.pathfinder.util;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author dsust
+ */
+public class ShortestPathTableTest {
+
+    @Test
+    public void testShortestPaths() {
+        // 0 --1.0-- 1 --2.0-- 2     3
+        //  \                 /
+        //   -------4.0-------
+        ShortestPathTable table = ShortestPathTable.of(CsrGraph.undirected(4,
+                new int[]{0, 1, 2},
+                new int[]{1, 2, 0},
+                new double[]{1.0, 2.0, 4.0}, 3));
+        assertEquals(4, table.getNodeCount());
+        assertEquals(3.0, table.getDistance(0, 2));
+        assertEquals(3.0, table.getDistance(2, 0));
+        assertEquals(0.0, table.getDistance(1, 1));
+        assertEquals(Double.POSITIVE_INFINITY, table.getDistance(0, 3));
+        assertEquals(1, table.getNextHop(0, 2));
+        assertEquals(1, table.getNextHop(2, 0));
+        assertEquals(-1, table.getNextHop(3, 0));
+        assertArrayEquals(new int[]{0, 1, 2}, table.getPath(0, 2));
+        assertArrayEquals(new int[]{2, 1, 0}, table.getPath(2, 0));
+        assertArrayEquals(new int[]{3}, table.getPath(3, 3));
+        assertArrayEquals(new int[0], table.getPath(0, 3));
+    }
+}
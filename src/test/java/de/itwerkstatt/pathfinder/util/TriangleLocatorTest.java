@@ -0,0 +1,100 @@
+package de.itwerkstatt.pathfinder.util;
+
+import de.itwerkstatt.pathfinder.entities.Point;
+import de.itwerkstatt.pathfinder.entities.Triangle;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author dsust
+ */
+public class TriangleLocatorTest {
+
+    @Test
+    public void testLocate() {
+        //Fan of 100 triangles around (500/500)
+        Random random = new Random(11);
+        int n = 100;
+        Point center = new Point(500, 500);
+        Point[] points = new Point[n];
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * i / n;
+            double radius = 100 + random.nextInt(400);
+            points[i] = new Point(Math.round(500 + radius * Math.cos(angle)), Math.round(500 + radius * Math.sin(angle)));
+        }
+        Triangle[] triangles = new Triangle[n];
+        for (int i = 0; i < n; i++) {
+            triangles[i] = new Triangle(center, points[i], points[(i + 1) % n]);
+        }
+        TriangleLocator locator = new TriangleLocator(triangles);
+
+        for (int caseNumber = 0; caseNumber < 5000; caseNumber++) {
+            Point p = caseNumber < n
+                    ? points[caseNumber]
+                    : new Point(random.nextInt(1100) - 50, random.nextInt(1100) - 50);
+            int expected = -1;
+            for (int i = 0; i < n && expected < 0; i++) {
+                if (triangles[i].isPointInTriangle(p)) {
+                    expected = i;
+                }
+            }
+            int result = locator.locate(p);
+            String caseName = "Test case #" + (caseNumber + 1) + ": " + p;
+            assertEquals(expected >= 0, locator.contains(p), caseName);
+            if (expected >= 0) {
+                //Points on edges can be assigned to either triangle
+                assertTrue(triangles[result].isPointInTriangle(p), caseName);
+            } else {
+                assertEquals(-1, result, caseName);
+            }
+        }
+    }
+
+    @Test
+    public void testLongTriangles() {
+        //Fan of a circle: all triangles reach from the first point to the
+        //opposite side, so registering them in all their cells would need
+        //hundreds of entries per triangle
+        int n = 10000;
+        Point[] points = new Point[n];
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * i / n;
+            points[i] = new Point(Math.round(500000 + 500000 * Math.cos(angle)), Math.round(500000 + 500000 * Math.sin(angle)));
+        }
+        Triangle[] fan = Triangulator.triangulateFan(points);
+        TriangleLocator fanLocator = new TriangleLocator(fan);
+        assertTrue(fanLocator.getEntryCount() <= 4 * fan.length, "Entries: " + fanLocator.getEntryCount());
+        assertLocate(fan, fanLocator, new Random(12), 0, 1000000);
+
+        //Comb: long teeth, the walk leaves and enters the triangles
+        MapGenerator generator = new MapGenerator(12);
+        Triangle[] comb = Triangulator.triangulate(generator.createArea(MapGenerator.Shape.COMB, 2000));
+        TriangleLocator combLocator = new TriangleLocator(comb);
+        assertTrue(combLocator.getEntryCount() <= (TriangleLocator.MAX_CELLS_PER_TRIANGLE + 4) * comb.length);
+        double maxX = Stream.of(comb).mapToDouble(t -> Math.max(t.p1().x(), Math.max(t.p2().x(), t.p3().x()))).max().getAsDouble();
+        assertLocate(comb, combLocator, new Random(13), 0, maxX);
+    }
+
+    /**
+     * Compares the locator with a test of all triangles at random points and
+     * at the corners of the triangles.
+     */
+    private static void assertLocate(Triangle[] triangles, TriangleLocator locator, Random random, double min, double max) {
+        for (int caseNumber = 0; caseNumber < 3000; caseNumber++) {
+            Triangle corner = triangles[random.nextInt(triangles.length)];
+            Point p = caseNumber % 3 == 0
+                    ? corner.p2()
+                    : new Point(Math.round(min + random.nextDouble() * (max - min)), Math.round(min + random.nextDouble() * (max - min)));
+            boolean expected = Stream.of(triangles).anyMatch(t -> t.isPointInTriangle(p));
+            int result = locator.locate(p);
+            String caseName = "Test case #" + (caseNumber + 1) + ": " + p;
+            assertEquals(expected, result >= 0, caseName);
+            if (expected) {
+                assertTrue(triangles[result].isPointInTriangle(p), caseName);
+            }
+        }
+    }
+}
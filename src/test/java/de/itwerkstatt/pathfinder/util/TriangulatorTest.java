@@ -0,0 +1,161 @@
+package de.itwerkstatt.pathfinder.util;
+
+import de.itwerkstatt.pathfinder.entities.Area;
+import de.itwerkstatt.pathfinder.entities.Point;
+import de.itwerkstatt.pathfinder.entities.Triangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author dsust
+ */
+public class TriangulatorTest {
+
+    @Test
+    public void testTriangulateConvex() {
+        Point[] square = {new Point(0, 0), new Point(10, 0), new Point(10, 10), new Point(0, 10)};
+        assertTrue(Triangulator.isConvex(square));
+        assertArrayEquals(Triangulator.triangulateFan(square), Triangulator.triangulate(square));
+        assertThrows(IllegalArgumentException.class, () -> Triangulator.triangulate(new Point(0, 0), new Point(1, 1)));
+    }
+
+    @Test
+    public void testTriangulateMonotone() {
+        testTriangulation(Triangulator::triangulateMonotone);
+    }
+
+    @Test
+    public void testTriangulateEarClipping() {
+        testTriangulation(Triangulator::triangulateEarClipping);
+    }
+
+    @Test
+    public void testTriangulate() {
+        testTriangulation(Triangulator::triangulate);
+    }
+
+    @Test
+    public void testTriangulateDegenerated() {
+        //The edge from (10/10) back to (10/5) overlaps the outline
+        Point[] polygon = {new Point(0, 0), new Point(10, 0), new Point(10, 10), new Point(10, 5), new Point(0, 5)};
+        assertNull(Triangulator.triangulateMonotone(polygon));
+        Triangle[] triangles = Triangulator.triangulate(polygon);
+        assertEquals(50, Arrays.stream(triangles).mapToDouble(t -> Math.abs(t.calculateArea())).sum(), 1e-9);
+
+        //Crossing edges cannot be triangulated
+        Point[] bowtie = {new Point(0, 0), new Point(10, 10), new Point(10, 0), new Point(0, 10)};
+        assertThrows(IllegalArgumentException.class, () -> Triangulator.triangulate(bowtie));
+        assertThrows(IllegalArgumentException.class, () -> Triangulator.triangulateEarClipping(bowtie));
+    }
+
+    @Test
+    public void testTriangulateWithHoles() {
+        Random random = new Random(10);
+        for (int caseNumber = 0; caseNumber < 30; caseNumber++) {
+            //Star shaped holes in the cells of a 4x4 grid, some cells stay empty
+            List<Point[]> holes = new ArrayList<>();
+            for (int cell = 0; cell < 16; cell++) {
+                if (random.nextBoolean()) {
+                    holes.add(randomStar(random, 125 + 250 * (cell % 4), 125 + 250 * (cell / 4), 20, 100, 3 + random.nextInt(8)));
+                }
+            }
+            Point[] outline = new Point[]{new Point(0, 0), new Point(1000, 0), new Point(1000, 1000), new Point(0, 1000)};
+            Area area = new Area(outline, holes.stream().map(Area::new).toArray(Area[]::new));
+            String caseName = "Test case #" + (caseNumber + 1);
+            System.out.println(caseName);
+            Point[][] holeArray = holes.toArray(Point[][]::new);
+            for (Triangle[] triangles : List.of(
+                    Triangulator.triangulate(area),
+                    Triangulator.triangulateMonotone(outline, holeArray),
+                    Triangulator.triangulateEarClipping(outline, holeArray))) {
+                double expectedArea = 1000 * 1000 - holes.stream().mapToDouble(h -> Math.abs(Triangulator.signedDoubleArea(h)) / 2).sum();
+                double triangleArea = Arrays.stream(triangles).mapToDouble(t -> Math.abs(t.calculateArea())).sum();
+                assertEquals(expectedArea, triangleArea, 1e-6, caseName);
+                for (Triangle t : triangles) {
+                    double cx = (t.p1().x() + t.p2().x() + t.p3().x()) / 3;
+                    double cy = (t.p1().y() + t.p2().y() + t.p3().y()) / 3;
+                    assertTrue(holes.stream().noneMatch(h -> isInPolygon(h, cx, cy)), caseName + ": " + t);
+                }
+            }
+        }
+    }
+
+    private static Point[] randomStar(Random random, double centerX, double centerY, int minRadius, int maxRadius, int n) {
+        Point[] points = new Point[n];
+        for (int j = 0; j < n; j++) {
+            double angle = 2 * Math.PI * j / n;
+            double radius = minRadius + random.nextInt(maxRadius - minRadius);
+            points[j] = new Point(Math.round(centerX + radius * Math.cos(angle)), Math.round(centerY + radius * Math.sin(angle)));
+        }
+        return points;
+    }
+
+    private void testTriangulation(Function<Point[], Triangle[]> triangulator) {
+        List<Point[]> testcases = new ArrayList<>();
+        //Room of the GUITest
+        testcases.add(new Point[]{
+            new Point(100, 100), new Point(200, 100), new Point(200, 400), new Point(400, 400),
+            new Point(400, 200), new Point(350, 200), new Point(350, 350), new Point(250, 350),
+            new Point(250, 100), new Point(500, 100), new Point(500, 500), new Point(100, 500)});
+        //Comb with many horizontal edges
+        List<Point> comb = new ArrayList<>();
+        comb.add(new Point(0, 0));
+        comb.add(new Point(100, 0));
+        for (int i = 9; i >= 0; i--) {
+            comb.add(new Point(i * 10 + 10, 50));
+            comb.add(new Point(i * 10 + 5, 50));
+            comb.add(new Point(i * 10 + 5, 10));
+            comb.add(new Point(i * 10, 10));
+        }
+        testcases.add(comb.toArray(Point[]::new));
+        //Random star shaped polygons, counterclockwise and clockwise
+        Random random = new Random(8);
+        for (int i = 0; i < 50; i++) {
+            Point[] points = randomStar(random, 500, 500, 10, 500, 5 + random.nextInt(100));
+            if (i % 2 == 1) {
+                Collections.reverse(Arrays.asList(points));
+            }
+            testcases.add(points);
+        }
+
+        for (int caseNumber = 0; caseNumber < testcases.size(); caseNumber++) {
+            Point[] polygon = testcases.get(caseNumber);
+            String caseName = "Test case #" + (caseNumber + 1);
+            System.out.println(caseName);
+            Triangle[] triangles = triangulator.apply(polygon);
+            //Same area and every triangle inside the polygon, so the triangles cover it completely
+            double triangleArea = Arrays.stream(triangles).mapToDouble(t -> Math.abs(t.calculateArea())).sum();
+            assertEquals(Math.abs(Triangulator.signedDoubleArea(polygon)) / 2, triangleArea, 1e-6, caseName);
+            assertTrue(triangles.length <= polygon.length - 2, caseName);
+            for (Triangle t : triangles) {
+                assertTrue(Arrays.asList(polygon).containsAll(List.of(t.p1(), t.p2(), t.p3())), caseName);
+                double cx = (t.p1().x() + t.p2().x() + t.p3().x()) / 3;
+                double cy = (t.p1().y() + t.p2().y() + t.p3().y()) / 3;
+                assertTrue(isInPolygon(polygon, cx, cy), caseName + ": " + t);
+            }
+        }
+    }
+
+    /**
+     * Brute force ray casting test.
+     */
+    private static boolean isInPolygon(Point[] polygon, double x, double y) {
+        boolean inside = false;
+        for (int i = 0, j = polygon.length - 1; i < polygon.length; j = i++) {
+            Point a = polygon[i];
+            Point b = polygon[j];
+            if ((a.y() > y) != (b.y() > y)
+                    && x < (b.x() - a.x()) * (y - a.y()) / (b.y() - a.y()) + a.x()) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+}
@@ -0,0 +1,105 @@
+package de.itwerkstatt.pathfinder.util;
+
+import de.itwerkstatt.pathfinder.entities.Area;
+import de.itwerkstatt.pathfinder.entities.Line;
+import de.itwerkstatt.pathfinder.entities.Point;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author dsust
+ */
+public class VisibilityGraphBuilderTest {
+
+    @Test
+    public void testBuild() {
+        List<Area> testcases = new ArrayList<>();
+        Point[] square = {new Point(0, 0), new Point(1000, 0), new Point(1000, 1000), new Point(0, 1000)};
+        //Room of the GUITest
+        testcases.add(new Area(
+                new Point(100, 100), new Point(200, 100), new Point(200, 400), new Point(400, 400),
+                new Point(400, 200), new Point(350, 200), new Point(350, 350), new Point(250, 350),
+                new Point(250, 100), new Point(500, 100), new Point(500, 500), new Point(100, 500)));
+        //Aligned square holes, many segments pass several vertices
+        List<Area> squareHoles = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                squareHoles.add(new Area(
+                        new Point(100 + i * 200, 100 + j * 200), new Point(200 + i * 200, 100 + j * 200),
+                        new Point(200 + i * 200, 200 + j * 200), new Point(100 + i * 200, 200 + j * 200)));
+            }
+        }
+        testcases.add(new Area(square, squareHoles.toArray(Area[]::new)));
+        //Random star shaped areas and random star shaped holes
+        Random random = new Random(12);
+        for (int i = 0; i < 20; i++) {
+            testcases.add(new Area(randomStar(random, 500, 500, 100, 500, 5 + random.nextInt(40))));
+        }
+        for (int i = 0; i < 20; i++) {
+            List<Area> holes = new ArrayList<>();
+            for (int cell = 0; cell < 16; cell++) {
+                if (random.nextBoolean()) {
+                    holes.add(new Area(randomStar(random, 125 + 250 * (cell % 4), 125 + 250 * (cell / 4), 20, 100, 3 + random.nextInt(6))));
+                }
+            }
+            testcases.add(new Area(square, holes.toArray(Area[]::new)));
+        }
+
+        for (int caseNumber = 0; caseNumber < testcases.size(); caseNumber++) {
+            Area area = testcases.get(caseNumber);
+            Point[][] rings = new Point[area.holes().length + 1][];
+            rings[0] = Triangulator.counterclockwise(area.points());
+            for (int h = 0; h < area.holes().length; h++) {
+                rings[h + 1] = Triangulator.clockwise(area.holes()[h].points());
+            }
+            //Every vertex is a node, so the sweep is also tested for convex vertices
+            Point[] nodes = Stream.of(rings).flatMap(Stream::of).toArray(Point[]::new);
+            CsrGraph graph = new VisibilityGraphBuilder(rings).build(nodes);
+
+            //Brute force: exact check of every pair
+            List<Line> lines = new ArrayList<>();
+            for (Point[] ring : rings) {
+                for (int i = 0; i < ring.length; i++) {
+                    lines.add(new Line(ring[i], ring[(i + 1) % ring.length]));
+                }
+            }
+            EdgeGrid grid = new EdgeGrid(lines.toArray(Line[]::new));
+            TriangleLocator locator = new TriangleLocator(Triangulator.triangulate(area));
+            String caseName = "Test case #" + (caseNumber + 1);
+            System.out.println(caseName);
+            for (int i = 0; i < nodes.length; i++) {
+                for (int j = i + 1; j < nodes.length; j++) {
+                    Point a = nodes[i];
+                    Point b = nodes[j];
+                    boolean expected = !grid.crossesBorder(a.x(), a.y(), b.x(), b.y())
+                            && locator.locate((a.x() + b.x()) / 2, (a.y() + b.y()) / 2) >= 0;
+                    assertEquals(expected, isConnected(graph, i, j), caseName + ": " + a + " -> " + b);
+                }
+            }
+        }
+    }
+
+    private static boolean isConnected(CsrGraph graph, int a, int b) {
+        for (int e = graph.getFirstEdge(a); e < graph.getEndEdge(a); e++) {
+            if (graph.getTarget(e) == b) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Point[] randomStar(Random random, double centerX, double centerY, int minRadius, int maxRadius, int n) {
+        Point[] points = new Point[n];
+        for (int j = 0; j < n; j++) {
+            double angle = 2 * Math.PI * j / n;
+            double radius = minRadius + random.nextInt(maxRadius - minRadius);
+            points[j] = new Point(Math.round(centerX + radius * Math.cos(angle)), Math.round(centerY + radius * Math.sin(angle)));
+        }
+        return points;
+    }
+}